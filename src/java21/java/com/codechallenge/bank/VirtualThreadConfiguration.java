@@ -0,0 +1,86 @@
+package com.codechallenge.bank;
+
+import com.codechallenge.bank.dao.ConcurrencyLimitedDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every Tomcat request, and so every call to the services and the DAOs, on its own virtual thread instead of the
+ * pool of 200 platform threads. Only compiled with the virtual-threads profile, that builds for Java 21.
+ * <p>
+ * The requests are not bounded by a thread pool anymore, so the data source is wrapped in a
+ * {@link ConcurrencyLimitedDataSource} that lets bank.jdbc.max-concurrency threads hold a connection at the same
+ * time. A virtual thread waiting for a permit is parked and does not hold its carrier thread.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Configuration
+@ConditionalOnProperty(name = "bank.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+  
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService requestExecutor() {
+    return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("request-", 0).factory());
+  }
+  
+  @Bean
+  public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadCustomizer(
+    final ExecutorService requestExecutor) {
+    return factory -> factory.addConnectorCustomizers(connector ->
+      ((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(requestExecutor));
+  }
+  
+  /**
+   * Static, so that the data source is wrapped even if it is created before this configuration.
+   */
+  @Bean
+  public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor() {
+    return new ConcurrencyLimitedDataSourcePostProcessor();
+  }
+  
+  @Bean
+  public MeterBinder jdbcWaitingMetrics(final DataSource dataSource) throws SQLException {
+    ConcurrencyLimitedDataSource limited = dataSource.unwrap(ConcurrencyLimitedDataSource.class);
+    return registry -> Gauge.builder("bank.jdbc.waiting", limited, ConcurrencyLimitedDataSource::getWaiting)
+      .description("Threads waiting for a connection")
+      .register(registry);
+  }
+  
+  /**
+   * Reads the limits from the environment because a bean post processor is created before the @Value injection.
+   */
+  private static class ConcurrencyLimitedDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware {
+    
+    private Environment environment;
+    
+    @Override
+    public void setEnvironment(final Environment environment) {
+      this.environment = environment;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+      if (!(bean instanceof DataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+        return bean;
+      }
+      return new ConcurrencyLimitedDataSource((DataSource) bean,
+        environment.getProperty("bank.jdbc.max-concurrency", Integer.class, 10),
+        environment.getProperty("bank.jdbc.acquire-timeout-ms", Long.class, 30000L));
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.BankApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application with the in memory H2 database, without the web server so the benchmarks call the services
+ * directly, or with the web server for the benchmarks of the endpoints.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+final class BenchmarkContext {
+  
+  private BenchmarkContext() {
+    super();
+  }
+  
+  /**
+   * @param properties extra application properties, in the key=value form.
+   * @return the started application context, it has to be closed by the benchmark.
+   */
+  static ConfigurableApplicationContext start(final String... properties) {
+    return new SpringApplicationBuilder(BankApplication.class)
+      .web(WebApplicationType.NONE)
+      .logStartupInfo(false)
+      .properties("logging.level.root=WARN")
+      .properties(properties)
+      .run();
+  }
+  
+  /**
+   * Starts the application with the web server on a random port.
+   *
+   * @param profile    the profile that selects the web stack: servlet (Spring MVC) or reactive (WebFlux).
+   * @param properties extra application properties, in the key=value form.
+   * @return the started application context, it has to be closed by the benchmark.
+   */
+  static ConfigurableApplicationContext startServer(final String profile, final String... properties) {
+    return new SpringApplicationBuilder(BankApplication.class)
+      .profiles(profile)
+      .logStartupInfo(false)
+      .properties("logging.level.root=WARN", "server.port=0")
+      .properties(properties)
+      .run();
+  }
+  
+  static int port(final ConfigurableApplicationContext context) {
+    return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+  }
+}
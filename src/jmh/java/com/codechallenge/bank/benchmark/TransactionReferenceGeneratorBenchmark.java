@@ -0,0 +1,33 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.util.TransactionReferenceGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TransactionReferenceGenerator#generate()} with one thread and with the threads competing for the
+ * same sequence.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionReferenceGeneratorBenchmark {
+  
+  @Benchmark
+  @Threads(1)
+  public String generate1Thread() {
+    return TransactionReferenceGenerator.generate();
+  }
+  
+  @Benchmark
+  @Threads(8)
+  public String generate8Threads() {
+    return TransactionReferenceGenerator.generate();
+  }
+}
@@ -0,0 +1,73 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TransactionService#save(Transaction)} against the in memory H2 database, with 1, 8 and 32 threads
+ * spread over a set of accounts, so the threads compete for the same ledger stripes as in production.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSaveBenchmark {
+  
+  @Param({"1000"})
+  private int accounts;
+  
+  private ConfigurableApplicationContext context;
+  private TransactionService transactionService;
+  
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start();
+    transactionService = context.getBean(TransactionService.class);
+  }
+  
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+  
+  @Benchmark
+  @Threads(1)
+  public TransactionDto save1Thread() {
+    return save();
+  }
+  
+  @Benchmark
+  @Threads(8)
+  public TransactionDto save8Threads() {
+    return save();
+  }
+  
+  @Benchmark
+  @Threads(32)
+  public TransactionDto save32Threads() {
+    return save();
+  }
+  
+  /**
+   * Credits a random account, the reference is generated by the service.
+   */
+  private TransactionDto save() {
+    return transactionService.save(Transaction.builder()
+      .account("ES" + ThreadLocalRandom.current().nextInt(accounts))
+      .amount(1050)
+      .fee(50)
+      .description("Benchmark")
+      .build());
+  }
+}
@@ -0,0 +1,62 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Jackson serialization of {@link TransactionDto} lists, as they are written by GET /transactions, with
+ * the same {@link ObjectMapper} configuration that Spring Boot uses.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionSerializationBenchmark {
+  
+  @Param({"10", "1000"})
+  private int size;
+  
+  private ObjectWriter writer;
+  private List<TransactionDto> transactions;
+  
+  @Setup
+  public void setUp() {
+    writer = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build()
+      .writerFor(new TypeReference<List<TransactionDto>>() { });
+    AccountDto account = AccountDto.builder("ES9820385778983000760236").balance(100000).build();
+    transactions = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      transactions.add(TransactionDto.builder()
+        .reference(i + "A")
+        .account(account)
+        .date(LocalDateTime.now())
+        .amount(19338)
+        .fee(318)
+        .description("Restaurant payment")
+        .build());
+    }
+  }
+  
+  @Benchmark
+  public byte[] writeList() throws Exception {
+    return writer.writeValueAsBytes(transactions);
+  }
+}
@@ -0,0 +1,69 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.model.Channel;
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionStatus;
+import com.codechallenge.bank.model.TransactionStatusRequester;
+import com.codechallenge.bank.service.TransactionService;
+import com.codechallenge.bank.service.TransactionStatusService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TransactionStatusService#findStatusFromChannel(TransactionStatusRequester)} for every
+ * {@link Channel}, over past, current and future transactions, with and without the status cache.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionStatusBenchmark {
+  
+  private static final int TRANSACTIONS = 3000;
+  
+  @Param({"CLIENT", "ATM", "INTERNAL"})
+  private Channel channel;
+  
+  @Param({"0", "100000"})
+  private int cacheSize;
+  
+  private ConfigurableApplicationContext context;
+  private TransactionStatusService statusService;
+  private TransactionStatusRequester[] requesters;
+  
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.start("bank.status-cache.maximum-size=" + cacheSize);
+    statusService = context.getBean(TransactionStatusService.class);
+    TransactionService transactionService = context.getBean(TransactionService.class);
+    requesters = new TransactionStatusRequester[TRANSACTIONS];
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      String reference = transactionService.save(Transaction.builder()
+        .account("ES" + (i % 100))
+        .date(LocalDateTime.now().plusDays(i % 3 - 1))
+        .amount(19338)
+        .fee(318)
+        .build()).getReference();
+      requesters[i] = TransactionStatusRequester.builder().reference(reference).channel(channel).build();
+    }
+  }
+  
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+  
+  @Benchmark
+  public TransactionStatus findStatusFromChannel() {
+    return statusService.findStatusFromChannel(requesters[ThreadLocalRandom.current().nextInt(TRANSACTIONS)]);
+  }
+}
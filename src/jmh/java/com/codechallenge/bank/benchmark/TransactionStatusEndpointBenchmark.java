@@ -0,0 +1,78 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.model.Channel;
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures GET /transactionStatus through HTTP with 64 concurrent ATM clients, on the Spring MVC stack (servlet
+ * profile) and on the WebFlux stack (reactive profile), with and without the status cache.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class TransactionStatusEndpointBenchmark {
+  
+  private static final int TRANSACTIONS = 3000;
+  
+  @Param({"servlet", "reactive"})
+  private String stack;
+  
+  @Param({"0", "100000"})
+  private int cacheSize;
+  
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private HttpRequest[] requests;
+  
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.startServer(stack, "bank.status-cache.maximum-size=" + cacheSize);
+    TransactionService transactionService = context.getBean(TransactionService.class);
+    URI uri = URI.create("http://localhost:" + BenchmarkContext.port(context) + "/transactionStatus");
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    requests = new HttpRequest[TRANSACTIONS];
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      String reference = transactionService.save(Transaction.builder()
+        .account("ES" + (i % 100))
+        .date(LocalDateTime.now().plusDays(i % 3 - 1))
+        .amount(19338)
+        .fee(318)
+        .build()).getReference();
+      requests[i] = HttpRequest.newBuilder(uri)
+        .header("Content-Type", "application/json")
+        .method("GET", HttpRequest.BodyPublishers.ofString("{\"reference\":\"" + reference + "\",\"channel\":\""
+          + Channel.ATM + "\"}"))
+        .build();
+    }
+  }
+  
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+  
+  @Benchmark
+  public int findStatus() throws IOException, InterruptedException {
+    HttpRequest request = requests[ThreadLocalRandom.current().nextInt(TRANSACTIONS)];
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+}
@@ -0,0 +1,181 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.model.Channel;
+import com.codechallenge.bank.model.Status;
+import com.codechallenge.bank.model.TransactionStatus;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.service.TransactionStatusRules;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static com.codechallenge.bank.model.Channel.*;
+import static com.codechallenge.bank.model.Status.*;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Compares the {@link TransactionStatusRules} table with the Optional chains it replaced, for every {@link Channel}
+ * and date relation. Run it with the gc profiler to compare the allocation rate as well.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionStatusRulesBenchmark {
+  
+  @Param({"CLIENT", "ATM", "INTERNAL"})
+  private Channel channel;
+  
+  @Param({"-1", "0", "1"})
+  private int days;
+  
+  private TransactionDto transaction;
+  
+  @Setup
+  public void setUp() {
+    transaction = TransactionDto.builder()
+      .reference("12345A")
+      .date(LocalDateTime.now().plusDays(days))
+      .amount(-19338)
+      .fee(318)
+      .build();
+  }
+  
+  @Benchmark
+  public TransactionStatus optionalChains() {
+    return LegacyStatusRules.buildTransactionStatus(transaction, channel);
+  }
+  
+  @Benchmark
+  public TransactionStatus rulesTable() {
+    TransactionStatusRules.Rule rule = TransactionStatusRules.find(transaction.getDate().toLocalDate(),
+      LocalDate.now(), channel);
+    return TransactionStatus.builder()
+      .reference(transaction.getReference())
+      .status(rule.getStatus())
+      .amount(rule.amount(transaction))
+      .fee(rule.fee(transaction))
+      .build();
+  }
+  
+  /**
+   * The status rules as they were implemented before the {@link TransactionStatusRules}, kept as the baseline.
+   */
+  static class LegacyStatusRules {
+    
+    static TransactionStatus buildTransactionStatus(final TransactionDto transaction, final Channel channel) {
+      return Optional.of(TransactionStatus.builder())
+        .map(builder -> builder.status(calculateStatus(transaction.getDate(), channel)))
+        .map(builder -> builder.reference(transaction.getReference()))
+        .map(builder -> builder.amount(calculateAmount(transaction, channel)))
+        .map(builder -> {
+          if (INTERNAL.equals(channel)) {
+            builder.fee(transaction.getFee());
+          }
+          return builder;
+        })
+        .map(TransactionStatus.Builder::build)
+        .get();
+    }
+  
+    /**
+     * Calculates the {@link Status} using the date from the {@link TransactionDto} stored in the database.
+     *
+     * @param transactionDate the transaction date
+     * @return the {@link Status}
+     */
+    private static Status calculateStatus(final LocalDateTime transactionDate, final Channel channel) {
+      return calculateSettledStatus(transactionDate)
+        .or(() -> calculatePendingStatus(transactionDate))
+        .or(() -> calculatePendingStatusForATM(transactionDate, channel))
+        .or(() -> calculateFutureStatus(transactionDate))
+        .get();
+    }
+  
+    private static Optional<Status> calculateSettledStatus(final LocalDateTime transactionDate) {
+      return Optional.of(LocalDateTime.now())
+        .filter(currentDate -> transactionDate.toLocalDate().isBefore(currentDate.toLocalDate()))
+        .map(c -> SETTLED);
+    }
+  
+    private static Optional<Status> calculatePendingStatus(final LocalDateTime transactionDate) {
+      return Optional.of(LocalDateTime.now())
+        .filter(currentDate -> transactionDate.toLocalDate().isEqual(currentDate.toLocalDate()))
+        .map(c -> PENDING);
+    }
+  
+    private static Optional<Status> calculatePendingStatusForATM(LocalDateTime transactionDate, Channel channel) {
+      return Optional.of(LocalDateTime.now())
+        .filter(currentDate -> transactionDate.toLocalDate().isAfter(currentDate.toLocalDate()) && getAtmPredicate().test(channel))
+        .map(c -> PENDING);
+    }
+  
+    private static Optional<Status> calculateFutureStatus(final LocalDateTime transactionDate) {
+      return Optional.of(LocalDateTime.now())
+        .filter(currentDate -> transactionDate.toLocalDate().isAfter(currentDate.toLocalDate()))
+        .map(c -> FUTURE);
+    }
+  
+    private static long calculateAmount(final TransactionDto transaction, final Channel channel) {
+      return calculateClientAmount(transaction, channel)
+        .or(() -> calculateAtmAmount(transaction, channel))
+        .or(() -> calculateInternalAmount(transaction, channel))
+        .orElseThrow(() -> new ResponseStatusException(BAD_REQUEST, "Please provide a channel for the given reference"));
+    }
+  
+    private static Predicate<Channel> getClientPredicate() {
+      return CLIENT::equals;
+    }
+  
+    private static Predicate<Channel> getAtmPredicate() {
+      return ATM::equals;
+    }
+  
+    private static Predicate<Channel> getInternalPredicate() {
+      return INTERNAL::equals;
+    }
+  
+    private static Optional<Long> calculateClientAmount(final TransactionDto transaction, final Channel channel) {
+      return Optional.ofNullable(channel)
+        .filter(getClientPredicate())
+        .map(c -> calculateAmountSubtractingFee(transaction));
+    }
+  
+    private static Optional<Long> calculateAtmAmount(final TransactionDto transaction, final Channel channel) {
+      return Optional.ofNullable(channel)
+        .filter(getAtmPredicate())
+        .map(c -> calculateAmountSubtractingFee(transaction));
+    }
+  
+    private static Optional<Long> calculateInternalAmount(final TransactionDto transaction, final Channel channel) {
+      return Optional.ofNullable(channel)
+        .filter(getInternalPredicate())
+        .map(c -> transaction.getAmount());
+    }
+  
+    /**
+     * Calculates the amount after subtracting the fee, that will be used in the {@link TransactionStatus} object.
+     *
+     * @param transaction the {@link TransactionDto} stored in the database
+     * @return the new calculated amount.
+     */
+    private static long calculateAmountSubtractingFee(final TransactionDto transaction) {
+      int signChanger = (transaction.getAmount() < 0) ? -1 : 1;
+      long fee = transaction.getFee();
+      return Optional.of(transaction.getAmount())
+        .map(Math::abs)
+        .map((amount) -> (amount - fee) * signChanger)
+        .orElse(transaction.getAmount());
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.codechallenge.bank.benchmark;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures GET /transactions/{iban} through HTTP with 256 concurrent clients, with the requests on the Tomcat pool of
+ * platform threads and on virtual threads behind the JDBC concurrency limiter. Needs the virtual-threads profile:
+ * mvn -P benchmark,virtual-threads.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dnet.bytebuddy.experimental=true")
+@Threads(256)
+public class VirtualThreadEndpointBenchmark {
+  
+  private static final int ACCOUNTS = 100;
+  
+  @Param({"false", "true"})
+  private boolean virtualThreads;
+  
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private HttpRequest[] requests;
+  
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = BenchmarkContext.startServer("servlet", "bank.virtual-threads.enabled=" + virtualThreads);
+    TransactionService transactionService = context.getBean(TransactionService.class);
+    for (int i = 0; i < 5000; i++) {
+      transactionService.save(Transaction.builder()
+        .account("ES" + (i % ACCOUNTS))
+        .date(LocalDateTime.now().minusMinutes(i))
+        .amount(19338)
+        .fee(318)
+        .build());
+    }
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    requests = new HttpRequest[ACCOUNTS];
+    for (int i = 0; i < ACCOUNTS; i++) {
+      requests[i] = HttpRequest.newBuilder(URI.create("http://localhost:" + BenchmarkContext.port(context)
+        + "/transactions/ES" + i + "?limit=50")).build();
+    }
+  }
+  
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+  
+  @Benchmark
+  public int findByAccount() throws IOException, InterruptedException {
+    HttpRequest request = requests[ThreadLocalRandom.current().nextInt(ACCOUNTS)];
+    return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+  }
+}
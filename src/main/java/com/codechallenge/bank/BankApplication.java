@@ -1,9 +1,12 @@
 package com.codechallenge.bank;
 
+import com.codechallenge.bank.dao.MetricsJpaRepositoryFactoryBean;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
+@EnableJpaRepositories(repositoryFactoryBeanClass = MetricsJpaRepositoryFactoryBean.class)
 public class BankApplication {
 
 	public static void main(String[] args) {
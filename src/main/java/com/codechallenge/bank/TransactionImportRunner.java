@@ -0,0 +1,42 @@
+package com.codechallenge.bank;
+
+import com.codechallenge.bank.service.TransactionImportService;
+import com.codechallenge.bank.service.TransactionImportService.Format;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Imports the file given in bank.import.file when the application starts, see {@link TransactionImportService}. The
+ * format is taken from bank.import.format (CSV or NDJSON) or, when it is not set, from the extension of the file.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Component
+@ConditionalOnProperty("bank.import.file")
+public class TransactionImportRunner implements ApplicationRunner {
+  
+  @Autowired private TransactionImportService importService;
+  
+  @Value("${bank.import.file}")
+  private String file;
+  
+  @Value("${bank.import.format:}")
+  private String format;
+  
+  @Override
+  public void run(final ApplicationArguments args) throws IOException {
+    Path path = Paths.get(file);
+    importService.importFile(path, format.isEmpty() ? Format.of(path)
+      : Format.valueOf(format.toUpperCase(Locale.ROOT)));
+  }
+}
@@ -0,0 +1,113 @@
+package com.codechallenge.bank.controller;
+
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.service.AccountStatementService;
+import com.codechallenge.bank.service.AccountSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_DISPOSITION;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.VARY;
+
+/**
+ * To control the request for the /accounts REST endpoint
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Profile("!reactive")
+@RestController
+@RequestMapping(path = "/accounts")
+public class AccountController {
+  
+  private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
+  private static final String TEXT_CSV = "text/csv";
+  private static final int BUFFER_SIZE = 8192;
+  
+  @Autowired
+  private AccountSummaryService accountSummaryService;
+  
+  @Autowired
+  private AccountStatementService accountStatementService;
+  
+  @GetMapping(path = "/{iban}/summary", produces = "application/json")
+  public AccountSummaryDto findSummary(@PathVariable final String iban) {
+    return accountSummaryService.findByIban(iban);
+  }
+  
+  /**
+   * Streams the statement of the account as CSV, compressed with gzip when the client accepts it.
+   */
+  @GetMapping(path = "/{iban}/statement.csv", produces = TEXT_CSV)
+  public ResponseEntity<StreamingResponseBody> exportStatement(
+    @PathVariable final String iban,
+    @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) final LocalDateTime from,
+    @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) final LocalDateTime to,
+    @RequestHeader(value = ACCEPT_ENCODING, required = false) final String acceptEncoding) {
+    TransactionController.checkDateRange(from, to);
+    accountStatementService.findAccount(iban);
+    boolean gzip = acceptsGzip(acceptEncoding);
+    logger.info("Export the statement of the account {} from {} to {}", iban, from, to);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+      .contentType(MediaType.parseMediaType(TEXT_CSV + ";charset=UTF-8"))
+      .header(CONTENT_DISPOSITION, "attachment; filename=\"statement-" + iban + ".csv\"")
+      .header(VARY, ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(CONTENT_ENCODING, "gzip");
+    }
+    return response.body(output -> {
+      OutputStream target = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : output;
+      Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+      accountStatementService.write(iban, from, to, writer);
+      if (target instanceof GZIPOutputStream) {
+        ((GZIPOutputStream) target).finish();
+      }
+    });
+  }
+  
+  /**
+   * @return true when the Accept-Encoding header accepts gzip with a quality over 0, named explicitly or through the
+   * wildcard when gzip is not named, so an explicit gzip;q=0 refuses it whatever the wildcard says.
+   */
+  static boolean acceptsGzip(final String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    boolean wildcard = false;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parameters = coding.trim().toLowerCase().split("\\s*;\\s*");
+      boolean accepted = Arrays.stream(parameters).noneMatch(parameter -> parameter.matches("q=0(\\.0*)?"));
+      if ("gzip".equals(parameters[0])) {
+        return accepted;
+      }
+      if ("*".equals(parameters[0])) {
+        wildcard = accepted;
+      }
+    }
+    return wildcard;
+  }
+}
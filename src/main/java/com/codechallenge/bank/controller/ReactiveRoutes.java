@@ -0,0 +1,101 @@
+package com.codechallenge.bank.controller;
+
+import com.codechallenge.bank.exception.DataNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+/**
+ * Reactive WebFlux endpoints for /transactions and /transactionStatus, started instead of the Spring MVC controllers
+ * when the reactive profile is active.
+ * <p>
+ * The request threads only parse, validate and write. The JPA calls are blocking, so they run on the jdbc scheduler,
+ * that has as many threads as connections in the pool: the requests that wait for the database are queued without
+ * holding any thread, up to bank.reactive.jdbc-queue-size requests, and the ones that do not fit in the queue get a
+ * 503 instead of piling up in memory. The statuses that are cached are answered without leaving the request thread.
+ * <p>
+ * The account endpoints, the batch of transactions, the NDJSON stream and the lean view are only served by the
+ * Spring MVC controllers.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRoutes {
+  
+  @Bean(destroyMethod = "dispose")
+  public Scheduler jdbcScheduler(@Value("${bank.reactive.jdbc-threads:10}") final int threads,
+                                 @Value("${bank.reactive.jdbc-queue-size:1000}") final int queueSize) {
+    AtomicInteger count = new AtomicInteger();
+    return Schedulers.fromExecutorService(new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueSize), runnable -> {
+        Thread thread = new Thread(runnable, "jdbc-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }));
+  }
+  
+  @Bean
+  public RouterFunction<ServerResponse> bankRoutes(final TransactionHandler transactionHandler,
+                                                   final TransactionStatusHandler statusHandler) {
+    return RouterFunctions.route()
+      .POST("/transactions", contentType(APPLICATION_JSON), transactionHandler::create)
+      .GET("/transactions", transactionHandler::findAll)
+      .GET("/transactions/{iban}", transactionHandler::findByAccount)
+      .GET("/transactionStatus", contentType(APPLICATION_JSON), statusHandler::find)
+      .POST("/transactionStatus/batch", contentType(APPLICATION_JSON), statusHandler::findAll)
+      .build();
+  }
+  
+  /**
+   * Runs the given blocking call on the given scheduler, translating the {@link DataNotFoundException} to a 404 and
+   * the call rejected by a full scheduler to a 503.
+   */
+  static <T> Mono<T> blocking(final Scheduler scheduler, final Callable<T> call) {
+    return Mono.fromCallable(call)
+      .subscribeOn(scheduler)
+      .onErrorMap(DataNotFoundException.class, ex -> new ResponseStatusException(NOT_FOUND, ex.getMessage(), ex))
+      .onErrorMap(RejectedExecutionException.class, ex -> new ResponseStatusException(SERVICE_UNAVAILABLE,
+        "Too many requests are waiting for the database", ex));
+  }
+  
+  /**
+   * Applies the same bean validation as the @Valid arguments of the Spring MVC controllers.
+   */
+  static <T> T validate(final Validator validator, final T value) {
+    Set<ConstraintViolation<T>> violations = validator.validate(value);
+    if (!violations.isEmpty()) {
+      throw new ResponseStatusException(BAD_REQUEST, violations.iterator().next().getMessage());
+    }
+    return value;
+  }
+  
+  static <T> Mono<T> missingBody(final String name) {
+    return Mono.defer(() -> Mono.error(new ResponseStatusException(BAD_REQUEST, "The " + name + " is required")));
+  }
+}
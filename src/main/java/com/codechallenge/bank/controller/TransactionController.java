@@ -1,19 +1,49 @@
 package com.codechallenge.bank.controller;
 
 import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.TransactionSortField;
 import com.codechallenge.bank.model.dto.TransactionDto;
 import com.codechallenge.bank.service.AccountService;
+import com.codechallenge.bank.service.IdempotencyService;
 import com.codechallenge.bank.service.TransactionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 
 /**
  * To control the request for the /transactions REST endpoint
@@ -22,11 +52,17 @@ import java.util.List;
  * @since 25/09/2019
  */
 @Validated
+@Profile("!reactive")
 @RestController
 @RequestMapping(path = "/transactions")
 public class TransactionController {
   
   private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final String DEFAULT_LEAN_PAGE_SIZE = "100";
+  private static final String NDJSON = "application/x-ndjson";
+  static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
   
   @Autowired
   private AccountService accountService;
@@ -34,23 +70,213 @@ public class TransactionController {
   @Autowired
   private TransactionService transactionService;
   
-  @ResponseStatus(HttpStatus.CREATED)
+  @Autowired
+  private IdempotencyService idempotencyService;
+  
+  @Autowired
+  private ObjectMapper objectMapper;
+  
+  /**
+   * With the Idempotency-Key header the transaction is saved only once for the key, the retries get the response of
+   * the first request with the Idempotent-Replayed header.
+   */
   @PostMapping(path = {"/", ""}, consumes = "application/json")
-  public TransactionDto create(@RequestBody @Valid @NotNull final Transaction transaction) {
+  public ResponseEntity<TransactionDto> create(@RequestBody @Valid @NotNull final Transaction transaction,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY, required = false)
+                                               final String idempotencyKey) {
     logger.info("Transaction to be saved: {}", transaction);
-    TransactionDto savedTransaction = transactionService.save(transaction);
+    IdempotencyService.Result<TransactionDto> result = idempotencyService.execute(idempotencyKey,
+      requestValues(transaction), () -> transactionService.save(transaction));
     logger.info("The transaction was saved correctly");
-    return savedTransaction;
+    return created(result);
+  }
+  
+  @PostMapping(path = "/batch", consumes = "application/json", produces = "application/json")
+  public List<TransactionBatchResult> createAll(@RequestBody @NotNull final List<Transaction> transactions) {
+    logger.info("Batch of {} transactions to be saved", transactions.size());
+    List<TransactionBatchResult> results = transactionService.saveAll(transactions);
+    logger.info("The batch of {} transactions was processed", results.size());
+    return results;
+  }
+  
+  @PostMapping(path = "/batch", consumes = NDJSON, produces = "application/json")
+  public List<TransactionBatchResult> createAll(final InputStream body) {
+    List<Transaction> transactions = new ArrayList<>();
+    try (MappingIterator<Transaction> iterator = objectMapper.readerFor(Transaction.class).readValues(body)) {
+      iterator.forEachRemaining(transactions::add);
+    } catch (IOException | RuntimeJsonMappingException ex) {
+      throw new ResponseStatusException(BAD_REQUEST, "The batch of transactions could not be read: " + ex.getMessage());
+    }
+    return createAll(transactions);
   }
   
+  /**
+   * The JSON array is written while the transactions are read in chunks, as in the NDJSON stream, so listing a big
+   * table does not load it in memory.
+   */
   @GetMapping(path = {"/", ""}, produces = "application/json")
-  public List<TransactionDto> findAll() {
+  public ResponseEntity<StreamingResponseBody> findAll() {
     logger.info("Find all transactions");
-    return transactionService.findAll();
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(output -> {
+      JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+      generator.writeStartArray();
+      transactionService.forEach(transaction -> {
+        try {
+          generator.writeObject(transaction);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+      generator.writeEndArray();
+      generator.flush();
+    });
   }
   
+  @GetMapping(path = {"/", ""}, params = {"limit", "view!=lean"}, produces = "application/json")
+  public List<TransactionDto> findPage(@RequestParam(required = false) final String after, @RequestParam final int limit) {
+    checkLimit(limit);
+    logger.info("Find {} transactions after reference {}", limit, after);
+    return transactionService.findPage(after, limit);
+  }
+  
+  /**
+   * The lean view is always a page, of 100 transactions when no limit is given.
+   */
+  @GetMapping(path = {"/", ""}, params = "view=lean", produces = "application/json")
+  public MappingJacksonValue findItems(@RequestParam(required = false) final String after,
+                                       @RequestParam(defaultValue = DEFAULT_LEAN_PAGE_SIZE) final int limit,
+                                       @RequestParam(required = false) final List<String> fields) {
+    checkLimit(limit);
+    logger.info("Find {} lean transactions after reference {}", limit, after);
+    return filterFields(transactionService.findItems(after, limit), fields);
+  }
+  
+  @GetMapping(path = {"/", ""}, produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> streamAll() {
+    logger.info("Stream all transactions");
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(output -> {
+      JsonGenerator generator = objectMapper.getFactory().createGenerator(output).setRootValueSeparator(null);
+      transactionService.forEach(transaction -> {
+        try {
+          generator.writeObject(transaction);
+          generator.writeRaw('\n');
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+      generator.flush();
+    });
+  }
+  
+  /**
+   * With a date range the transactions are sorted by amount when the sort-type header is sent, and by date otherwise.
+   */
   @GetMapping("/{iban}")
-  public List<TransactionDto> findAll(@PathVariable String iban, @RequestHeader(value = "sort-type", required = false) String sortType) {
-    return transactionService.findAll(iban, sortType);
+  public List<TransactionDto> findAll(@PathVariable String iban,
+                                      @RequestHeader(value = "sort-type", required = false) String sortType,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+    if (from == null && to == null) {
+      return transactionService.findAll(iban, sortType);
+    }
+    TransactionSortField sortField = (sortType != null) ? TransactionSortField.AMOUNT : TransactionSortField.DATE;
+    return transactionService.findByAccount(iban, buildQuery(sortField.getProperty(), sortType, null, null, from, to));
+  }
+  
+  @GetMapping(path = "/{iban}", headers = "sort-by")
+  public List<TransactionDto> findAll(@PathVariable String iban,
+                                      @RequestHeader(value = "sort-by") String sortBy,
+                                      @RequestHeader(value = "sort-type", required = false) String sortType,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+    return transactionService.findByAccount(iban, buildQuery(sortBy, sortType, null, null, from, to));
+  }
+  
+  @GetMapping(path = "/{iban}", params = {"limit", "view!=lean"})
+  public List<TransactionDto> findPage(@PathVariable String iban,
+                                       @RequestHeader(value = "sort-by", required = false) String sortBy,
+                                       @RequestHeader(value = "sort-type", required = false) String sortType,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam int limit,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+    checkLimit(limit);
+    return transactionService.findByAccount(iban, buildQuery(sortBy, sortType, after, limit, from, to));
+  }
+  
+  @GetMapping(path = "/{iban}", params = "view=lean")
+  public MappingJacksonValue findItems(@PathVariable String iban,
+                                       @RequestHeader(value = "sort-by", required = false) String sortBy,
+                                       @RequestHeader(value = "sort-type", required = false) String sortType,
+                                       @RequestParam(required = false) String after,
+                                       @RequestParam(defaultValue = DEFAULT_LEAN_PAGE_SIZE) int limit,
+                                       @RequestParam(required = false) List<String> fields,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime to) {
+    checkLimit(limit);
+    String sortField = (sortBy == null && sortType != null) ? TransactionSortField.AMOUNT.getProperty() : sortBy;
+    TransactionQuery query = buildQuery(sortField, sortType, after, limit, from, to);
+    return filterFields(transactionService.findItemsByAccount(iban, query), fields);
+  }
+  
+  /**
+   * Writes only the requested fields of the {@link TransactionItem}s, or all of them when no field is requested.
+   */
+  private MappingJacksonValue filterFields(final Object value, final List<String> fields) {
+    SimpleBeanPropertyFilter filter = SimpleBeanPropertyFilter.serializeAll();
+    if (fields != null && !fields.isEmpty()) {
+      fields.stream()
+        .filter(field -> !TransactionItem.FIELDS.contains(field))
+        .findFirst()
+        .ifPresent(field -> {
+          throw new ResponseStatusException(BAD_REQUEST, "Unknown field " + field + ", the available fields are "
+            + TransactionItem.FIELDS);
+        });
+      filter = SimpleBeanPropertyFilter.filterOutAllExcept(new HashSet<>(fields));
+    }
+    MappingJacksonValue response = new MappingJacksonValue(value);
+    response.setFilters(new SimpleFilterProvider().addFilter(TransactionItem.FILTER, filter));
+    return response;
+  }
+  
+  static ResponseEntity<TransactionDto> created(final IdempotencyService.Result<TransactionDto> result) {
+    ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+    if (result.isReplayed()) {
+      response.header(IDEMPOTENT_REPLAYED, "true");
+    }
+    return response.body(result.getValue());
+  }
+  
+  /**
+   * @return the values that identify a request to save the transaction, a retry has to send the same ones.
+   */
+  static List<Object> requestValues(final Transaction transaction) {
+    return Arrays.asList(transaction.getReference(), transaction.getAccount(), transaction.getDate(),
+      transaction.getAmount(), transaction.getFee(), transaction.getDescription());
+  }
+  
+  static TransactionQuery buildQuery(final String sortBy, final String sortType, final String after, final Integer limit,
+                                     final LocalDateTime from, final LocalDateTime to) {
+    checkDateRange(from, to);
+    return TransactionQuery.builder()
+      .sortField(Optional.ofNullable(sortBy).map(TransactionSortField::fromString).orElse(null))
+      .direction(Optional.ofNullable(sortType).flatMap(Sort.Direction::fromOptionalString).orElse(null))
+      .after(after)
+      .limit(limit)
+      .from(from)
+      .to(to)
+      .build();
+  }
+  
+  static void checkDateRange(final LocalDateTime from, final LocalDateTime to) {
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new ResponseStatusException(BAD_REQUEST, "The date from has to be before the date to");
+    }
+  }
+  
+  static void checkLimit(final int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ResponseStatusException(BAD_REQUEST, "The limit has to be between 1 and " + MAX_PAGE_SIZE);
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.codechallenge.bank.controller;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.service.IdempotencyService;
+import com.codechallenge.bank.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.validation.Validator;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import static com.codechallenge.bank.controller.ReactiveRoutes.blocking;
+import static com.codechallenge.bank.controller.ReactiveRoutes.missingBody;
+import static com.codechallenge.bank.controller.ReactiveRoutes.validate;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Reactive counterpart of the {@link TransactionController} for creating and listing transactions, with the same
+ * parameters, headers and rules.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Component
+@Profile("reactive")
+public class TransactionHandler {
+  
+  private static final Logger logger = LoggerFactory.getLogger(TransactionHandler.class);
+  
+  @Autowired
+  private TransactionService transactionService;
+  
+  @Autowired
+  private IdempotencyService idempotencyService;
+  
+  @Autowired
+  private Validator validator;
+  
+  @Autowired
+  private Scheduler jdbcScheduler;
+  
+  public Mono<ServerResponse> create(final ServerRequest request) {
+    String idempotencyKey = request.headers().header(TransactionController.IDEMPOTENCY_KEY).stream()
+      .findFirst().orElse(null);
+    return request.bodyToMono(Transaction.class)
+      .switchIfEmpty(missingBody("transaction"))
+      .map(transaction -> validate(validator, transaction))
+      .doOnNext(transaction -> logger.info("Transaction to be saved: {}", transaction))
+      .flatMap(transaction -> blocking(jdbcScheduler, () -> idempotencyService.execute(idempotencyKey,
+        TransactionController.requestValues(transaction), () -> transactionService.save(transaction))))
+      .flatMap(result -> ServerResponse.status(HttpStatus.CREATED)
+        .headers(headers -> {
+          if (result.isReplayed()) {
+            headers.set(TransactionController.IDEMPOTENT_REPLAYED, "true");
+          }
+        })
+        .contentType(APPLICATION_JSON)
+        .syncBody(result.getValue()));
+  }
+  
+  public Mono<ServerResponse> findAll(final ServerRequest request) {
+    String after = request.queryParam("after").orElse(null);
+    Integer limit = findLimit(request);
+    return json(blocking(jdbcScheduler, () -> (limit != null)
+      ? transactionService.findPage(after, limit) : transactionService.findAll()));
+  }
+  
+  /**
+   * Without the sort-by header nor the limit parameter the transactions are sorted by amount only when the sort-type
+   * header is sent, and by date when they are filtered by date, as in the {@link TransactionController}.
+   */
+  public Mono<ServerResponse> findByAccount(final ServerRequest request) {
+    String iban = request.pathVariable("iban");
+    String sortType = request.headers().header("sort-type").stream().findFirst().orElse(null);
+    String after = request.queryParam("after").orElse(null);
+    Integer limit = findLimit(request);
+    LocalDateTime from = findDate(request, "from");
+    LocalDateTime to = findDate(request, "to");
+    boolean range = from != null || to != null;
+    String sortBy = request.headers().header("sort-by").stream().findFirst()
+      .orElse(range && limit == null ? (sortType != null ? "amount" : "date") : null);
+    if (sortBy == null && limit == null) {
+      return json(blocking(jdbcScheduler, () -> transactionService.findAll(iban, sortType)));
+    }
+    return json(blocking(jdbcScheduler, () -> transactionService.findByAccount(iban,
+      TransactionController.buildQuery(sortBy, sortType, after, limit, from, to))));
+  }
+  
+  private Integer findLimit(final ServerRequest request) {
+    return request.queryParam("limit")
+      .map(limit -> {
+        try {
+          return Integer.parseInt(limit);
+        } catch (NumberFormatException ex) {
+          throw new ResponseStatusException(BAD_REQUEST, "The limit has to be a number");
+        }
+      })
+      .map(limit -> {
+        TransactionController.checkLimit(limit);
+        return limit;
+      })
+      .orElse(null);
+  }
+  
+  private LocalDateTime findDate(final ServerRequest request, final String name) {
+    return request.queryParam(name)
+      .map(date -> {
+        try {
+          return LocalDateTime.parse(date);
+        } catch (DateTimeParseException ex) {
+          throw new ResponseStatusException(BAD_REQUEST, "The " + name + " date has to be an ISO date time");
+        }
+      })
+      .orElse(null);
+  }
+  
+  private static Mono<ServerResponse> json(final Mono<? extends List<?>> body) {
+    return body.flatMap(list -> ServerResponse.ok().contentType(APPLICATION_JSON).syncBody(list));
+  }
+}
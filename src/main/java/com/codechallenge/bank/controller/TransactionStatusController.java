@@ -6,14 +6,17 @@ import com.codechallenge.bank.service.TransactionStatusService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.util.List;
 
 /**
  * To control the request for the /transactionStatus REST endpoint
@@ -22,6 +25,7 @@ import javax.validation.constraints.NotNull;
  * @since 27/09/2019
  */
 @Validated
+@Profile("!reactive")
 @RestController
 @RequestMapping(path = "/transactionStatus")
 public class TransactionStatusController {
@@ -38,4 +42,12 @@ public class TransactionStatusController {
     logger.info("Status: {} from reference: {}", transactionStatus, requester.getReference());
     return transactionStatus;
   }
-}
\ No newline at end of file
+  
+  @PostMapping(path = "/batch", produces = "application/json", consumes = "application/json")
+  public List<TransactionStatus> findAll(@RequestBody @NotNull final List<@Valid TransactionStatusRequester> requesters) {
+    logger.info("Batch of {} requesters that will be used to check the status", requesters.size());
+    List<TransactionStatus> statuses = service.findStatusesFromChannel(requesters);
+    logger.info("The batch of {} statuses was found", statuses.size());
+    return statuses;
+  }
+}
@@ -0,0 +1,63 @@
+package com.codechallenge.bank.controller;
+
+import com.codechallenge.bank.model.TransactionStatusRequester;
+import com.codechallenge.bank.service.TransactionStatusService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import javax.validation.Validator;
+
+import static com.codechallenge.bank.controller.ReactiveRoutes.blocking;
+import static com.codechallenge.bank.controller.ReactiveRoutes.missingBody;
+import static com.codechallenge.bank.controller.ReactiveRoutes.validate;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Reactive counterpart of the {@link TransactionStatusController}. A cached status is answered from the request
+ * thread, only the statuses that have to be read from the database move to the jdbc scheduler.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Component
+@Profile("reactive")
+public class TransactionStatusHandler {
+  
+  private static final Logger logger = LoggerFactory.getLogger(TransactionStatusHandler.class);
+  
+  @Autowired
+  private TransactionStatusService service;
+  
+  @Autowired
+  private Validator validator;
+  
+  @Autowired
+  private Scheduler jdbcScheduler;
+  
+  public Mono<ServerResponse> find(final ServerRequest request) {
+    return request.bodyToMono(TransactionStatusRequester.class)
+      .switchIfEmpty(missingBody("requester"))
+      .map(requester -> validate(validator, requester))
+      .doOnNext(requester -> logger.info("Requester: {} that will be used to check the status", requester))
+      .flatMap(requester -> Mono.justOrEmpty(service.findCachedStatus(requester))
+        .switchIfEmpty(blocking(jdbcScheduler, () -> service.findStoredStatus(requester))))
+      .flatMap(status -> ServerResponse.ok().contentType(APPLICATION_JSON).syncBody(status));
+  }
+  
+  public Mono<ServerResponse> findAll(final ServerRequest request) {
+    return request.bodyToFlux(TransactionStatusRequester.class)
+      .map(requester -> validate(validator, requester))
+      .collectList()
+      .doOnNext(requesters -> logger.info("Batch of {} requesters that will be used to check the status",
+        requesters.size()))
+      .flatMap(requesters -> blocking(jdbcScheduler, () -> service.findStatusesFromChannel(requesters)))
+      .flatMap(statuses -> ServerResponse.ok().contentType(APPLICATION_JSON).syncBody(statuses));
+  }
+}
@@ -0,0 +1,19 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountShardDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Account shard hibernate implementation
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+public interface AccountShardDAO extends JpaRepository<AccountShardDto, String> {
+  
+  List<AccountShardDto> findByIbanOrderById(final String iban);
+}
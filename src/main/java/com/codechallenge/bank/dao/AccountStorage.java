@@ -0,0 +1,31 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountDto;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage engine of the accounts used by the services. The engine is chosen with the Spring profile: the
+ * {@link JpaAccountStorage} by default and the {@link MemoryAccountStorage} with the memory profile.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public interface AccountStorage {
+  
+  Optional<AccountDto> findById(final String iban);
+  
+  List<AccountDto> findAll();
+  
+  /**
+   * Inserts a new account, when its version is null, or updates a stored one.
+   *
+   * @param account the account to be saved.
+   * @return the saved account with its new version.
+   * @throws org.springframework.dao.OptimisticLockingFailureException when the account was updated since its version
+   *                                                                   was read.
+   * @throws org.springframework.dao.DataIntegrityViolationException  when a new account is already stored.
+   */
+  AccountDto save(final AccountDto account);
+}
@@ -0,0 +1,38 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Account summary hibernate implementation
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+public interface AccountSummaryDAO extends JpaRepository<AccountSummaryDto, String> {
+  
+  /**
+   * Computes the summary of an account from its stored transactions, using the account index of the transactions.
+   *
+   * @param iban the iban of the account.
+   * @return the summary, empty when the account has no transactions.
+   */
+  @Query("select new com.codechallenge.bank.model.dto.AccountSummaryDto(t.account.iban, count(t), "
+    + "sum(case when t.amount > 0 then t.amount else 0 end), sum(case when t.amount < 0 then -t.amount else 0 end), "
+    + "sum(t.fee), max(t.date)) from account_transaction t where t.account.iban = ?1 group by t.account.iban")
+  Optional<AccountSummaryDto> computeByIban(String iban);
+  
+  /**
+   * Finds the summaries kept by the shards of a hot account, whose ids start with the given prefix.
+   *
+   * @param prefix the iban of the account followed by the shard separator.
+   * @return the summaries of the shards.
+   */
+  List<AccountSummaryDto> findByIbanStartingWith(String prefix);
+}
@@ -0,0 +1,38 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage engine of the account summaries used by the services, chosen with the Spring profile like the
+ * {@link AccountStorage}: the {@link JpaAccountSummaryStorage} by default and the {@link MemoryAccountSummaryStorage}
+ * with the memory profile, so the summaries are kept next to the transactions they add up.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public interface AccountSummaryStorage {
+  
+  Optional<AccountSummaryDto> findById(final String iban);
+  
+  /**
+   * Finds the summaries kept by the shards of a hot account, whose ids start with the given prefix.
+   *
+   * @param prefix the iban of the account followed by the shard separator.
+   * @return the summaries of the shards.
+   */
+  List<AccountSummaryDto> findByIbanStartingWith(final String prefix);
+  
+  /**
+   * Inserts or replaces the summary of an account.
+   *
+   * @param summary the summary to be saved.
+   * @return the saved summary.
+   */
+  AccountSummaryDto save(final AccountSummaryDto summary);
+  
+  void deleteAll(final Collection<AccountSummaryDto> summaries);
+}
@@ -0,0 +1,98 @@
+package com.codechallenge.bank.dao;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Data source that lets at most the given number of threads hold a connection at the same time. The other threads
+ * wait in arrival order, without touching the pool, until a connection is closed or the acquire timeout expires.
+ * <p>
+ * With a virtual thread per request there is no thread pool bounding how many requests reach the database, so this
+ * limiter keeps thousands of requests from piling up inside the connection pool.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+  
+  private final Semaphore permits;
+  private final long acquireTimeoutMillis;
+  
+  public ConcurrencyLimitedDataSource(final DataSource dataSource, final int maxConcurrency,
+                                      final long acquireTimeoutMillis) {
+    super(dataSource);
+    if (maxConcurrency <= 0) {
+      throw new IllegalArgumentException("The maximum concurrency has to be positive");
+    }
+    this.permits = new Semaphore(maxConcurrency, true);
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+  }
+  
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    try {
+      return limited(super.getConnection());
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+  
+  @Override
+  public Connection getConnection(final String username, final String password) throws SQLException {
+    acquire();
+    try {
+      return limited(super.getConnection(username, password));
+    } catch (SQLException | RuntimeException ex) {
+      permits.release();
+      throw ex;
+    }
+  }
+  
+  /**
+   * @return the number of threads waiting for a connection
+   */
+  public int getWaiting() {
+    return permits.getQueueLength();
+  }
+  
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException("No connection available after " + acquireTimeoutMillis + "ms");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", ex);
+    }
+  }
+  
+  /**
+   * Wraps the connection so that closing it gives the permit back, only the first time it is closed.
+   */
+  private Connection limited(final Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+      (proxy, method, args) -> {
+        try {
+          return method.invoke(connection, args);
+        } catch (InvocationTargetException ex) {
+          throw ex.getTargetException();
+        } finally {
+          if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+            permits.release();
+          }
+        }
+      });
+  }
+}
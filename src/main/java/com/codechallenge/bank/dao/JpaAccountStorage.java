@@ -0,0 +1,37 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Default {@link AccountStorage}, that keeps the accounts in the database through the {@link AccountDAO}.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+@Profile("!memory")
+public class JpaAccountStorage implements AccountStorage {
+  
+  @Autowired private AccountDAO dao;
+  
+  @Override
+  public Optional<AccountDto> findById(final String iban) {
+    return dao.findById(iban);
+  }
+  
+  @Override
+  public List<AccountDto> findAll() {
+    return dao.findAll();
+  }
+  
+  @Override
+  public AccountDto save(final AccountDto account) {
+    return dao.save(account);
+  }
+}
@@ -0,0 +1,44 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Default {@link AccountSummaryStorage}, that keeps the summaries in the database through the
+ * {@link AccountSummaryDAO}.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+@Profile("!memory")
+public class JpaAccountSummaryStorage implements AccountSummaryStorage {
+  
+  @Autowired private AccountSummaryDAO dao;
+  
+  @Override
+  public Optional<AccountSummaryDto> findById(final String iban) {
+    return dao.findById(iban);
+  }
+  
+  @Override
+  public List<AccountSummaryDto> findByIbanStartingWith(final String prefix) {
+    return dao.findByIbanStartingWith(prefix);
+  }
+  
+  @Override
+  public AccountSummaryDto save(final AccountSummaryDto summary) {
+    return dao.save(summary);
+  }
+  
+  @Override
+  public void deleteAll(final Collection<AccountSummaryDto> summaries) {
+    dao.deleteAll(summaries);
+  }
+}
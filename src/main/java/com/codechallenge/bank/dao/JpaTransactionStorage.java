@@ -0,0 +1,161 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Default {@link TransactionStorage}, that keeps the transactions in the database through the {@link TransactionDAO}.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+@Profile("!memory")
+public class JpaTransactionStorage implements TransactionStorage {
+  
+  private static final int STREAM_CHUNK_SIZE = 500;
+  
+  @Autowired private TransactionDAO dao;
+  @Autowired private AccountSummaryDAO summaryDAO;
+  
+  @PersistenceContext
+  private EntityManager entityManager;
+  
+  @Override
+  public Optional<TransactionDto> findById(final String reference) {
+    return dao.findById(reference);
+  }
+  
+  @Override
+  public boolean existsById(final String reference) {
+    return dao.existsById(reference);
+  }
+  
+  @Override
+  public List<TransactionDto> findAll() {
+    return dao.findAll();
+  }
+  
+  @Override
+  public Optional<TransactionStatusView> findStatusViewById(final String reference) {
+    return dao.findStatusViewById(reference);
+  }
+  
+  @Override
+  public List<TransactionStatusView> findStatusViewsByIdIn(final Collection<String> references) {
+    return dao.findStatusViewsByIdIn(references);
+  }
+  
+  @Override
+  public List<String> findReferencesIn(final Collection<String> references) {
+    return dao.findReferencesIn(references);
+  }
+  
+  /**
+   * Seeks the first row through the primary key, so every page costs the same no matter how many transactions are
+   * stored before it.
+   */
+  @Override
+  public List<TransactionDto> findPage(final String after, final int limit) {
+    PageRequest page = PageRequest.of(0, limit, Sort.by("reference"));
+    return after == null ? dao.findAllBy(page) : dao.findByReferenceGreaterThan(after, page);
+  }
+  
+  @Override
+  public List<TransactionItem> findItems(final String after, final int limit) {
+    return dao.findItems(after, limit);
+  }
+  
+  /**
+   * Reads the transactions through a database cursor, detaching them from the persistence context in chunks, so the
+   * memory used stays flat.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public void forEach(final Consumer<TransactionDto> action) {
+    try (Stream<TransactionDto> transactions = dao.streamAll()) {
+      Iterator<TransactionDto> iterator = transactions.iterator();
+      for (int read = 1; iterator.hasNext(); read++) {
+        action.accept(iterator.next());
+        if (read % STREAM_CHUNK_SIZE == 0) {
+          entityManager.clear();
+        }
+      }
+    }
+  }
+  
+  @Override
+  public Stream<String> streamAllReferences() {
+    return dao.streamAllReferences();
+  }
+  
+  @Override
+  public List<TransactionDto> findByAccount(final AccountDto account) {
+    return dao.findByAccount(account);
+  }
+  
+  @Override
+  public List<TransactionDto> findByAccount(final AccountDto account, final Sort sort) {
+    return dao.findByAccount(account, sort);
+  }
+  
+  @Override
+  public List<TransactionDto> findByAccount(final AccountDto account, final TransactionQuery query) {
+    return dao.findByAccount(account, query);
+  }
+  
+  @Override
+  public List<TransactionItem> findItemsByAccount(final AccountDto account, final TransactionQuery query) {
+    return dao.findItemsByAccount(account, query);
+  }
+  
+  @Override
+  public Stream<TransactionItem> streamItemsByAccount(final AccountDto account, final TransactionQuery query) {
+    return dao.streamItemsByAccount(account, query);
+  }
+  
+  @Override
+  public long sumAmountsBefore(final AccountDto account, final LocalDateTime date) {
+    return dao.sumAmountsBefore(account, date);
+  }
+  
+  @Override
+  public Optional<AccountSummaryDto> computeSummary(final String iban) {
+    return summaryDAO.computeByIban(iban);
+  }
+  
+  /**
+   * Inserts the transaction without reading it first, so a reference stored by other instance sharing the database is
+   * rejected by the primary key instead of being overwritten.
+   */
+  @Override
+  public TransactionDto save(final TransactionDto transaction) {
+    dao.persist(transaction);
+    return transaction;
+  }
+  
+  @Override
+  public void persistAll(final Collection<TransactionDto> transactions) {
+    dao.persistAll(transactions);
+  }
+}
@@ -0,0 +1,38 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In memory {@link AccountStorage}, used with the memory profile. The accounts are kept by the {@link MemoryStorage},
+ * next to their transactions.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+@Profile("memory")
+public class MemoryAccountStorage implements AccountStorage {
+  
+  @Autowired private MemoryStorage storage;
+  
+  @Override
+  public Optional<AccountDto> findById(final String iban) {
+    return storage.findAccount(iban);
+  }
+  
+  @Override
+  public List<AccountDto> findAll() {
+    return storage.findAccounts();
+  }
+  
+  @Override
+  public AccountDto save(final AccountDto account) {
+    return storage.saveAccount(account);
+  }
+}
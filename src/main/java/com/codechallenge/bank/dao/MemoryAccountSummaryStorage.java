@@ -0,0 +1,49 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In memory {@link AccountSummaryStorage}, used with the memory profile. The summaries are kept by the
+ * {@link MemoryStorage} next to their accounts, so they are undone and written to the snapshot together with the
+ * transactions.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+@Profile("memory")
+public class MemoryAccountSummaryStorage implements AccountSummaryStorage {
+  
+  @Autowired private MemoryStorage storage;
+  
+  @Override
+  public Optional<AccountSummaryDto> findById(final String iban) {
+    return storage.findSummary(iban);
+  }
+  
+  /**
+   * The memory storage does not allow hot accounts, so there are no summaries of shards.
+   */
+  @Override
+  public List<AccountSummaryDto> findByIbanStartingWith(final String prefix) {
+    return Collections.emptyList();
+  }
+  
+  @Override
+  public AccountSummaryDto save(final AccountSummaryDto summary) {
+    return storage.saveSummary(summary);
+  }
+  
+  @Override
+  public void deleteAll(final Collection<AccountSummaryDto> summaries) {
+    summaries.forEach(summary -> storage.saveSummary(AccountSummaryDto.builder(summary.getIban()).build()));
+  }
+}
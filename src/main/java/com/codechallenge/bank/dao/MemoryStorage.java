@@ -0,0 +1,1078 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.TransactionSortField;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusFields;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import com.codechallenge.bank.util.StringIntHashMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.codechallenge.bank.util.StringIntHashMap.NO_VALUE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * In memory {@link TransactionStorage}, used with the memory profile instead of the database. It keeps the accounts
+ * and their summaries too, read and written through the {@link MemoryAccountStorage} and the
+ * {@link MemoryAccountSummaryStorage}.
+ * <p>
+ * Every field is kept in its own primitive array indexed by a slot, the accounts and the transactions are found by
+ * iban and reference through {@link StringIntHashMap}s, and every account keeps the slots of its transactions in an int
+ * array, so the queries of an account only walk over its own transactions without boxing them. One read write lock
+ * guards all the arrays: the reads run in parallel and a write is a few array stores.
+ * <p>
+ * The writes are applied at once and undone when the Spring transaction of the caller rolls back. The services only
+ * write an account while the {@link com.codechallenge.bank.service.LedgerService} owns it, so no other writer works
+ * with a balance that is undone later. The stored data is written to bank.storage.memory.snapshot-file every
+ * bank.storage.memory.snapshot-interval-seconds and when the application stops, and it is read back on the next start.
+ * A snapshot is only taken when no Spring transaction has writes pending of its commit, so a write that is rolled
+ * back later is never in the file. The writes after the last snapshot are lost if the process is killed.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Repository
+@Profile("memory")
+public class MemoryStorage implements TransactionStorage {
+  
+  private static final Logger logger = LoggerFactory.getLogger(MemoryStorage.class);
+  private static final int SNAPSHOT_MAGIC = 0x42414E4B;
+  private static final int SNAPSHOT_VERSION = 2;
+  private static final int SUMMARYLESS_SNAPSHOT_VERSION = 1;
+  private static final long NO_DATE = Long.MIN_VALUE;
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int CHUNK_SIZE = 500;
+  private static final long SNAPSHOT_COMMIT_WAIT_MS = 1000;
+  
+  @Autowired private MeterRegistry meterRegistry;
+  
+  @Value("${bank.storage.memory.snapshot-file:}")
+  private String snapshotFile;
+  
+  @Value("${bank.storage.memory.snapshot-interval-seconds:60}")
+  private long snapshotInterval;
+  
+  @Value("${bank.hot-accounts.ibans:}")
+  private String[] hotAccounts;
+  
+  private final Lock readLock;
+  private final Lock writeLock;
+  private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+  
+  private final StringIntHashMap accountIndex = new StringIntHashMap(INITIAL_CAPACITY);
+  private String[] ibans = new String[INITIAL_CAPACITY];
+  private long[] balances = new long[INITIAL_CAPACITY];
+  private long[] versions = new long[INITIAL_CAPACITY];
+  private long[] accountSeconds = new long[INITIAL_CAPACITY];
+  private int[] accountNanos = new int[INITIAL_CAPACITY];
+  private int[][] accountTransactions = new int[INITIAL_CAPACITY][];
+  private int[] accountTransactionCounts = new int[INITIAL_CAPACITY];
+  private long[] summaryCounts = new long[INITIAL_CAPACITY];
+  private long[] creditSums = new long[INITIAL_CAPACITY];
+  private long[] debitSums = new long[INITIAL_CAPACITY];
+  private long[] feeSums = new long[INITIAL_CAPACITY];
+  private long[] lastSeconds = new long[INITIAL_CAPACITY];
+  private int[] lastNanos = new int[INITIAL_CAPACITY];
+  private int accountCount;
+  
+  private final StringIntHashMap referenceIndex = new StringIntHashMap(INITIAL_CAPACITY);
+  private final NavigableSet<String> orderedReferences = new TreeSet<>();
+  private String[] references = new String[INITIAL_CAPACITY];
+  private int[] transactionAccounts = new int[INITIAL_CAPACITY];
+  private long[] seconds = new long[INITIAL_CAPACITY];
+  private int[] nanos = new int[INITIAL_CAPACITY];
+  private long[] amounts = new long[INITIAL_CAPACITY];
+  private long[] fees = new long[INITIAL_CAPACITY];
+  private String[] descriptions = new String[INITIAL_CAPACITY];
+  private int transactionCount;
+  
+  private ScheduledExecutorService snapshotWriter;
+  private Timer snapshotTimer;
+  
+  public MemoryStorage() {
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    readLock = lock.readLock();
+    writeLock = lock.writeLock();
+  }
+  
+  @PostConstruct
+  void init() throws IOException {
+    if (Arrays.stream(hotAccounts).anyMatch(iban -> !iban.trim().isEmpty())) {
+      throw new IllegalStateException("The hot accounts keep their shards in the database, bank.hot-accounts.ibans "
+        + "cannot be used with the memory storage");
+    }
+    Gauge.builder("bank.storage.memory.accounts", accountIndex, StringIntHashMap::size)
+      .description("Accounts kept by the in memory storage")
+      .register(meterRegistry);
+    Gauge.builder("bank.storage.memory.transactions", referenceIndex, StringIntHashMap::size)
+      .description("Transactions kept by the in memory storage")
+      .register(meterRegistry);
+    snapshotTimer = Timer.builder("bank.storage.memory.snapshot")
+      .description("Time spent writing the in memory storage to its snapshot file")
+      .register(meterRegistry);
+    if (snapshotFile.isEmpty()) {
+      return;
+    }
+    Path path = Paths.get(snapshotFile);
+    if (Files.exists(path)) {
+      long start = System.currentTimeMillis();
+      readSnapshot(path);
+      logger.info("Memory storage restored from {} with {} accounts and {} transactions in {} ms", path,
+        accountIndex.size(), referenceIndex.size(), System.currentTimeMillis() - start);
+    }
+    if (snapshotInterval > 0) {
+      snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "memory-storage-snapshot");
+        thread.setDaemon(true);
+        return thread;
+      });
+      snapshotWriter.scheduleWithFixedDelay(this::writeSnapshotQuietly, snapshotInterval, snapshotInterval,
+        TimeUnit.SECONDS);
+    }
+  }
+  
+  @PreDestroy
+  void close() throws IOException, InterruptedException {
+    if (snapshotWriter != null) {
+      snapshotWriter.shutdown();
+      snapshotWriter.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    if (!snapshotFile.isEmpty()) {
+      snapshot();
+      logger.info("Memory storage written to {}", snapshotFile);
+    }
+  }
+  
+  private void snapshot() throws IOException {
+    long start = System.nanoTime();
+    writeSnapshot(Paths.get(snapshotFile));
+    snapshotTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+  
+  private void writeSnapshotQuietly() {
+    try {
+      snapshot();
+    } catch (IOException ex) {
+      logger.error("The memory storage could not be written to {}, it will be retried", snapshotFile, ex);
+    }
+  }
+  
+  public Optional<AccountDto> findAccount(final String iban) {
+    return read(() -> {
+      int slot = accountIndex.get(iban);
+      return slot == NO_VALUE ? Optional.empty() : Optional.of(toAccount(slot));
+    });
+  }
+  
+  public List<AccountDto> findAccounts() {
+    return read(() -> {
+      List<AccountDto> accounts = new ArrayList<>(accountIndex.size());
+      for (int slot = 0; slot < accountCount; slot++) {
+        if (ibans[slot] != null) {
+          accounts.add(toAccount(slot));
+        }
+      }
+      return accounts;
+    });
+  }
+  
+  /**
+   * Saves the account checking its version like hibernate does, so a stale account is rejected in the same way.
+   *
+   * @param account the account to be saved.
+   * @return the saved account with its new version.
+   */
+  public AccountDto saveAccount(final AccountDto account) {
+    String iban = account.getIban();
+    LocalDateTime date = account.getDate();
+    UndoLog undoLog = undoLog();
+    writeLock.lock();
+    try {
+      int slot = accountIndex.get(iban);
+      Long version = account.getVersion();
+      if (slot == NO_VALUE) {
+        if (version != null) {
+          throw new OptimisticLockingFailureException("The account " + iban + " is not stored anymore");
+        }
+        int added = addAccount(iban);
+        onRollback(undoLog, () -> removeAccount(added));
+        slot = added;
+      } else if (version == null) {
+        throw new DataIntegrityViolationException("The account " + iban + " is already stored");
+      } else if (version != versions[slot]) {
+        throw new OptimisticLockingFailureException("The account " + iban + " was updated by other transaction");
+      } else {
+        int updated = slot;
+        long oldBalance = balances[slot];
+        long oldSeconds = accountSeconds[slot];
+        int oldNanos = accountNanos[slot];
+        onRollback(undoLog, () -> setAccount(updated, oldBalance, version, oldSeconds, oldNanos));
+      }
+      setAccount(slot, account.getBalance(), version == null ? 0 : version + 1, toSeconds(date), toNanos(date));
+      return toAccount(slot);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  /**
+   * @return the summary of the account, with every total at 0 when it has no transactions yet, or empty when the
+   * account is not stored.
+   */
+  public Optional<AccountSummaryDto> findSummary(final String iban) {
+    return read(() -> {
+      int slot = accountIndex.get(iban);
+      return slot == NO_VALUE ? Optional.empty() : Optional.of(toSummary(slot));
+    });
+  }
+  
+  /**
+   * Replaces the summary of a stored account, like the database the summary of an account that is not stored is
+   * rejected.
+   *
+   * @param summary the summary to be saved.
+   * @return the saved summary.
+   */
+  public AccountSummaryDto saveSummary(final AccountSummaryDto summary) {
+    UndoLog undoLog = undoLog();
+    writeLock.lock();
+    try {
+      int slot = accountIndex.get(summary.getIban());
+      if (slot == NO_VALUE) {
+        throw new DataIntegrityViolationException("The account " + summary.getIban() + " of the summary is not stored");
+      }
+      AccountSummaryDto old = toSummary(slot);
+      onRollback(undoLog, () -> setSummary(slot, old));
+      setSummary(slot, summary);
+      return toSummary(slot);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  @Override
+  public Optional<TransactionDto> findById(final String reference) {
+    return read(() -> {
+      int slot = referenceIndex.get(reference);
+      return slot == NO_VALUE ? Optional.empty()
+        : Optional.of(toTransaction(slot, toAccount(transactionAccounts[slot])));
+    });
+  }
+  
+  @Override
+  public boolean existsById(final String reference) {
+    return read(() -> referenceIndex.get(reference) != NO_VALUE);
+  }
+  
+  @Override
+  public List<TransactionDto> findAll() {
+    return read(() -> {
+      List<TransactionDto> transactions = new ArrayList<>(referenceIndex.size());
+      for (int slot = 0; slot < transactionCount; slot++) {
+        if (references[slot] != null) {
+          transactions.add(toTransaction(slot, toAccount(transactionAccounts[slot])));
+        }
+      }
+      return transactions;
+    });
+  }
+  
+  @Override
+  public Optional<TransactionStatusView> findStatusViewById(final String reference) {
+    return read(() -> {
+      int slot = referenceIndex.get(reference);
+      return slot == NO_VALUE ? Optional.empty() : Optional.of(toStatusFields(slot));
+    });
+  }
+  
+  @Override
+  public List<TransactionStatusView> findStatusViewsByIdIn(final Collection<String> references) {
+    return read(() -> {
+      List<TransactionStatusView> transactions = new ArrayList<>(references.size());
+      for (String reference : references) {
+        int slot = referenceIndex.get(reference);
+        if (slot != NO_VALUE) {
+          transactions.add(toStatusFields(slot));
+        }
+      }
+      return transactions;
+    });
+  }
+  
+  @Override
+  public List<String> findReferencesIn(final Collection<String> references) {
+    return read(() -> {
+      List<String> stored = new ArrayList<>();
+      for (String reference : references) {
+        if (referenceIndex.get(reference) != NO_VALUE) {
+          stored.add(reference);
+        }
+      }
+      return stored;
+    });
+  }
+  
+  /**
+   * Walks over the references kept sorted, from the first one after the given reference.
+   */
+  @Override
+  public List<TransactionDto> findPage(final String after, final int limit) {
+    return read(() -> findFrom(after, limit, slot -> toTransaction(slot, toAccount(transactionAccounts[slot]))));
+  }
+  
+  @Override
+  public List<TransactionItem> findItems(final String after, final int limit) {
+    return read(() -> findFrom(after, limit, slot -> toItem(slot, true)));
+  }
+  
+  /**
+   * Reads the transactions one chunk at a time, so the action runs without holding the lock.
+   */
+  @Override
+  public void forEach(final Consumer<TransactionDto> action) {
+    String after = null;
+    for (List<TransactionDto> chunk = findPage(null, CHUNK_SIZE); !chunk.isEmpty();
+         chunk = findPage(after, CHUNK_SIZE)) {
+      chunk.forEach(action);
+      after = chunk.get(chunk.size() - 1).getReference();
+    }
+  }
+  
+  @Override
+  public Stream<String> streamAllReferences() {
+    int count = read(() -> transactionCount);
+    return IntStream.range(0, (count + CHUNK_SIZE - 1) / CHUNK_SIZE)
+      .mapToObj(chunk -> read(() -> {
+        List<String> stored = new ArrayList<>(CHUNK_SIZE);
+        for (int slot = chunk * CHUNK_SIZE; slot < Math.min(count, (chunk + 1) * CHUNK_SIZE); slot++) {
+          if (references[slot] != null) {
+            stored.add(references[slot]);
+          }
+        }
+        return stored;
+      }))
+      .flatMap(List::stream);
+  }
+  
+  @Override
+  public List<TransactionDto> findByAccount(final AccountDto account) {
+    return read(() -> {
+      int accountSlot = accountIndex.get(account.getIban());
+      return toTransactions(accountSlot, accountSlot == NO_VALUE ? new int[0]
+        : Arrays.copyOf(accountTransactions[accountSlot], accountTransactionCounts[accountSlot]));
+    });
+  }
+  
+  @Override
+  public List<TransactionDto> findByAccount(final AccountDto account, final Sort sort) {
+    SlotComparator order = (first, second) -> 0;
+    for (Sort.Order fieldOrder : sort) {
+      SlotComparator previous = order;
+      SlotComparator field = comparator(TransactionSortField.fromString(fieldOrder.getProperty()));
+      SlotComparator next = fieldOrder.isAscending() ? field : (first, second) -> field.compare(second, first);
+      order = (first, second) -> {
+        int compared = previous.compare(first, second);
+        return compared != 0 ? compared : next.compare(first, second);
+      };
+    }
+    SlotComparator sortOrder = order;
+    return read(() -> {
+      int accountSlot = accountIndex.get(account.getIban());
+      if (accountSlot == NO_VALUE) {
+        return new ArrayList<>();
+      }
+      int[] slots = Arrays.copyOf(accountTransactions[accountSlot], accountTransactionCounts[accountSlot]);
+      sort(slots, sortOrder);
+      return toTransactions(accountSlot, slots);
+    });
+  }
+  
+  @Override
+  public List<TransactionDto> findByAccount(final AccountDto account, final TransactionQuery query) {
+    return read(() -> {
+      int accountSlot = accountIndex.get(account.getIban());
+      return toTransactions(accountSlot, select(accountSlot, query));
+    });
+  }
+  
+  @Override
+  public List<TransactionItem> findItemsByAccount(final AccountDto account, final TransactionQuery query) {
+    return read(() -> {
+      int[] slots = select(accountIndex.get(account.getIban()), query);
+      List<TransactionItem> items = new ArrayList<>(slots.length);
+      for (int slot : slots) {
+        items.add(toItem(slot, false));
+      }
+      return items;
+    });
+  }
+  
+  /**
+   * Selects the slots of the transactions at once, and reads their fields one chunk at a time as they are consumed.
+   */
+  @Override
+  public Stream<TransactionItem> streamItemsByAccount(final AccountDto account, final TransactionQuery query) {
+    int[] slots = read(() -> select(accountIndex.get(account.getIban()), query));
+    return IntStream.range(0, (slots.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+      .mapToObj(chunk -> read(() -> {
+        List<TransactionItem> items = new ArrayList<>(CHUNK_SIZE);
+        for (int i = chunk * CHUNK_SIZE; i < Math.min(slots.length, (chunk + 1) * CHUNK_SIZE); i++) {
+          if (references[slots[i]] != null) {
+            items.add(toItem(slots[i], false));
+          }
+        }
+        return items;
+      }))
+      .flatMap(List::stream);
+  }
+  
+  @Override
+  public long sumAmountsBefore(final AccountDto account, final LocalDateTime date) {
+    long dateSeconds = toSeconds(date);
+    int dateNanos = toNanos(date);
+    return read(() -> {
+      int accountSlot = accountIndex.get(account.getIban());
+      long sum = 0;
+      for (int i = 0; accountSlot != NO_VALUE && i < accountTransactionCounts[accountSlot]; i++) {
+        int slot = accountTransactions[accountSlot][i];
+        if (seconds[slot] != NO_DATE && compareDate(slot, dateSeconds, dateNanos) < 0) {
+          sum = Math.addExact(sum, amounts[slot]);
+        }
+      }
+      return sum;
+    });
+  }
+  
+  @Override
+  public Optional<AccountSummaryDto> computeSummary(final String iban) {
+    return read(() -> {
+      int accountSlot = accountIndex.get(iban);
+      if (accountSlot == NO_VALUE || accountTransactionCounts[accountSlot] == 0) {
+        return Optional.empty();
+      }
+      return Optional.of(computeSummary(accountSlot));
+    });
+  }
+  
+  /**
+   * Fails when the reference is already stored, like the insert of an existing primary key.
+   */
+  @Override
+  public TransactionDto save(final TransactionDto transaction) {
+    persistAll(Collections.singletonList(transaction));
+    return transaction;
+  }
+  
+  /**
+   * Checks all the transactions before inserting any of them, so a failed call does not leave half of them stored.
+   */
+  @Override
+  public void persistAll(final Collection<TransactionDto> transactions) {
+    UndoLog undoLog = undoLog();
+    writeLock.lock();
+    try {
+      Set<String> inserted = new HashSet<>();
+      for (TransactionDto transaction : transactions) {
+        String reference = transaction.getReference();
+        if (referenceIndex.get(reference) != NO_VALUE || !inserted.add(reference)) {
+          throw new DataIntegrityViolationException("The reference " + reference + " is already stored");
+        }
+        if (accountIndex.get(transaction.getAccount().getIban()) == NO_VALUE) {
+          throw new DataIntegrityViolationException("The account " + transaction.getAccount().getIban()
+            + " of the transaction " + reference + " is not stored");
+        }
+      }
+      for (TransactionDto transaction : transactions) {
+        int slot = insert(transaction);
+        onRollback(undoLog, () -> removeTransaction(slot));
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  /**
+   * Writes all the accounts, their summaries and the transactions to the given file. The arrays are copied once the
+   * Spring transactions with pending writes finish, holding back the new ones meanwhile, so only committed writes are
+   * copied. Copying only takes a few array copies, and the file is written afterwards, so the writes do not wait for
+   * the disk. The file is replaced atomically, so a failed snapshot keeps the previous one.
+   *
+   * @param path the snapshot file.
+   * @throws IOException when the file cannot be written, or the open transactions did not finish in time.
+   */
+  public void writeSnapshot(final Path path) throws IOException {
+    String[] snapshotIbans;
+    long[] snapshotBalances;
+    long[] snapshotVersions;
+    long[] snapshotAccountSeconds;
+    int[] snapshotAccountNanos;
+    long[] snapshotSummaryCounts;
+    long[] snapshotCreditSums;
+    long[] snapshotDebitSums;
+    long[] snapshotFeeSums;
+    long[] snapshotLastSeconds;
+    int[] snapshotLastNanos;
+    String[] snapshotReferences;
+    int[] snapshotAccounts;
+    long[] snapshotSeconds;
+    int[] snapshotNanos;
+    long[] snapshotAmounts;
+    long[] snapshotFees;
+    String[] snapshotDescriptions;
+    int accounts;
+    int transactions;
+    awaitCommits();
+    readLock.lock();
+    try {
+      snapshotIbans = Arrays.copyOf(ibans, accountCount);
+      snapshotBalances = Arrays.copyOf(balances, accountCount);
+      snapshotVersions = Arrays.copyOf(versions, accountCount);
+      snapshotAccountSeconds = Arrays.copyOf(accountSeconds, accountCount);
+      snapshotAccountNanos = Arrays.copyOf(accountNanos, accountCount);
+      snapshotSummaryCounts = Arrays.copyOf(summaryCounts, accountCount);
+      snapshotCreditSums = Arrays.copyOf(creditSums, accountCount);
+      snapshotDebitSums = Arrays.copyOf(debitSums, accountCount);
+      snapshotFeeSums = Arrays.copyOf(feeSums, accountCount);
+      snapshotLastSeconds = Arrays.copyOf(lastSeconds, accountCount);
+      snapshotLastNanos = Arrays.copyOf(lastNanos, accountCount);
+      snapshotReferences = Arrays.copyOf(references, transactionCount);
+      snapshotAccounts = Arrays.copyOf(transactionAccounts, transactionCount);
+      snapshotSeconds = Arrays.copyOf(seconds, transactionCount);
+      snapshotNanos = Arrays.copyOf(nanos, transactionCount);
+      snapshotAmounts = Arrays.copyOf(amounts, transactionCount);
+      snapshotFees = Arrays.copyOf(fees, transactionCount);
+      snapshotDescriptions = Arrays.copyOf(descriptions, transactionCount);
+      accounts = accountIndex.size();
+      transactions = referenceIndex.size();
+    } finally {
+      readLock.unlock();
+      commitGate.writeLock().unlock();
+    }
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      output.writeInt(SNAPSHOT_MAGIC);
+      output.writeInt(SNAPSHOT_VERSION);
+      output.writeInt(accounts);
+      for (int slot = 0; slot < snapshotIbans.length; slot++) {
+        if (snapshotIbans[slot] != null) {
+          writeString(output, snapshotIbans[slot]);
+          output.writeLong(snapshotBalances[slot]);
+          output.writeLong(snapshotVersions[slot]);
+          output.writeLong(snapshotAccountSeconds[slot]);
+          output.writeInt(snapshotAccountNanos[slot]);
+          output.writeLong(snapshotSummaryCounts[slot]);
+          output.writeLong(snapshotCreditSums[slot]);
+          output.writeLong(snapshotDebitSums[slot]);
+          output.writeLong(snapshotFeeSums[slot]);
+          output.writeLong(snapshotLastSeconds[slot]);
+          output.writeInt(snapshotLastNanos[slot]);
+        }
+      }
+      output.writeInt(transactions);
+      for (int slot = 0; slot < snapshotReferences.length; slot++) {
+        if (snapshotReferences[slot] != null) {
+          writeString(output, snapshotReferences[slot]);
+          writeString(output, snapshotIbans[snapshotAccounts[slot]]);
+          output.writeLong(snapshotSeconds[slot]);
+          output.writeInt(snapshotNanos[slot]);
+          output.writeLong(snapshotAmounts[slot]);
+          output.writeLong(snapshotFees[slot]);
+          writeString(output, snapshotDescriptions[slot]);
+        }
+      }
+    }
+    Files.move(temporary, path, REPLACE_EXISTING, ATOMIC_MOVE);
+  }
+  
+  /**
+   * Adds the accounts, summaries and transactions of the given snapshot file, written by {@link #writeSnapshot(Path)}.
+   * The summaries of a snapshot written before they were kept in it are computed from its transactions.
+   *
+   * @param path the snapshot file.
+   * @throws IOException when the file cannot be read or it is not a snapshot.
+   */
+  public void readSnapshot(final Path path) throws IOException {
+    writeLock.lock();
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      int version = input.readInt() == SNAPSHOT_MAGIC ? input.readInt() : -1;
+      if (version != SNAPSHOT_VERSION && version != SUMMARYLESS_SNAPSHOT_VERSION) {
+        throw new IOException("The file " + path + " is not a snapshot of the memory storage");
+      }
+      List<Integer> accountSlots = new ArrayList<>();
+      for (int accounts = input.readInt(); accounts > 0; accounts--) {
+        int slot = addAccount(readString(input));
+        setAccount(slot, input.readLong(), input.readLong(), input.readLong(), input.readInt());
+        if (version == SNAPSHOT_VERSION) {
+          setSummary(slot, input.readLong(), input.readLong(), input.readLong(), input.readLong(), input.readLong(),
+            input.readInt());
+        }
+        accountSlots.add(slot);
+      }
+      for (int transactions = input.readInt(); transactions > 0; transactions--) {
+        String reference = readString(input);
+        int accountSlot = accountIndex.get(readString(input));
+        if (accountSlot == NO_VALUE) {
+          throw new IOException("The snapshot " + path + " has the transaction " + reference + " without its account");
+        }
+        insert(reference, accountSlot, input.readLong(), input.readInt(), input.readLong(), input.readLong(),
+          readString(input));
+      }
+      if (version == SUMMARYLESS_SNAPSHOT_VERSION) {
+        accountSlots.forEach(slot -> setSummary(slot, computeSummary(slot)));
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  private static void writeString(final DataOutputStream output, final String value) throws IOException {
+    if (value == null) {
+      output.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+  
+  private static String readString(final DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+  
+  private <T> T read(final Supplier<T> reader) {
+    readLock.lock();
+    try {
+      return reader.get();
+    } finally {
+      readLock.unlock();
+    }
+  }
+  
+  /**
+   * Waits until the Spring transactions with pending writes finish, returning with the commit gate held. The new
+   * writing transactions wait for the gate meanwhile, so a transaction that waits for one of them while holding the
+   * gate cannot block the snapshot for longer than {@link #SNAPSHOT_COMMIT_WAIT_MS}.
+   */
+  private void awaitCommits() throws IOException {
+    try {
+      if (!commitGate.writeLock().tryLock(SNAPSHOT_COMMIT_WAIT_MS, TimeUnit.MILLISECONDS)) {
+        throw new IOException("The open transactions did not finish in " + SNAPSHOT_COMMIT_WAIT_MS + " ms");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the open transactions");
+    }
+  }
+  
+  /**
+   * Finds the undo log of the Spring transaction of the caller, creating it with its first write, that holds the
+   * commit gate until the transaction finishes. It has to be called before taking the write lock, the writes done
+   * without a transaction are final and have no undo log.
+   */
+  private UndoLog undoLog() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+    UndoLog undoLog = (UndoLog) TransactionSynchronizationManager.getResource(this);
+    if (undoLog == null) {
+      commitGate.readLock().lock();
+      undoLog = new UndoLog();
+      TransactionSynchronizationManager.bindResource(this, undoLog);
+      TransactionSynchronizationManager.registerSynchronization(undoLog);
+    }
+    return undoLog;
+  }
+  
+  /**
+   * Registers how to undo a write when the Spring transaction of the caller rolls back.
+   */
+  private static void onRollback(final UndoLog undoLog, final Runnable undo) {
+    if (undoLog != null) {
+      undoLog.undos.push(undo);
+    }
+  }
+  
+  private int addAccount(final String iban) {
+    if (accountCount == ibans.length) {
+      int capacity = ibans.length * 2;
+      ibans = Arrays.copyOf(ibans, capacity);
+      balances = Arrays.copyOf(balances, capacity);
+      versions = Arrays.copyOf(versions, capacity);
+      accountSeconds = Arrays.copyOf(accountSeconds, capacity);
+      accountNanos = Arrays.copyOf(accountNanos, capacity);
+      accountTransactions = Arrays.copyOf(accountTransactions, capacity);
+      accountTransactionCounts = Arrays.copyOf(accountTransactionCounts, capacity);
+      summaryCounts = Arrays.copyOf(summaryCounts, capacity);
+      creditSums = Arrays.copyOf(creditSums, capacity);
+      debitSums = Arrays.copyOf(debitSums, capacity);
+      feeSums = Arrays.copyOf(feeSums, capacity);
+      lastSeconds = Arrays.copyOf(lastSeconds, capacity);
+      lastNanos = Arrays.copyOf(lastNanos, capacity);
+    }
+    int slot = accountCount++;
+    ibans[slot] = iban;
+    accountTransactions[slot] = new int[4];
+    accountTransactionCounts[slot] = 0;
+    setSummary(slot, 0, 0, 0, 0, NO_DATE, 0);
+    accountIndex.put(iban, slot);
+    return slot;
+  }
+  
+  private void setAccount(final int slot, final long balance, final long version, final long dateSeconds,
+                          final int dateNanos) {
+    balances[slot] = balance;
+    versions[slot] = version;
+    accountSeconds[slot] = dateSeconds;
+    accountNanos[slot] = dateNanos;
+  }
+  
+  private void setSummary(final int slot, final AccountSummaryDto summary) {
+    LocalDateTime date = summary.getLastTransactionDate();
+    setSummary(slot, summary.getTransactionCount(), summary.getCreditSum(), summary.getDebitSum(), summary.getFeeSum(),
+      toSeconds(date), toNanos(date));
+  }
+  
+  private void setSummary(final int slot, final long count, final long creditSum, final long debitSum,
+                          final long feeSum, final long dateSeconds, final int dateNanos) {
+    summaryCounts[slot] = count;
+    creditSums[slot] = creditSum;
+    debitSums[slot] = debitSum;
+    feeSums[slot] = feeSum;
+    lastSeconds[slot] = dateSeconds;
+    lastNanos[slot] = dateNanos;
+  }
+  
+  private void removeAccount(final int slot) {
+    accountIndex.remove(ibans[slot]);
+    ibans[slot] = null;
+    accountTransactions[slot] = null;
+    accountTransactionCounts[slot] = 0;
+    if (slot == accountCount - 1) {
+      accountCount--;
+    }
+  }
+  
+  private int insert(final TransactionDto transaction) {
+    LocalDateTime date = transaction.getDate();
+    return insert(transaction.getReference(), accountIndex.get(transaction.getAccount().getIban()), toSeconds(date),
+      toNanos(date), transaction.getAmount(), transaction.getFee(), transaction.getDescription());
+  }
+  
+  private int insert(final String reference, final int accountSlot, final long dateSeconds, final int dateNanos,
+                     final long amount, final long fee, final String description) {
+    if (transactionCount == references.length) {
+      int capacity = references.length * 2;
+      references = Arrays.copyOf(references, capacity);
+      transactionAccounts = Arrays.copyOf(transactionAccounts, capacity);
+      seconds = Arrays.copyOf(seconds, capacity);
+      nanos = Arrays.copyOf(nanos, capacity);
+      amounts = Arrays.copyOf(amounts, capacity);
+      fees = Arrays.copyOf(fees, capacity);
+      descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+    int slot = transactionCount++;
+    references[slot] = reference;
+    transactionAccounts[slot] = accountSlot;
+    seconds[slot] = dateSeconds;
+    nanos[slot] = dateNanos;
+    amounts[slot] = amount;
+    fees[slot] = fee;
+    descriptions[slot] = description;
+    referenceIndex.put(reference, slot);
+    orderedReferences.add(reference);
+    int count = accountTransactionCounts[accountSlot];
+    if (count == accountTransactions[accountSlot].length) {
+      accountTransactions[accountSlot] = Arrays.copyOf(accountTransactions[accountSlot], count * 2);
+    }
+    accountTransactions[accountSlot][count] = slot;
+    accountTransactionCounts[accountSlot] = count + 1;
+    return slot;
+  }
+  
+  private void removeTransaction(final int slot) {
+    referenceIndex.remove(references[slot]);
+    orderedReferences.remove(references[slot]);
+    references[slot] = null;
+    descriptions[slot] = null;
+    int accountSlot = transactionAccounts[slot];
+    int[] slots = accountTransactions[accountSlot];
+    int count = accountTransactionCounts[accountSlot];
+    int index = count - 1;
+    while (index >= 0 && slots[index] != slot) {
+      index--;
+    }
+    if (index >= 0) {
+      System.arraycopy(slots, index + 1, slots, index, count - index - 1);
+      accountTransactionCounts[accountSlot] = count - 1;
+    }
+    if (slot == transactionCount - 1) {
+      transactionCount--;
+    }
+  }
+  
+  /**
+   * Filters the transactions of an account by the date range of the query, sorts them and takes the page that starts
+   * after the transaction of the query, like the keyset query of {@link TransactionDAOImpl}.
+   */
+  private int[] select(final int accountSlot, final TransactionQuery query) {
+    SlotComparator order = comparator(query.getSortField());
+    SlotComparator byReference = comparator(TransactionSortField.REFERENCE);
+    SlotComparator ascending = (first, second) -> {
+      int compared = order.compare(first, second);
+      return compared != 0 ? compared : byReference.compare(first, second);
+    };
+    SlotComparator sortOrder = query.getDirection().isAscending() ? ascending
+      : (first, second) -> ascending.compare(second, first);
+    IntPredicate isAfter = slot -> true;
+    if (query.getAfter() != null && query.getSortField() == TransactionSortField.REFERENCE) {
+      int sign = query.getDirection().isAscending() ? 1 : -1;
+      isAfter = slot -> references[slot].compareTo(query.getAfter()) * sign > 0;
+    } else if (query.getAfter() != null) {
+      int afterSlot = referenceIndex.get(query.getAfter());
+      if (afterSlot == NO_VALUE || accountSlot == NO_VALUE || transactionAccounts[afterSlot] != accountSlot) {
+        throw new DataNotFoundException("transaction", query.getAfter());
+      }
+      isAfter = slot -> sortOrder.compare(slot, afterSlot) > 0;
+    }
+    if (accountSlot == NO_VALUE) {
+      return new int[0];
+    }
+    long fromSeconds = toSeconds(query.getFrom());
+    int fromNanos = toNanos(query.getFrom());
+    long toSeconds = toSeconds(query.getTo());
+    int toNanos = toNanos(query.getTo());
+    int[] slots = new int[accountTransactionCounts[accountSlot]];
+    int selected = 0;
+    for (int i = 0; i < slots.length; i++) {
+      int slot = accountTransactions[accountSlot][i];
+      boolean inRange = (query.getFrom() == null && query.getTo() == null) || seconds[slot] != NO_DATE
+        && (query.getFrom() == null || compareDate(slot, fromSeconds, fromNanos) >= 0)
+        && (query.getTo() == null || compareDate(slot, toSeconds, toNanos) < 0);
+      if (inRange && isAfter.test(slot)) {
+        slots[selected++] = slot;
+      }
+    }
+    slots = Arrays.copyOf(slots, selected);
+    sort(slots, sortOrder);
+    return query.getLimit() != null && query.getLimit() < slots.length
+      ? Arrays.copyOf(slots, query.getLimit()) : slots;
+  }
+  
+  private SlotComparator comparator(final TransactionSortField field) {
+    switch (field) {
+      case AMOUNT:
+        return (first, second) -> Long.compare(amounts[first], amounts[second]);
+      case FEE:
+        return (first, second) -> Long.compare(fees[first], fees[second]);
+      case DATE:
+        return this::compareDates;
+      default:
+        return (first, second) -> references[first].compareTo(references[second]);
+    }
+  }
+  
+  private int compareDates(final int first, final int second) {
+    return compareDate(first, seconds[second], nanos[second]);
+  }
+  
+  private int compareDate(final int slot, final long dateSeconds, final int dateNanos) {
+    int compared = Long.compare(seconds[slot], dateSeconds);
+    return compared != 0 ? compared : Integer.compare(nanos[slot], dateNanos);
+  }
+  
+  /**
+   * Stable bottom-up merge sort of slots, so the slots are never boxed and the equal ones keep the insertion order.
+   */
+  private static void sort(final int[] slots, final SlotComparator comparator) {
+    int[] source = slots;
+    int[] target = new int[slots.length];
+    for (int width = 1; width < slots.length; width *= 2) {
+      for (int low = 0; low < slots.length; low += 2 * width) {
+        int middle = Math.min(low + width, slots.length);
+        int high = Math.min(low + 2 * width, slots.length);
+        int left = low;
+        int right = middle;
+        for (int i = low; i < high; i++) {
+          target[i] = right >= high || left < middle && comparator.compare(source[left], source[right]) <= 0
+            ? source[left++] : source[right++];
+        }
+      }
+      int[] merged = target;
+      target = source;
+      source = merged;
+    }
+    if (source != slots) {
+      System.arraycopy(source, 0, slots, 0, slots.length);
+    }
+  }
+  
+  private <T> List<T> findFrom(final String after, final int limit, final IntFunction<T> mapper) {
+    List<T> found = new ArrayList<>(Math.min(limit, CHUNK_SIZE));
+    Iterator<String> iterator = (after == null ? orderedReferences : orderedReferences.tailSet(after, false))
+      .iterator();
+    while (found.size() < limit && iterator.hasNext()) {
+      found.add(mapper.apply(referenceIndex.get(iterator.next())));
+    }
+    return found;
+  }
+  
+  private List<TransactionDto> toTransactions(final int accountSlot, final int[] slots) {
+    List<TransactionDto> transactions = new ArrayList<>(slots.length);
+    AccountDto account = slots.length > 0 ? toAccount(accountSlot) : null;
+    for (int slot : slots) {
+      transactions.add(toTransaction(slot, account));
+    }
+    return transactions;
+  }
+  
+  private AccountDto toAccount(final int slot) {
+    return AccountDto.builder(ibans[slot])
+      .date(toDate(accountSeconds[slot], accountNanos[slot]))
+      .balance(balances[slot])
+      .version(versions[slot])
+      .build();
+  }
+  
+  private AccountSummaryDto toSummary(final int slot) {
+    return new AccountSummaryDto(ibans[slot], summaryCounts[slot], creditSums[slot], debitSums[slot], feeSums[slot],
+      toDate(lastSeconds[slot], lastNanos[slot]));
+  }
+  
+  /**
+   * Adds up the stored transactions of the account, without the summary kept for it.
+   */
+  private AccountSummaryDto computeSummary(final int accountSlot) {
+    long creditSum = 0;
+    long debitSum = 0;
+    long feeSum = 0;
+    int last = -1;
+    for (int i = 0; i < accountTransactionCounts[accountSlot]; i++) {
+      int slot = accountTransactions[accountSlot][i];
+      if (amounts[slot] > 0) {
+        creditSum = Math.addExact(creditSum, amounts[slot]);
+      } else {
+        debitSum = Math.subtractExact(debitSum, amounts[slot]);
+      }
+      feeSum = Math.addExact(feeSum, fees[slot]);
+      if (seconds[slot] != NO_DATE && (last == -1 || compareDates(slot, last) > 0)) {
+        last = slot;
+      }
+    }
+    return new AccountSummaryDto(ibans[accountSlot], (long) accountTransactionCounts[accountSlot], creditSum,
+      debitSum, feeSum, last == -1 ? null : toDate(seconds[last], nanos[last]));
+  }
+  
+  private TransactionDto toTransaction(final int slot, final AccountDto account) {
+    return TransactionDto.builder()
+      .reference(references[slot])
+      .account(account)
+      .date(toDate(seconds[slot], nanos[slot]))
+      .amount(amounts[slot])
+      .fee(fees[slot])
+      .description(descriptions[slot])
+      .build();
+  }
+  
+  private TransactionStatusView toStatusFields(final int slot) {
+    return new TransactionStatusFields(references[slot], toDate(seconds[slot], nanos[slot]), amounts[slot], fees[slot]);
+  }
+  
+  private TransactionItem toItem(final int slot, final boolean withAccount) {
+    return new TransactionItem(references[slot], withAccount ? ibans[transactionAccounts[slot]] : null,
+      toDate(seconds[slot], nanos[slot]), amounts[slot], fees[slot], descriptions[slot]);
+  }
+  
+  private static long toSeconds(final LocalDateTime date) {
+    return date != null ? date.toEpochSecond(ZoneOffset.UTC) : NO_DATE;
+  }
+  
+  private static int toNanos(final LocalDateTime date) {
+    return date != null ? date.getNano() : 0;
+  }
+  
+  private static LocalDateTime toDate(final long dateSeconds, final int dateNanos) {
+    return dateSeconds != NO_DATE ? LocalDateTime.ofEpochSecond(dateSeconds, dateNanos, ZoneOffset.UTC) : null;
+  }
+  
+  @FunctionalInterface
+  private interface SlotComparator {
+    int compare(int first, int second);
+  }
+  
+  /**
+   * The undo actions of the writes done in one Spring transaction, run in reverse order when it rolls back. It holds
+   * the commit gate from the first write until the transaction finishes.
+   */
+  private class UndoLog extends TransactionSynchronizationAdapter {
+    
+    private final Deque<Runnable> undos = new ArrayDeque<>();
+    
+    @Override
+    public void afterCompletion(final int status) {
+      TransactionSynchronizationManager.unbindResourceIfPossible(MemoryStorage.this);
+      try {
+        if (status == STATUS_ROLLED_BACK) {
+          writeLock.lock();
+          try {
+            undos.forEach(Runnable::run);
+          } finally {
+            writeLock.unlock();
+          }
+        }
+      } finally {
+        commitGate.readLock().unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package com.codechallenge.bank.dao;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository factory that times every method of the DAOs with a percentile histogram, tagged by the DAO and the
+ * method name. The methods that return a {@link java.util.stream.Stream} are timed until the stream is returned.
+ * The DAOs are not timed when there is no {@link MeterRegistry}, like in the JPA test slices.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class MetricsJpaRepositoryFactoryBean<T extends Repository<S, ID>, S, ID>
+  extends JpaRepositoryFactoryBean<T, S, ID> {
+  
+  private MeterRegistry meterRegistry;
+  
+  public MetricsJpaRepositoryFactoryBean(final Class<? extends T> repositoryInterface) {
+    super(repositoryInterface);
+  }
+  
+  @Autowired
+  public void setMeterRegistry(final ObjectProvider<MeterRegistry> meterRegistry) {
+    this.meterRegistry = meterRegistry.getIfAvailable();
+  }
+  
+  @Override
+  protected RepositoryFactorySupport createRepositoryFactory(final EntityManager entityManager) {
+    RepositoryFactorySupport factory = super.createRepositoryFactory(entityManager);
+    if (meterRegistry != null) {
+      factory.addRepositoryProxyPostProcessor((proxyFactory, information) -> proxyFactory.addAdvice(
+        new TimingInterceptor(meterRegistry, information.getRepositoryInterface().getSimpleName())));
+    }
+    return factory;
+  }
+  
+  private static class TimingInterceptor implements MethodInterceptor {
+    
+    private final MeterRegistry meterRegistry;
+    private final String dao;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    
+    TimingInterceptor(final MeterRegistry meterRegistry, final String dao) {
+      this.meterRegistry = meterRegistry;
+      this.dao = dao;
+    }
+    
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+      Timer timer = timers.computeIfAbsent(invocation.getMethod(), method -> Timer.builder("bank.dao")
+        .description("Time spent in the DAO methods")
+        .tag("dao", dao)
+        .tag("method", method.getName())
+        .publishPercentileHistogram()
+        .register(meterRegistry));
+      long start = System.nanoTime();
+      try {
+        return invocation.proceed();
+      } finally {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+}
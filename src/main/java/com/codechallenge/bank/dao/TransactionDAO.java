@@ -2,11 +2,24 @@ package com.codechallenge.bank.dao;
 
 import com.codechallenge.bank.model.dto.AccountDto;
 import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * Transaction hibernate implementation
@@ -15,9 +28,59 @@ import java.util.List;
  * @since 25/09/2019
  */
 @Repository
-public interface TransactionDAO extends JpaRepository<TransactionDto, String> {
+public interface TransactionDAO extends JpaRepository<TransactionDto, String>, TransactionDAOCustom {
+  
+  /**
+   * Reads all the transactions fetching their accounts in the same query, instead of one query per account.
+   */
+  @Override
+  @EntityGraph(attributePaths = "account")
+  List<TransactionDto> findAll();
   
   List<TransactionDto> findByAccount(final AccountDto account);
   
   List<TransactionDto> findByAccount(final AccountDto account, final Sort sort);
+  
+  /**
+   * Reads all the transactions through a database cursor, fetching the account in the same query.
+   * It has to be consumed inside a transaction and closed afterwards.
+   */
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+  @Query("select t from account_transaction t join fetch t.account order by t.reference")
+  Stream<TransactionDto> streamAll();
+  
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+  @Query("select t.reference from account_transaction t")
+  Stream<String> streamAllReferences();
+  
+  /**
+   * Reads only the fields used by the status rules, so the account is never joined. It is a class projection because
+   * the entity is a {@link TransactionStatusView} too, so Spring Data would not convert an interface projection.
+   */
+  @Query("select new com.codechallenge.bank.model.dto.TransactionStatusFields(t.reference, t.date, t.amount, t.fee)"
+    + " from account_transaction t where t.reference = :reference")
+  Optional<TransactionStatusView> findStatusViewById(@Param("reference") final String reference);
+  
+  @Query("select new com.codechallenge.bank.model.dto.TransactionStatusFields(t.reference, t.date, t.amount, t.fee)"
+    + " from account_transaction t where t.reference in :references")
+  List<TransactionStatusView> findStatusViewsByIdIn(@Param("references") final Collection<String> references);
+  
+  /**
+   * @return the given references that are already stored, read from the primary key only.
+   */
+  @Query("select t.reference from account_transaction t where t.reference in :references")
+  List<String> findReferencesIn(@Param("references") final Collection<String> references);
+  
+  /**
+   * @return the sum of the amounts of the transactions of the account dated before the given date, that is the balance
+   * of the account at that date, read from the account and date index.
+   */
+  @Query("select coalesce(sum(t.amount), 0) from account_transaction t where t.account = :account and t.date < :date")
+  long sumAmountsBefore(@Param("account") final AccountDto account, @Param("date") final LocalDateTime date);
+  
+  @EntityGraph(attributePaths = "account")
+  List<TransactionDto> findAllBy(final Pageable pageable);
+  
+  @EntityGraph(attributePaths = "account")
+  List<TransactionDto> findByReferenceGreaterThan(final String reference, final Pageable pageable);
 }
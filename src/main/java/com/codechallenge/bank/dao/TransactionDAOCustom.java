@@ -0,0 +1,73 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Transaction operations that are not covered by the Spring Data derived queries
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public interface TransactionDAOCustom {
+  
+  /**
+   * Inserts the given new transaction without checking first if it is already stored.
+   *
+   * @param transaction the new transaction to be inserted.
+   */
+  void persist(final TransactionDto transaction);
+  
+  /**
+   * Inserts the given new transactions using JDBC batches, without checking first if they are already stored.
+   *
+   * @param transactions the new transactions to be inserted.
+   */
+  void persistAll(final Collection<TransactionDto> transactions);
+  
+  /**
+   * Finds the transactions of the given account sorted by the field of the query and then by reference, starting right
+   * after the transaction referenced by the query (keyset pagination), only with the dates in the range of the query.
+   *
+   * @param account the account owner of the transactions.
+   * @param query   how the transactions have to be filtered by date, sorted and paginated.
+   * @return the transactions that fulfill the query.
+   */
+  List<TransactionDto> findByAccount(final AccountDto account, final TransactionQuery query);
+  
+  /**
+   * Same as {@link #findByAccount(AccountDto, TransactionQuery)}, but reading only the transaction columns, without the
+   * account.
+   *
+   * @param account the account owner of the transactions.
+   * @param query   how the transactions have to be sorted and paginated.
+   * @return the lean transactions that fulfill the query, without the account iban.
+   */
+  List<TransactionItem> findItemsByAccount(final AccountDto account, final TransactionQuery query);
+  
+  /**
+   * Same as {@link #findItemsByAccount(AccountDto, TransactionQuery)}, but reading the transactions through a database
+   * cursor. It has to be consumed inside a transaction and closed afterwards.
+   *
+   * @param account the account owner of the transactions.
+   * @param query   how the transactions have to be filtered by date and sorted.
+   * @return the lean transactions that fulfill the query, without the account iban.
+   */
+  Stream<TransactionItem> streamItemsByAccount(final AccountDto account, final TransactionQuery query);
+  
+  /**
+   * Finds the transactions of all the accounts ordered by reference, starting right after the given reference, reading
+   * only the transaction columns and the account iban from the foreign key.
+   *
+   * @param after the reference of the last transaction from the previous page, or null to start from the first one.
+   * @param limit the maximum number of transactions.
+   * @return the lean transactions.
+   */
+  List<TransactionItem> findItems(final String after, final int limit);
+}
@@ -0,0 +1,186 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.TransactionSortField;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+/**
+ * Transaction hibernate implementation of the {@link TransactionDAOCustom} operations
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class TransactionDAOImpl implements TransactionDAOCustom {
+  
+  private static final String ITEM_SELECT = "select new " + TransactionItem.class.getName()
+    + "(t.reference, t.date, t.amount, t.fee, t.description)";
+  private static final String ITEM_WITH_ACCOUNT_SELECT = "select new " + TransactionItem.class.getName()
+    + "(t.reference, t.account.iban, t.date, t.amount, t.fee, t.description)";
+  private static final int STREAM_FETCH_SIZE = 500;
+  
+  @PersistenceContext
+  private EntityManager entityManager;
+  
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+  private int batchSize;
+  
+  /**
+   * Persists the transaction instead of merging it, so no select by reference is issued before the insert, and flushes
+   * it so a used reference fails here and not at the commit.
+   */
+  @Override
+  public void persist(final TransactionDto transaction) {
+    entityManager.persist(transaction);
+    entityManager.flush();
+  }
+  
+  /**
+   * Persists the transactions instead of merging them, so no select is issued per row, flushing and clearing the
+   * persistence context every batch so the memory used does not depend on the number of transactions.
+   */
+  @Override
+  public void persistAll(final Collection<TransactionDto> transactions) {
+    int pending = 0;
+    for (TransactionDto transaction : transactions) {
+      entityManager.persist(transaction);
+      if (++pending == batchSize) {
+        entityManager.flush();
+        entityManager.clear();
+        pending = 0;
+      }
+    }
+    entityManager.flush();
+  }
+  
+  /**
+   * Builds a query that seeks directly to the first row after the given reference using the composite indexes
+   * (account_iban, sort field, reference), so the cost of a page does not depend on how many pages came before it.
+   * The null values of the nullable sort fields are sorted as the lowest values. The date range is part of the where
+   * clause, so it is resolved by the database together with the sort.
+   */
+  @Override
+  public List<TransactionDto> findByAccount(final AccountDto account, final TransactionQuery query) {
+    return findByAccount(account, query, "select t", TransactionDto.class);
+  }
+  
+  @Override
+  public List<TransactionItem> findItemsByAccount(final AccountDto account, final TransactionQuery query) {
+    return findByAccount(account, query, ITEM_SELECT, TransactionItem.class);
+  }
+  
+  /**
+   * The account iban is read from the foreign key column, so the account table is not joined.
+   */
+  @Override
+  public List<TransactionItem> findItems(final String after, final int limit) {
+    TypedQuery<TransactionItem> query = entityManager.createQuery(ITEM_WITH_ACCOUNT_SELECT
+      + " from account_transaction t" + (after != null ? " where t.reference > :after" : "")
+      + " order by t.reference", TransactionItem.class);
+    if (after != null) {
+      query.setParameter("after", after);
+    }
+    return query.setMaxResults(limit).getResultList();
+  }
+  
+  /**
+   * The rows are read through a database cursor, {@link #findByAccount(AccountDto, TransactionQuery)} explains how the
+   * query is built.
+   */
+  @Override
+  public Stream<TransactionItem> streamItemsByAccount(final AccountDto account, final TransactionQuery query) {
+    return createQuery(account, query, ITEM_SELECT, TransactionItem.class)
+      .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+      .getResultStream();
+  }
+  
+  private <T> List<T> findByAccount(final AccountDto account, final TransactionQuery query, final String select,
+                                    final Class<T> resultClass) {
+    return createQuery(account, query, select, resultClass).getResultList();
+  }
+  
+  private <T> TypedQuery<T> createQuery(final AccountDto account, final TransactionQuery query, final String select,
+                                        final Class<T> resultClass) {
+    String field = "t." + query.getSortField().getProperty();
+    boolean ascending = query.getDirection().isAscending();
+    boolean nullable = query.getSortField().isNullable();
+    String comparator = ascending ? " > " : " < ";
+    String direction = ascending ? " asc" : " desc";
+    
+    StringBuilder jpql = new StringBuilder(select).append(" from account_transaction t where t.account = :account");
+    if (query.getFrom() != null) {
+      jpql.append(" and t.date >= :from");
+    }
+    if (query.getTo() != null) {
+      jpql.append(" and t.date < :to");
+    }
+    boolean seekBySortValue = query.getAfter() != null && query.getSortField() != TransactionSortField.REFERENCE;
+    Object afterValue = seekBySortValue ? findSortValue(account, query) : null;
+    if (query.getAfter() != null) {
+      if (!seekBySortValue) {
+        jpql.append(" and t.reference").append(comparator).append(":after");
+      } else if (afterValue == null) {
+        jpql.append(ascending
+          ? " and (t.reference > :after and " + field + " is null or " + field + " is not null)"
+          : " and t.reference < :after and " + field + " is null");
+      } else {
+        jpql.append(" and (").append(field).append(comparator).append(":afterValue or ")
+          .append(field).append(" = :afterValue and t.reference").append(comparator).append(":after")
+          .append(nullable && !ascending ? " or " + field + " is null)" : ")");
+      }
+    }
+    jpql.append(" order by ").append(field).append(direction);
+    if (nullable) {
+      jpql.append(ascending ? " nulls first" : " nulls last");
+    }
+    if (query.getSortField() != TransactionSortField.REFERENCE) {
+      jpql.append(", t.reference").append(direction);
+    }
+    
+    TypedQuery<T> typedQuery = entityManager.createQuery(jpql.toString(), resultClass)
+      .setParameter("account", account);
+    if (query.getAfter() != null) {
+      typedQuery.setParameter("after", query.getAfter());
+    }
+    if (afterValue != null) {
+      typedQuery.setParameter("afterValue", afterValue);
+    }
+    if (query.getFrom() != null) {
+      typedQuery.setParameter("from", query.getFrom());
+    }
+    if (query.getTo() != null) {
+      typedQuery.setParameter("to", query.getTo());
+    }
+    if (query.getLimit() != null) {
+      typedQuery.setMaxResults(query.getLimit());
+    }
+    return typedQuery;
+  }
+  
+  /**
+   * Reads only the sort field of the transaction referenced by the query, that is the key where the page starts.
+   */
+  private Object findSortValue(final AccountDto account, final TransactionQuery query) {
+    List<Object> values = entityManager.createQuery("select t." + query.getSortField().getProperty()
+      + " from account_transaction t where t.reference = :after and t.account = :account", Object.class)
+      .setParameter("after", query.getAfter())
+      .setParameter("account", account)
+      .getResultList();
+    if (values.isEmpty()) {
+      throw new DataNotFoundException("transaction", query.getAfter());
+    }
+    return values.get(0);
+  }
+}
@@ -0,0 +1,143 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Storage engine of the transactions used by the services. The engine is chosen with the Spring profile: the
+ * {@link JpaTransactionStorage} by default and the {@link MemoryStorage} with the memory profile.
+ * <p>
+ * The writes join the Spring transaction of the caller, so they are undone when it rolls back.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public interface TransactionStorage {
+  
+  Optional<TransactionDto> findById(final String reference);
+  
+  boolean existsById(final String reference);
+  
+  List<TransactionDto> findAll();
+  
+  /**
+   * @return the fields used by the status rules of the transaction, without its account.
+   */
+  Optional<TransactionStatusView> findStatusViewById(final String reference);
+  
+  List<TransactionStatusView> findStatusViewsByIdIn(final Collection<String> references);
+  
+  /**
+   * @return the given references that are already stored.
+   */
+  List<String> findReferencesIn(final Collection<String> references);
+  
+  /**
+   * Finds the transactions ordered by reference, starting right after the given reference.
+   *
+   * @param after the reference of the last transaction from the previous page, or null to get the first page.
+   * @param limit the maximum number of transactions of the page.
+   * @return the transactions of the page.
+   */
+  List<TransactionDto> findPage(final String after, final int limit);
+  
+  /**
+   * Same as {@link #findPage(String, int)}, but without loading the accounts.
+   *
+   * @param after the reference of the last transaction from the previous page, or null to start from the first one.
+   * @param limit the maximum number of transactions.
+   * @return the lean transactions, with the account iban.
+   */
+  List<TransactionItem> findItems(final String after, final int limit);
+  
+  /**
+   * Performs the given action for every stored transaction ordered by reference, without keeping all of them in
+   * memory.
+   *
+   * @param action the action to be performed for each transaction.
+   */
+  void forEach(final Consumer<TransactionDto> action);
+  
+  /**
+   * Reads the references of all the stored transactions, in no particular order. It has to be consumed inside a
+   * transaction and closed afterwards.
+   */
+  Stream<String> streamAllReferences();
+  
+  List<TransactionDto> findByAccount(final AccountDto account);
+  
+  /**
+   * @param account the account owner of the transactions.
+   * @param sort    the fields used to sort the transactions, the ones of {@link
+   *                com.codechallenge.bank.model.TransactionSortField}.
+   * @return the sorted transactions of the account.
+   */
+  List<TransactionDto> findByAccount(final AccountDto account, final Sort sort);
+  
+  /**
+   * Finds the transactions of the given account sorted by the field of the query and then by reference, starting right
+   * after the transaction referenced by the query (keyset pagination), only with the dates in the range of the query.
+   *
+   * @param account the account owner of the transactions.
+   * @param query   how the transactions have to be filtered by date, sorted and paginated.
+   * @return the transactions that fulfill the query.
+   * @throws com.codechallenge.bank.exception.DataNotFoundException when the query is sorted by other field than the
+   *                                                                reference and it starts after a transaction that
+   *                                                                is not one of the account.
+   */
+  List<TransactionDto> findByAccount(final AccountDto account, final TransactionQuery query);
+  
+  /**
+   * Same as {@link #findByAccount(AccountDto, TransactionQuery)}, but without the account.
+   */
+  List<TransactionItem> findItemsByAccount(final AccountDto account, final TransactionQuery query);
+  
+  /**
+   * Same as {@link #findItemsByAccount(AccountDto, TransactionQuery)}, but reading the transactions as they are
+   * consumed. It has to be consumed inside a transaction and closed afterwards.
+   */
+  Stream<TransactionItem> streamItemsByAccount(final AccountDto account, final TransactionQuery query);
+  
+  /**
+   * @return the sum of the amounts of the transactions of the account dated before the given date, that is the balance
+   * of the account at that date.
+   */
+  long sumAmountsBefore(final AccountDto account, final LocalDateTime date);
+  
+  /**
+   * Computes the summary of an account from its stored transactions.
+   *
+   * @param iban the iban of the account.
+   * @return the summary, empty when the account has no transactions.
+   */
+  Optional<AccountSummaryDto> computeSummary(final String iban);
+  
+  /**
+   * Inserts a new transaction of a stored account. The reference is not read first, a used reference fails with a
+   * {@link org.springframework.dao.DataIntegrityViolationException}.
+   *
+   * @param transaction the transaction to be saved.
+   * @return the saved transaction.
+   */
+  TransactionDto save(final TransactionDto transaction);
+  
+  /**
+   * Inserts the given new transactions without checking first if they are already stored, a used reference fails with
+   * a {@link org.springframework.dao.DataIntegrityViolationException}.
+   *
+   * @param transactions the new transactions to be inserted.
+   */
+  void persistAll(final Collection<TransactionDto> transactions);
+}
@@ -0,0 +1,38 @@
+package com.codechallenge.bank.model;
+
+import com.codechallenge.bank.model.dto.AccountDto;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+
+import java.util.List;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * Model class used to return the transactions of one account, with the account written only once
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class AccountTransactions {
+  
+  private final AccountDto account;
+  private final List<TransactionItem> transactions;
+  
+  public AccountTransactions(final AccountDto account, final List<TransactionItem> transactions) {
+    this.account = account;
+    this.transactions = transactions;
+  }
+  
+  public AccountDto getAccount() {
+    return account;
+  }
+  
+  public List<TransactionItem> getTransactions() {
+    return transactions;
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+}
@@ -1,7 +1,10 @@
 package com.codechallenge.bank.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.codechallenge.bank.util.Money;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
@@ -28,9 +31,13 @@ public class Transaction {
   private String account;
   @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.046'Z'")
   private LocalDateTime date;
-  private double amount;
+  @JsonSerialize(using = Money.Serializer.class)
+  @JsonDeserialize(using = Money.Deserializer.class)
+  private long amount;
   @PositiveOrZero(message = "the fee cannot be less than zero")
-  private Double fee;
+  @JsonSerialize(using = Money.Serializer.class)
+  @JsonDeserialize(using = Money.Deserializer.class)
+  private long fee;
   private String description;
   
   public Transaction() {
@@ -66,11 +73,17 @@ public class Transaction {
     return date;
   }
   
-  public double getAmount() {
+  /**
+   * @return the amount in minor units, see {@link Money}.
+   */
+  public long getAmount() {
     return amount;
   }
   
-  public Double getFee() {
+  /**
+   * @return the fee in minor units, 0 when the transaction has no fee.
+   */
+  public long getFee() {
     return fee;
   }
   
@@ -105,8 +118,8 @@ public class Transaction {
     private String reference;
     private String account;
     private LocalDateTime date;
-    private double amount;
-    private Double fee;
+    private long amount;
+    private long fee;
     private String description;
     
     private Builder() {
@@ -137,12 +150,12 @@ public class Transaction {
       return this;
     }
     
-    public Builder amount(final double amount) {
+    public Builder amount(final long amount) {
       this.amount = amount;
       return this;
     }
     
-    public Builder fee(final Double fee) {
+    public Builder fee(final long fee) {
       this.fee = fee;
       return this;
     }
@@ -0,0 +1,144 @@
+package com.codechallenge.bank.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * Model class used to store the result of each transaction sent in a batch
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionBatchResult {
+  
+  private String reference;
+  @JsonProperty("account_iban")
+  private String account;
+  private boolean accepted;
+  private String reason;
+  @JsonIgnore
+  private boolean failed;
+  
+  private TransactionBatchResult(final Builder builder) {
+    reference = builder.reference;
+    account = builder.account;
+    accepted = builder.accepted;
+    reason = builder.reason;
+    failed = builder.failed;
+  }
+  
+  public static Builder builder() {
+    return new Builder();
+  }
+  
+  public static TransactionBatchResult accepted(final String reference, final String account) {
+    return builder().reference(reference).account(account).accepted(true).build();
+  }
+  
+  public static TransactionBatchResult rejected(final String reference, final String account, final String reason) {
+    return builder().reference(reference).account(account).accepted(false).reason(reason).build();
+  }
+  
+  /**
+   * @return a result of a transaction that was not saved because of an error, not because of the rules, so it can be
+   * sent again.
+   */
+  public static TransactionBatchResult failed(final String reference, final String account, final String reason) {
+    return builder().reference(reference).account(account).accepted(false).reason(reason).failed(true).build();
+  }
+  
+  public String getReference() {
+    return reference;
+  }
+  
+  public String getAccount() {
+    return account;
+  }
+  
+  public boolean isAccepted() {
+    return accepted;
+  }
+  
+  public String getReason() {
+    return reason;
+  }
+  
+  public boolean isFailed() {
+    return failed;
+  }
+  
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    TransactionBatchResult that = (TransactionBatchResult) o;
+    return new EqualsBuilder()
+      .append(reference, that.reference)
+      .append(accepted, that.accepted)
+      .isEquals();
+  }
+  
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(17, 37)
+      .append(reference)
+      .append(accepted)
+      .toHashCode();
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+  
+  public static class Builder {
+    
+    private String reference;
+    private String account;
+    private boolean accepted;
+    private String reason;
+    private boolean failed;
+    
+    private Builder() {
+      super();
+    }
+    
+    public Builder reference(final String reference) {
+      this.reference = reference;
+      return this;
+    }
+    
+    public Builder account(final String account) {
+      this.account = account;
+      return this;
+    }
+    
+    public Builder accepted(final boolean accepted) {
+      this.accepted = accepted;
+      return this;
+    }
+    
+    public Builder reason(final String reason) {
+      this.reason = reason;
+      return this;
+    }
+    
+    public Builder failed(final boolean failed) {
+      this.failed = failed;
+      return this;
+    }
+    
+    public TransactionBatchResult build() {
+      return new TransactionBatchResult(this);
+    }
+  }
+}
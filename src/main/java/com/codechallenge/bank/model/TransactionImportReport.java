@@ -0,0 +1,137 @@
+package com.codechallenge.bank.model;
+
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+
+import java.time.Duration;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * Model class used to store the totals of a bulk import of transactions
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class TransactionImportReport {
+  
+  private long read;
+  private long accepted;
+  private long rejected;
+  private long malformed;
+  private long failed;
+  private Duration elapsed;
+  
+  private TransactionImportReport(final Builder builder) {
+    read = builder.read;
+    accepted = builder.accepted;
+    rejected = builder.rejected;
+    malformed = builder.malformed;
+    failed = builder.failed;
+    elapsed = builder.elapsed;
+  }
+  
+  public static Builder builder() {
+    return new Builder();
+  }
+  
+  /**
+   * @return the number of rows read from the input, including the malformed ones.
+   */
+  public long getRead() {
+    return read;
+  }
+  
+  public long getAccepted() {
+    return accepted;
+  }
+  
+  /**
+   * @return the number of transactions rejected by the rules of the transactions, like a duplicate reference or a
+   * balance below 0.
+   */
+  public long getRejected() {
+    return rejected;
+  }
+  
+  /**
+   * @return the number of rows that could not be read as a transaction.
+   */
+  public long getMalformed() {
+    return malformed;
+  }
+  
+  /**
+   * @return the number of transactions that could not be saved because of an unexpected error.
+   */
+  public long getFailed() {
+    return failed;
+  }
+  
+  public Duration getElapsed() {
+    return elapsed;
+  }
+  
+  /**
+   * @return the number of rows read per second.
+   */
+  public long getRowsPerSecond() {
+    return rowsPerSecond(read, elapsed);
+  }
+  
+  public static long rowsPerSecond(final long rows, final Duration elapsed) {
+    return rows * 1000 / Math.max(1, elapsed.toMillis());
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+  
+  public static class Builder {
+    
+    private long read;
+    private long accepted;
+    private long rejected;
+    private long malformed;
+    private long failed;
+    private Duration elapsed = Duration.ZERO;
+    
+    private Builder() {
+      super();
+    }
+    
+    public Builder read(final long read) {
+      this.read = read;
+      return this;
+    }
+    
+    public Builder accepted(final long accepted) {
+      this.accepted = accepted;
+      return this;
+    }
+    
+    public Builder rejected(final long rejected) {
+      this.rejected = rejected;
+      return this;
+    }
+    
+    public Builder malformed(final long malformed) {
+      this.malformed = malformed;
+      return this;
+    }
+    
+    public Builder failed(final long failed) {
+      this.failed = failed;
+      return this;
+    }
+    
+    public Builder elapsed(final Duration elapsed) {
+      this.elapsed = elapsed;
+      return this;
+    }
+    
+    public TransactionImportReport build() {
+      return new TransactionImportReport(this);
+    }
+  }
+}
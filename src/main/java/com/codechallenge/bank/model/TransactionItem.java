@@ -0,0 +1,111 @@
+package com.codechallenge.bank.model;
+
+import com.codechallenge.bank.util.Money;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * Lean representation of a stored transaction used by the transaction lists, with the iban of the account instead
+ * of the whole account. The fields that are written can be selected with the {@link #FILTER} Jackson filter.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@JsonFilter(TransactionItem.FILTER)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionItem {
+  
+  public static final String FILTER = "transactionItemFields";
+  public static final Set<String> FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(
+    Arrays.asList("reference", "account_iban", "date", "amount", "fee", "description")));
+  
+  private final String reference;
+  @JsonProperty("account_iban")
+  private final String account;
+  private final LocalDateTime date;
+  @JsonSerialize(using = Money.Serializer.class)
+  private final long amount;
+  @JsonSerialize(using = Money.Serializer.class)
+  private final long fee;
+  private final String description;
+  
+  /**
+   * Used by the projection queries that read the transactions of several accounts.
+   */
+  public TransactionItem(final String reference, final String account, final LocalDateTime date, final long amount,
+                         final long fee, final String description) {
+    this.reference = reference;
+    this.account = account;
+    this.date = date;
+    this.amount = amount;
+    this.fee = fee;
+    this.description = description;
+  }
+  
+  /**
+   * Used by the projection queries that read the transactions of one account, the account is written only once.
+   */
+  public TransactionItem(final String reference, final LocalDateTime date, final long amount, final long fee,
+                         final String description) {
+    this(reference, null, date, amount, fee, description);
+  }
+  
+  public String getReference() {
+    return reference;
+  }
+  
+  public String getAccount() {
+    return account;
+  }
+  
+  public LocalDateTime getDate() {
+    return date;
+  }
+  
+  public long getAmount() {
+    return amount;
+  }
+  
+  public long getFee() {
+    return fee;
+  }
+  
+  public String getDescription() {
+    return description;
+  }
+  
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    TransactionItem that = (TransactionItem) o;
+    return new EqualsBuilder()
+      .append(reference, that.reference)
+      .isEquals();
+  }
+  
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(17, 37)
+      .append(reference)
+      .toHashCode();
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+}
@@ -0,0 +1,126 @@
+package com.codechallenge.bank.model;
+
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * Model class used to store how the transactions of an account have to be filtered by date, sorted and paginated
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class TransactionQuery {
+  
+  private TransactionSortField sortField;
+  private Sort.Direction direction;
+  private String after;
+  private Integer limit;
+  private LocalDateTime from;
+  private LocalDateTime to;
+  
+  private TransactionQuery(final Builder builder) {
+    sortField = (builder.sortField != null) ? builder.sortField : TransactionSortField.REFERENCE;
+    direction = (builder.direction != null) ? builder.direction : Sort.Direction.ASC;
+    after = builder.after;
+    limit = builder.limit;
+    from = builder.from;
+    to = builder.to;
+  }
+  
+  public static Builder builder() {
+    return new Builder();
+  }
+  
+  public TransactionSortField getSortField() {
+    return sortField;
+  }
+  
+  public Sort.Direction getDirection() {
+    return direction;
+  }
+  
+  /**
+   * @return the reference of the last transaction from the previous page, or null when the first page is requested.
+   */
+  public String getAfter() {
+    return after;
+  }
+  
+  /**
+   * @return the maximum number of transactions to be returned, or null when all the transactions are requested.
+   */
+  public Integer getLimit() {
+    return limit;
+  }
+  
+  /**
+   * @return the first date of the transactions (inclusive), or null when they are not filtered by a first date.
+   */
+  public LocalDateTime getFrom() {
+    return from;
+  }
+  
+  /**
+   * @return the date where the transactions end (exclusive), or null when they are not filtered by a last date.
+   */
+  public LocalDateTime getTo() {
+    return to;
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+  
+  public static class Builder {
+    
+    private TransactionSortField sortField;
+    private Sort.Direction direction;
+    private String after;
+    private Integer limit;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    
+    private Builder() {
+      super();
+    }
+    
+    public Builder sortField(final TransactionSortField sortField) {
+      this.sortField = sortField;
+      return this;
+    }
+    
+    public Builder direction(final Sort.Direction direction) {
+      this.direction = direction;
+      return this;
+    }
+    
+    public Builder after(final String after) {
+      this.after = after;
+      return this;
+    }
+    
+    public Builder limit(final Integer limit) {
+      this.limit = limit;
+      return this;
+    }
+    
+    public Builder from(final LocalDateTime from) {
+      this.from = from;
+      return this;
+    }
+    
+    public Builder to(final LocalDateTime to) {
+      this.to = to;
+      return this;
+    }
+    
+    public TransactionQuery build() {
+      return new TransactionQuery(this);
+    }
+  }
+}
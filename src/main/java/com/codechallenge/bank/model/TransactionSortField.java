@@ -0,0 +1,47 @@
+package com.codechallenge.bank.model;
+
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Enum used to stores the fields that can be used to sort the transactions of an account
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public enum TransactionSortField {
+  
+  REFERENCE("reference", false), AMOUNT("amount", false), DATE("date", false), FEE("fee", false);
+  
+  private final String property;
+  private final boolean nullable;
+  
+  TransactionSortField(final String property, final boolean nullable) {
+    this.property = property;
+    this.nullable = nullable;
+  }
+  
+  /**
+   * Finds the sort field using its name without taking care of the case.
+   *
+   * @param name the name of the field, it can be any of these values: reference, amount, date, fee
+   * @return the {@link TransactionSortField}
+   */
+  public static TransactionSortField fromString(final String name) {
+    return Arrays.stream(values())
+      .filter(field -> field.property.equalsIgnoreCase(name))
+      .findFirst()
+      .orElseThrow(() -> new ResponseStatusException(BAD_REQUEST, "The transactions cannot be sorted by " + name));
+  }
+  
+  public String getProperty() {
+    return property;
+  }
+  
+  public boolean isNullable() {
+    return nullable;
+  }
+}
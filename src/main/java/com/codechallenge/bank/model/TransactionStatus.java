@@ -1,7 +1,9 @@
 package com.codechallenge.bank.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.codechallenge.bank.util.Money;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
@@ -25,8 +27,12 @@ public class TransactionStatus {
   private String reference;
   @NotNull(message = "the status is required")
   private Status status;
-  private Double amount;
-  private Double fee;
+  @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = Money.NoneFilter.class)
+  @JsonSerialize(using = Money.Serializer.class)
+  private long amount;
+  @JsonInclude(value = JsonInclude.Include.CUSTOM, valueFilter = Money.NoneFilter.class)
+  @JsonSerialize(using = Money.Serializer.class)
+  private long fee;
   
   private TransactionStatus(final Builder builder) {
     reference = builder.reference;
@@ -47,11 +53,17 @@ public class TransactionStatus {
     return status;
   }
   
-  public Double getAmount() {
+  /**
+   * @return the amount in minor units, or {@link Money#NONE} when the status has no amount.
+   */
+  public long getAmount() {
     return amount;
   }
   
-  public Double getFee() {
+  /**
+   * @return the fee in minor units, or {@link Money#NONE} when the fee is not shown to the channel.
+   */
+  public long getFee() {
     return fee;
   }
   
@@ -83,8 +95,8 @@ public class TransactionStatus {
     
     private String reference;
     private Status status;
-    private Double amount;
-    private Double fee;
+    private long amount = Money.NONE;
+    private long fee = Money.NONE;
     
     private Builder() {
       super();
@@ -100,12 +112,12 @@ public class TransactionStatus {
       return this;
     }
     
-    public Builder amount(final Double amount) {
+    public Builder amount(final long amount) {
       this.amount = amount;
       return this;
     }
     
-    public Builder fee(final Double fee) {
+    public Builder fee(final long fee) {
       this.fee = fee;
       return this;
     }
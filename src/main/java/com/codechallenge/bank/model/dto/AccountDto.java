@@ -1,12 +1,17 @@
 package com.codechallenge.bank.model.dto;
 
+import com.codechallenge.bank.util.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+import org.hibernate.annotations.Formula;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -26,7 +31,14 @@ public class AccountDto {
   @Id
   private String iban;
   private LocalDateTime date;
-  private double balance;
+  @JsonSerialize(using = Money.Serializer.class)
+  private long balance;
+  @Formula("(select coalesce(sum(s.balance), 0) from account_shard s where s.iban = iban)")
+  @JsonIgnore
+  private long shardBalance;
+  @Version
+  @JsonIgnore
+  private Long version;
   
   public AccountDto() {
     super();
@@ -35,7 +47,9 @@ public class AccountDto {
   private AccountDto(Builder builder) {
     iban = builder.iban;
     date = builder.date != null ? builder.date : LocalDateTime.now();
-    balance = builder.balance;
+    balance = builder.balance - builder.shardBalance;
+    shardBalance = builder.shardBalance;
+    version = builder.version;
   }
   
   public static Builder builder() {
@@ -58,8 +72,26 @@ public class AccountDto {
     return date;
   }
   
-  public double getBalance() {
-    return balance;
+  /**
+   * @return the balance in minor units, see {@link Money}, including the balance of the shards of a hot account.
+   */
+  public long getBalance() {
+    return balance + shardBalance;
+  }
+  
+  /**
+   * @return the part of the balance that is kept in the shards of a hot account, read with the account.
+   */
+  public long getShardBalance() {
+    return shardBalance;
+  }
+  
+  /**
+   * @return the version read from the database, an account saved with an old version is rejected, or null when the
+   * account is not stored yet.
+   */
+  public Long getVersion() {
+    return version;
   }
   
   @Override
@@ -88,7 +120,9 @@ public class AccountDto {
     
     private String iban;
     private LocalDateTime date;
-    private double balance;
+    private long balance;
+    private long shardBalance;
+    private Long version;
     private List<TransactionDto> transactions = Collections.EMPTY_LIST;
     
     private Builder() {
@@ -98,7 +132,9 @@ public class AccountDto {
     private Builder(final AccountDto account) {
       iban(account.iban)
         .date(account.date)
-        .balance(account.balance);
+        .balance(account.getBalance())
+        .shardBalance(account.shardBalance);
+      version = account.version;
     }
     
     public Builder iban(final String iban) {
@@ -111,7 +147,10 @@ public class AccountDto {
       return this;
     }
     
-    public Builder balance(final double balance) {
+    /**
+     * @param balance the whole balance of the account, the row keeps the part that is not in the shards.
+     */
+    public Builder balance(final long balance) {
       this.balance = balance;
       if (balance < 0) {
         throw new ResponseStatusException(BAD_REQUEST, "The balance account could not be below 0");
@@ -119,6 +158,19 @@ public class AccountDto {
       return this;
     }
     
+    public Builder shardBalance(final long shardBalance) {
+      this.shardBalance = shardBalance;
+      return this;
+    }
+    
+    /**
+     * @param version the version of the stored account, set by the storage engines that do not use hibernate.
+     */
+    public Builder version(final Long version) {
+      this.version = version;
+      return this;
+    }
+    
     public Builder transactions(final List<TransactionDto> transactions) {
       this.transactions = transactions;
       return this;
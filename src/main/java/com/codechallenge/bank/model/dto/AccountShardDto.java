@@ -0,0 +1,121 @@
+package com.codechallenge.bank.model.dto;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * Model class used to store one part of the balance of a hot account. The balance of the account is the balance of
+ * its row plus the balances of all its shards, so the credits can be written to different rows at the same time.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Entity
+@Table(name = "account_shard", indexes = @Index(name = "idx_account_shard_iban", columnList = "iban"))
+public class AccountShardDto {
+  
+  @Id
+  private String id;
+  
+  @Column(nullable = false)
+  private String iban;
+  
+  private long balance;
+  
+  @Version
+  private Long version;
+  
+  //For hibernate
+  public AccountShardDto() {
+    super();
+  }
+  
+  private AccountShardDto(final String id, final String iban, final long balance, final Long version) {
+    this.id = id;
+    this.iban = iban;
+    this.balance = balance;
+    this.version = version;
+  }
+  
+  /**
+   * @param iban  the iban of the account.
+   * @param shard the number of the shard.
+   * @return the key of the shard, that is also used to own it in the {@link com.codechallenge.bank.service.LedgerService}.
+   */
+  public static String key(final String iban, final int shard) {
+    return prefix(iban) + shard;
+  }
+  
+  /**
+   * @param iban the iban of the account.
+   * @return the prefix shared by the keys of all the shards of the account.
+   */
+  public static String prefix(final String iban) {
+    return iban + "#";
+  }
+  
+  public static AccountShardDto empty(final String iban, final int shard) {
+    return new AccountShardDto(key(iban, shard), iban, 0, null);
+  }
+  
+  /**
+   * @return a copy of the shard with the given balance, in minor units.
+   */
+  public AccountShardDto withBalance(final long balance) {
+    return new AccountShardDto(id, iban, balance, version);
+  }
+  
+  /**
+   * @return the key of the shard, see {@link #key(String, int)}.
+   */
+  public String getId() {
+    return id;
+  }
+  
+  public String getIban() {
+    return iban;
+  }
+  
+  /**
+   * @return the balance in minor units, never below 0.
+   */
+  public long getBalance() {
+    return balance;
+  }
+  
+  public Long getVersion() {
+    return version;
+  }
+  
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    AccountShardDto shard = (AccountShardDto) o;
+    return new EqualsBuilder()
+      .append(id, shard.id)
+      .isEquals();
+  }
+  
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(17, 37)
+      .append(id)
+      .toHashCode();
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+}
@@ -0,0 +1,205 @@
+package com.codechallenge.bank.model.dto;
+
+import com.codechallenge.bank.util.Money;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * Model class used to store the totals of the transactions of an account, updated with every saved transaction so
+ * they are read without going through the transactions.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Entity
+@Table(name = "account_summary")
+public class AccountSummaryDto {
+  
+  @Id
+  private String iban;
+  
+  @Column(nullable = false)
+  @JsonProperty("transaction_count")
+  private long transactionCount;
+  
+  @Column(nullable = false)
+  @JsonProperty("credit_sum")
+  @JsonSerialize(using = Money.Serializer.class)
+  private long creditSum;
+  
+  @Column(nullable = false)
+  @JsonProperty("debit_sum")
+  @JsonSerialize(using = Money.Serializer.class)
+  private long debitSum;
+  
+  @Column(nullable = false)
+  @JsonProperty("fee_sum")
+  @JsonSerialize(using = Money.Serializer.class)
+  private long feeSum;
+  
+  @JsonProperty("last_transaction_date")
+  private LocalDateTime lastTransactionDate;
+  
+  //For hibernate
+  public AccountSummaryDto() {
+    super();
+  }
+  
+  /**
+   * Used by the aggregate query that rebuilds the summaries from the stored transactions.
+   */
+  public AccountSummaryDto(final String iban, final Long transactionCount, final Long creditSum, final Long debitSum,
+                           final Long feeSum, final LocalDateTime lastTransactionDate) {
+    this.iban = iban;
+    this.transactionCount = transactionCount != null ? transactionCount : 0;
+    this.creditSum = creditSum != null ? creditSum : 0;
+    this.debitSum = debitSum != null ? debitSum : 0;
+    this.feeSum = feeSum != null ? feeSum : 0;
+    this.lastTransactionDate = lastTransactionDate;
+  }
+  
+  private AccountSummaryDto(final Builder builder) {
+    iban = builder.iban;
+    transactionCount = builder.transactionCount;
+    creditSum = builder.creditSum;
+    debitSum = builder.debitSum;
+    feeSum = builder.feeSum;
+    lastTransactionDate = builder.lastTransactionDate;
+  }
+  
+  public static Builder builder(final String iban) {
+    return new Builder(iban);
+  }
+  
+  public static Builder builder(final AccountSummaryDto summary) {
+    return new Builder(summary);
+  }
+  
+  public String getIban() {
+    return iban;
+  }
+  
+  public long getTransactionCount() {
+    return transactionCount;
+  }
+  
+  /**
+   * @return the sum of the positive amounts, in minor units.
+   */
+  public long getCreditSum() {
+    return creditSum;
+  }
+  
+  /**
+   * @return the sum of the negative amounts as a positive number, in minor units.
+   */
+  public long getDebitSum() {
+    return debitSum;
+  }
+  
+  /**
+   * @return the sum of the fees, in minor units.
+   */
+  public long getFeeSum() {
+    return feeSum;
+  }
+  
+  /**
+   * @return the latest date of the transactions, null when the account has no transactions.
+   */
+  public LocalDateTime getLastTransactionDate() {
+    return lastTransactionDate;
+  }
+  
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    AccountSummaryDto summary = (AccountSummaryDto) o;
+    return new EqualsBuilder()
+      .append(iban, summary.iban)
+      .isEquals();
+  }
+  
+  @Override
+  public int hashCode() {
+    return new HashCodeBuilder(17, 37)
+      .append(iban)
+      .toHashCode();
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+  
+  public static class Builder {
+    
+    private final String iban;
+    private long transactionCount;
+    private long creditSum;
+    private long debitSum;
+    private long feeSum;
+    private LocalDateTime lastTransactionDate;
+    
+    private Builder(final String iban) {
+      this.iban = iban;
+    }
+    
+    private Builder(final AccountSummaryDto summary) {
+      iban = summary.iban;
+      transactionCount = summary.transactionCount;
+      creditSum = summary.creditSum;
+      debitSum = summary.debitSum;
+      feeSum = summary.feeSum;
+      lastTransactionDate = summary.lastTransactionDate;
+    }
+    
+    /**
+     * Adds the given transaction to the totals.
+     */
+    public Builder add(final TransactionDto transaction) {
+      transactionCount++;
+      if (transaction.getAmount() > 0) {
+        creditSum = Math.addExact(creditSum, transaction.getAmount());
+      } else {
+        debitSum = Math.subtractExact(debitSum, transaction.getAmount());
+      }
+      feeSum = Math.addExact(feeSum, transaction.getFee());
+      if (lastTransactionDate == null || transaction.getDate().isAfter(lastTransactionDate)) {
+        lastTransactionDate = transaction.getDate();
+      }
+      return this;
+    }
+    
+    /**
+     * Adds the totals of the given summary, used to join the summaries of the shards of a hot account.
+     */
+    public Builder merge(final AccountSummaryDto summary) {
+      transactionCount = Math.addExact(transactionCount, summary.transactionCount);
+      creditSum = Math.addExact(creditSum, summary.creditSum);
+      debitSum = Math.addExact(debitSum, summary.debitSum);
+      feeSum = Math.addExact(feeSum, summary.feeSum);
+      if (lastTransactionDate == null || (summary.lastTransactionDate != null
+        && summary.lastTransactionDate.isAfter(lastTransactionDate))) {
+        lastTransactionDate = summary.lastTransactionDate;
+      }
+      return this;
+    }
+    
+    public AccountSummaryDto build() {
+      return new AccountSummaryDto(this);
+    }
+  }
+}
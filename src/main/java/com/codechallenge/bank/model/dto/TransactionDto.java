@@ -1,6 +1,8 @@
 package com.codechallenge.bank.model.dto;
 
 import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.util.Money;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
@@ -8,7 +10,9 @@ import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import java.time.LocalDateTime;
 
 import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
@@ -20,7 +24,12 @@ import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE
  * @since 25/09/2019
  */
 @Entity(name = "account_transaction")
-public class TransactionDto {
+@Table(name = "account_transaction", indexes = {
+  @Index(name = "idx_transaction_account_amount", columnList = "account_iban, amount, reference"),
+  @Index(name = "idx_transaction_account_date", columnList = "account_iban, date, reference"),
+  @Index(name = "idx_transaction_account_fee", columnList = "account_iban, fee, reference")
+})
+public class TransactionDto implements TransactionStatusView {
   
   @Id
   private String reference;
@@ -31,9 +40,12 @@ public class TransactionDto {
   private LocalDateTime date;
   
   @Column(nullable = false)
-  private double amount;
+  @JsonSerialize(using = Money.Serializer.class)
+  private long amount;
   
-  private Double fee;
+  @Column(nullable = false)
+  @JsonSerialize(using = Money.Serializer.class)
+  private long fee;
   
   private String description;
   
@@ -75,11 +87,11 @@ public class TransactionDto {
     return date;
   }
   
-  public double getAmount() {
+  public long getAmount() {
     return amount;
   }
   
-  public Double getFee() {
+  public long getFee() {
     return fee;
   }
   
@@ -114,8 +126,8 @@ public class TransactionDto {
     private String reference;
     private AccountDto account;
     private LocalDateTime date;
-    private double amount;
-    private Double fee;
+    private long amount;
+    private long fee;
     private String description;
     
     private Builder() {
@@ -160,12 +172,12 @@ public class TransactionDto {
       return this;
     }
     
-    public Builder amount(final double amount) {
+    public Builder amount(final long amount) {
       this.amount = amount;
       return this;
     }
     
-    public Builder fee(final Double fee) {
+    public Builder fee(final long fee) {
       this.fee = fee;
       return this;
     }
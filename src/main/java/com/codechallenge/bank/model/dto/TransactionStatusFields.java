@@ -0,0 +1,55 @@
+package com.codechallenge.bank.model.dto;
+
+import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.apache.commons.lang3.builder.ToStringStyle.NO_CLASS_NAME_STYLE;
+
+/**
+ * {@link TransactionStatusView} built by the constructor projection queries and the storage engines, so the status
+ * fields are read without building the whole {@link TransactionDto}.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class TransactionStatusFields implements TransactionStatusView {
+  
+  private final String reference;
+  private final LocalDateTime date;
+  private final long amount;
+  private final long fee;
+  
+  public TransactionStatusFields(final String reference, final LocalDateTime date, final long amount,
+                                 final long fee) {
+    this.reference = reference;
+    this.date = date;
+    this.amount = amount;
+    this.fee = fee;
+  }
+  
+  @Override
+  public String getReference() {
+    return reference;
+  }
+  
+  @Override
+  public LocalDateTime getDate() {
+    return date;
+  }
+  
+  @Override
+  public long getAmount() {
+    return amount;
+  }
+  
+  @Override
+  public long getFee() {
+    return fee;
+  }
+  
+  @Override
+  public String toString() {
+    return ReflectionToStringBuilder.toString(this, NO_CLASS_NAME_STYLE);
+  }
+}
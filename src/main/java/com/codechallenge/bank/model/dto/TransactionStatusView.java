@@ -0,0 +1,27 @@
+package com.codechallenge.bank.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read only view with the transaction fields used to build a {@link com.codechallenge.bank.model.TransactionStatus},
+ * read without loading the account of the transaction.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public interface TransactionStatusView {
+  
+  String getReference();
+  
+  LocalDateTime getDate();
+  
+  /**
+   * @return the amount in minor units.
+   */
+  long getAmount();
+  
+  /**
+   * @return the fee in minor units, 0 when the transaction has no fee.
+   */
+  long getFee();
+}
@@ -1,6 +1,6 @@
 package com.codechallenge.bank.service;
 
-import com.codechallenge.bank.dao.AccountDAO;
+import com.codechallenge.bank.dao.AccountStorage;
 import com.codechallenge.bank.model.dto.AccountDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,7 +17,7 @@ import java.util.Optional;
 @Service
 public class AccountService {
   
-  @Autowired private AccountDAO dao;
+  @Autowired private AccountStorage storage;
   
   /**
    * Finds an {@link AccountDto} using the given iban (identifier)
@@ -26,7 +26,7 @@ public class AccountService {
    * @return an {@link Optional} with the AccountDto if the iban is already in the database, otherwise it will be empty.
    */
   public Optional<AccountDto> findById(final String iban) {
-    return dao.findById(iban);
+    return storage.findById(iban);
   }
   
   /**
@@ -35,10 +35,10 @@ public class AccountService {
    * @return A list of {@link AccountDto}s
    */
   public List<AccountDto> findAll() {
-    return dao.findAll();
+    return storage.findAll();
   }
   
   public AccountDto save(AccountDto account) {
-    return dao.save(account);
+    return storage.save(account);
   }
 }
\ No newline at end of file
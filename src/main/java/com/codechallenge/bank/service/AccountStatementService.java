@@ -0,0 +1,87 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.dao.TransactionStorage;
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.TransactionSortField;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.util.CsvWriter;
+import com.codechallenge.bank.util.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Account statement service, that writes the transactions of an account as CSV with the balance after each one of
+ * them.
+ * <p>
+ * The transactions are read through a database cursor, only with the columns of the statement, and every row is
+ * written as soon as it is read, so the memory used does not depend on the number of transactions. The running
+ * balance starts from the sum of the amounts dated before the statement.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class AccountStatementService {
+  
+  static final String[] HEADER = {"reference", "date", "description", "amount", "fee", "balance"};
+  
+  @Autowired private AccountService accountService;
+  @Autowired private TransactionStorage storage;
+  
+  /**
+   * Finds the account of a statement, so a missing account is reported before the statement starts being written.
+   *
+   * @param iban the iban of the account.
+   * @return the account.
+   */
+  public AccountDto findAccount(final String iban) {
+    return accountService.findById(iban).orElseThrow(() -> new DataNotFoundException("account", iban));
+  }
+  
+  /**
+   * Writes the statement of the given account, with its transactions sorted by date.
+   *
+   * @param iban   the iban of the account.
+   * @param from   the first date of the statement (inclusive), or null to start with the first transaction.
+   * @param to     the last date of the statement (exclusive), or null to end with the last transaction.
+   * @param output where the CSV rows are written, it is flushed but not closed.
+   * @throws IOException when the output cannot be written.
+   */
+  @Transactional(readOnly = true)
+  public void write(final String iban, final LocalDateTime from, final LocalDateTime to, final Writer output)
+    throws IOException {
+    AccountDto account = findAccount(iban);
+    TransactionQuery query = TransactionQuery.builder()
+      .sortField(TransactionSortField.DATE)
+      .from(from)
+      .to(to)
+      .build();
+    long balance = from != null ? storage.sumAmountsBefore(account, from) : 0;
+    CsvWriter csv = new CsvWriter(output);
+    csv.writeRow(HEADER);
+    try (Stream<TransactionItem> transactions = storage.streamItemsByAccount(account, query)) {
+      Iterator<TransactionItem> iterator = transactions.iterator();
+      while (iterator.hasNext()) {
+        TransactionItem transaction = iterator.next();
+        balance = Math.addExact(balance, transaction.getAmount());
+        csv.writeRow(transaction.getReference(),
+          Objects.toString(transaction.getDate(), null),
+          transaction.getDescription(),
+          Money.format(transaction.getAmount()),
+          Money.format(transaction.getFee()),
+          Money.format(balance));
+      }
+    }
+    csv.flush();
+  }
+}
@@ -0,0 +1,112 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.dao.AccountSummaryStorage;
+import com.codechallenge.bank.dao.TransactionStorage;
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountShardDto;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Account summary service, that keeps the totals of the transactions of every account.
+ * <p>
+ * The summary is updated by the {@link TransactionService} and the {@link JournalService} in the same transaction
+ * that stores the transactions and the new balance, while the {@link LedgerService} owns the account, so it always
+ * matches the stored transactions and reading it costs one lookup by iban. It is kept by the
+ * {@link AccountSummaryStorage} of the storage engine, so the memory storage keeps it in memory and in its snapshot.
+ * The credits to a hot account (see {@link HotAccountService}) update the summary of their shard instead, and reading
+ * it joins the shards.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class AccountSummaryService {
+  
+  private static final Logger logger = LoggerFactory.getLogger(AccountSummaryService.class);
+  
+  @Autowired private AccountSummaryStorage storage;
+  @Autowired private TransactionStorage transactionStorage;
+  @Autowired private AccountService accountService;
+  @Autowired private LedgerService ledgerService;
+  @Autowired private HotAccountService hotAccountService;
+  
+  @Value("${bank.account-summary.rebuild-on-startup:false}")
+  private boolean rebuildOnStartup;
+  
+  /**
+   * Finds the summary of the given account.
+   *
+   * @param iban the iban of the {@link AccountDto}.
+   * @return the summary, with every total at 0 when the account has no stored transactions yet.
+   */
+  public AccountSummaryDto findByIban(final String iban) {
+    Optional<AccountSummaryDto> summary = storage.findById(iban);
+    List<AccountSummaryDto> shards = storage.findByIbanStartingWith(AccountShardDto.prefix(iban));
+    if (shards.isEmpty()) {
+      return summary.orElseGet(() -> accountService.findById(iban)
+        .map(account -> AccountSummaryDto.builder(iban).build())
+        .orElseThrow(() -> new DataNotFoundException("account", iban)));
+    }
+    AccountSummaryDto.Builder merged = AccountSummaryDto.builder(iban);
+    summary.ifPresent(merged::merge);
+    shards.forEach(merged::merge);
+    return merged.build();
+  }
+  
+  /**
+   * Adds the given transactions to the summary of their account. It has to be called inside the database transaction
+   * that stores them, while the {@link LedgerService} owns the account or the shard.
+   *
+   * @param iban         the iban of the account of the transactions, or the key of the shard of a hot account.
+   * @param transactions the transactions that are being stored.
+   */
+  public void add(final String iban, final Collection<TransactionDto> transactions) {
+    AccountSummaryDto.Builder summary = storage.findById(iban)
+      .map(AccountSummaryDto::builder)
+      .orElseGet(() -> AccountSummaryDto.builder(iban));
+    transactions.forEach(summary::add);
+    storage.save(summary.build());
+  }
+  
+  /**
+   * Computes again the summary of every account from its stored transactions, one account at a time while the
+   * {@link LedgerService} owns it and its shards, so the transactions saved during the rebuild are not lost. The
+   * summaries of the shards are joined into the one of the account. Used to build the summaries of the transactions
+   * stored before they existed.
+   *
+   * @return the number of rebuilt accounts.
+   */
+  public int rebuild() {
+    int rebuilt = 0;
+    for (AccountDto account : accountService.findAll()) {
+      String iban = account.getIban();
+      ledgerService.executeAll(hotAccountService.allKeys(iban), () -> {
+        storage.deleteAll(storage.findByIbanStartingWith(AccountShardDto.prefix(iban)));
+        return storage.save(transactionStorage.computeSummary(iban)
+          .orElseGet(() -> AccountSummaryDto.builder(iban).build()));
+      });
+      rebuilt++;
+    }
+    return rebuilt;
+  }
+  
+  @EventListener(ApplicationReadyEvent.class)
+  void rebuildOnStartup() {
+    if (rebuildOnStartup) {
+      logger.info("The summaries of {} accounts were rebuilt", rebuild());
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.dao.AccountShardDAO;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountShardDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hot account service, that splits the balance of the accounts configured in bank.hot-accounts.ibans into
+ * bank.hot-accounts.shards sub-balances.
+ * <p>
+ * A credit to a hot account is added to one shard picked at random, owning only that shard, so the credits to the same
+ * account are written in parallel to different rows. A debit owns the account and all its shards: it checks the whole
+ * balance and takes the amount from the row of the account first and then from the shards, so no part of the balance
+ * goes below 0. The balance of an {@link com.codechallenge.bank.model.dto.AccountDto} always includes its shards.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class HotAccountService {
+  
+  @Autowired private AccountShardDAO dao;
+  
+  @Value("${bank.hot-accounts.ibans:}")
+  private String[] configuredIbans;
+  
+  @Value("${bank.hot-accounts.shards:8}")
+  private int shards;
+  
+  private Set<String> ibans;
+  
+  @PostConstruct
+  void init() {
+    if (shards < 1) {
+      throw new IllegalArgumentException("Invalid number of hot account shards: " + shards);
+    }
+    ibans = new HashSet<>();
+    Arrays.stream(configuredIbans)
+      .map(String::trim)
+      .filter(iban -> !iban.isEmpty())
+      .forEach(ibans::add);
+  }
+  
+  public boolean isHot(final String iban) {
+    return ibans.contains(iban);
+  }
+  
+  /**
+   * @return a random shard, its key ({@link AccountShardDto#key(String, int)}) has to be owned to credit it.
+   */
+  public int pickShard() {
+    return ThreadLocalRandom.current().nextInt(shards);
+  }
+  
+  /**
+   * @return the keys to be owned to change the whole balance of the account: its iban and, for a hot account, the keys
+   * of all its shards.
+   */
+  public List<String> allKeys(final String iban) {
+    if (!isHot(iban)) {
+      return Collections.singletonList(iban);
+    }
+    List<String> keys = new ArrayList<>(shards + 1);
+    keys.add(iban);
+    for (int shard = 0; shard < shards; shard++) {
+      keys.add(AccountShardDto.key(iban, shard));
+    }
+    return keys;
+  }
+  
+  /**
+   * Adds the given amount to the shard. It has to be called owning the shard.
+   *
+   * @param iban   the iban of the account.
+   * @param number the number of the shard, see {@link #pickShard()}.
+   * @param amount the positive amount to be added, in minor units.
+   */
+  public void credit(final String iban, final int number, final long amount) {
+    AccountShardDto shard = dao.findById(AccountShardDto.key(iban, number))
+      .orElseGet(() -> AccountShardDto.empty(iban, number));
+    dao.save(shard.withBalance(Math.addExact(shard.getBalance(), amount)));
+  }
+  
+  /**
+   * Finds how the given whole balance of the account is split: the row of the account keeps all it can and the part
+   * that it does not hold is taken from the shards, so no part of the balance goes below 0. It has to be called owning
+   * all the keys of the account ({@link #allKeys(String)}), after checking that the whole balance is not below 0.
+   *
+   * @param account the account as it was read, with the balance of its shards.
+   * @param balance the new whole balance of the account, in minor units.
+   * @return the balance left in the shards, to be written with the account.
+   */
+  public long shardBalanceAfter(final AccountDto account, final long balance) {
+    long rowBalance = balance - account.getShardBalance();
+    return rowBalance >= 0 ? account.getShardBalance() : withdraw(account.getIban(), -rowBalance);
+  }
+  
+  /**
+   * Takes the given amount from the shards of the account, in order, without leaving any of them below 0. It has to be
+   * called owning all the shards, after checking that they hold the amount.
+   *
+   * @param iban   the iban of the account.
+   * @param amount the positive amount to be taken, in minor units.
+   * @return the balance left in the shards.
+   */
+  public long withdraw(final String iban, final long amount) {
+    long pending = amount;
+    long left = 0;
+    for (AccountShardDto shard : dao.findByIbanOrderById(iban)) {
+      long taken = Math.min(pending, shard.getBalance());
+      long remaining = shard.getBalance() - taken;
+      if (taken > 0) {
+        dao.save(shard.withBalance(remaining));
+        pending -= taken;
+      }
+      left += remaining;
+    }
+    if (pending > 0) {
+      throw new IllegalStateException("The shards of the account " + iban + " do not hold " + amount);
+    }
+    return left;
+  }
+}
@@ -0,0 +1,157 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.util.ExpiringCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+
+/**
+ * Idempotency service that executes a request once per Idempotency-Key, so the clients can retry it safely.
+ * <p>
+ * The result of the first request with a key is kept in memory, up to bank.idempotency.maximum-size keys and during
+ * bank.idempotency.ttl-seconds. The requests with the same key that arrive while the first one is running wait for
+ * its result instead of executing it again, and the ones that arrive later get the kept result without executing
+ * anything. The client errors (4xx) are kept like the results, the rest of the failures free the key so the request
+ * can be retried. A conflict (409) is transient, the account was being updated concurrently, so it frees the key too.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class IdempotencyService {
+  
+  private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+  private static final int MAX_KEY_LENGTH = 255;
+  
+  @Autowired private MeterRegistry meterRegistry;
+  
+  @Value("${bank.idempotency.maximum-size:100000}")
+  private int maximumSize;
+  
+  @Value("${bank.idempotency.ttl-seconds:86400}")
+  private long ttlSeconds;
+  
+  private final Clock clock = Clock.systemDefaultZone();
+  private ExpiringCache<String, Execution> executions;
+  private Counter executedCounter;
+  private Counter replayedCounter;
+  private Counter conflictCounter;
+  
+  @PostConstruct
+  void init() {
+    executions = new ExpiringCache<>(maximumSize, clock);
+    executedCounter = meterRegistry.counter("bank.idempotency.requests", "result", "executed");
+    replayedCounter = meterRegistry.counter("bank.idempotency.requests", "result", "replayed");
+    conflictCounter = meterRegistry.counter("bank.idempotency.requests", "result", "conflict");
+    Gauge.builder("bank.idempotency.keys", executions, ExpiringCache::size)
+      .register(meterRegistry);
+  }
+  
+  /**
+   * Executes the given action once for the given key.
+   *
+   * @param key     the Idempotency-Key sent by the client, or null to execute the action without idempotency.
+   * @param request the values of the request that identify it, a key cannot be used with a different request.
+   * @param action  the action to be executed.
+   * @return the result of the action, executed now or by a previous request with the same key.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Result<T> execute(final String key, final Object request, final Supplier<T> action) {
+    if (key == null) {
+      return new Result<>(action.get(), false);
+    }
+    if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+      throw new ResponseStatusException(BAD_REQUEST, "The Idempotency-Key has to have between 1 and "
+        + MAX_KEY_LENGTH + " characters");
+    }
+    Execution execution = new Execution(request);
+    Execution previous = executions.putIfAbsent(key, execution, clock.instant().plusSeconds(ttlSeconds));
+    if (previous == null) {
+      executedCounter.increment();
+      return new Result<>((T) run(key, execution, action), false);
+    }
+    if (!previous.request.equals(request)) {
+      conflictCounter.increment();
+      throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "The Idempotency-Key " + key
+        + " was already used with a different request");
+    }
+    logger.info("Replaying the result of the Idempotency-Key {}", key);
+    replayedCounter.increment();
+    try {
+      return new Result<>((T) previous.result.join(), true);
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof Error) {
+        throw (Error) ex.getCause();
+      }
+      throw (RuntimeException) ex.getCause();
+    }
+  }
+  
+  private Object run(final String key, final Execution execution, final Supplier<?> action) {
+    try {
+      Object result = action.get();
+      execution.result.complete(result);
+      return result;
+    } catch (RuntimeException | Error ex) {
+      boolean replayable = ex instanceof ResponseStatusException
+        && ((ResponseStatusException) ex).getStatus().is4xxClientError()
+        && ((ResponseStatusException) ex).getStatus() != CONFLICT;
+      if (!replayable) {
+        executions.remove(key);
+      }
+      execution.result.completeExceptionally(ex);
+      throw ex;
+    }
+  }
+  
+  /**
+   * Result of an idempotent action.
+   */
+  public static class Result<T> {
+    
+    private final T value;
+    private final boolean replayed;
+    
+    Result(final T value, final boolean replayed) {
+      this.value = value;
+      this.replayed = replayed;
+    }
+    
+    public T getValue() {
+      return value;
+    }
+    
+    /**
+     * @return true when the value was produced by a previous request with the same key.
+     */
+    public boolean isReplayed() {
+      return replayed;
+    }
+  }
+    
+  private static class Execution {
+    
+    private final Object request;
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    
+    Execution(final Object request) {
+      this.request = request;
+    }
+  }
+}
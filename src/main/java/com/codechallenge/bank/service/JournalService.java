@@ -0,0 +1,301 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.dao.TransactionStorage;
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.util.TransactionJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Optional durability mode where the accepted transactions are appended to a {@link TransactionJournal} instead of
+ * being committed to the database one by one.
+ * <p>
+ * A transaction is accepted once its record is forced to disk, the concurrent writers share the same fsync. The
+ * balance of an account is read from the database while owning it, plus the amounts appended to the journal that
+ * are not drained yet, which are the only balances kept in memory. A background stage drains the journal into the
+ * account and transaction tables. The records that were not drained
+ * when the application stopped are replayed on the next start, before any new transaction is accepted.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class JournalService {
+
+  private static final Logger logger = LoggerFactory.getLogger(JournalService.class);
+  private static final String OVERFLOW_MESSAGE = "The balance account would overflow";
+  private static final String APPEND_FAILED_MESSAGE = "The transaction could not be appended to the journal";
+
+  @Autowired private AccountService accountService;
+  @Autowired private LedgerService ledgerService;
+  @Autowired private HotAccountService hotAccountService;
+  @Autowired private AccountSummaryService accountSummaryService;
+  @Autowired private TransactionStorage storage;
+  @Autowired private ReferenceFilter referenceFilter;
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${bank.journal.enabled:false}")
+  private boolean enabled;
+
+  @Value("${bank.journal.directory:journal}")
+  private String directory;
+
+  @Value("${bank.journal.segment-size:67108864}")
+  private int segmentSize;
+
+  @Value("${bank.journal.drain-batch-size:500}")
+  private int drainBatchSize;
+
+  @Value("${bank.journal.drain-interval-ms:50}")
+  private long drainInterval;
+
+  private TransactionJournal journal;
+  private ScheduledExecutorService drainer;
+  private long drainedPosition;
+  private final Map<String, Long> undrainedAmounts = new ConcurrentHashMap<>();
+  private final Set<String> pendingReferences = ConcurrentHashMap.newKeySet();
+  private Counter duplicateReferenceCounter;
+  private Counter negativeBalanceCounter;
+
+  @PostConstruct
+  void init() throws IOException {
+    if (!enabled) {
+      return;
+    }
+    duplicateReferenceCounter = meterRegistry.counter("bank.transaction.rejections", "reason", "duplicate_reference");
+    negativeBalanceCounter = meterRegistry.counter("bank.transaction.rejections", "reason", "negative_balance");
+    journal = new TransactionJournal(Paths.get(directory), segmentSize);
+    drainedPosition = journal.readCheckpoint();
+    int replayed = 0;
+    for (int drained = drain(); drained > 0; drained = drain()) {
+      replayed += drained;
+    }
+    logger.info("Transaction journal opened in {}, {} transactions replayed", directory, replayed);
+    drainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "journal-drainer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    drainer.scheduleWithFixedDelay(this::drainAvailable, drainInterval, drainInterval, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void close() throws IOException, InterruptedException {
+    if (!enabled) {
+      return;
+    }
+    drainer.shutdown();
+    drainer.awaitTermination(1, TimeUnit.MINUTES);
+    drainAvailable();
+    journal.close();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Appends the given transaction to the journal and waits until it is durable.
+   *
+   * @param transaction    the transaction to be saved, with its reference already assigned.
+   * @param referenceCheck the check that the reference is not already stored in the database.
+   * @return the saved transaction with the new balance of its account.
+   */
+  public TransactionDto save(final Transaction transaction, final Consumer<String> referenceCheck) {
+    Appended appended = append(transaction, referenceCheck);
+    awaitDurable(appended.position);
+    return TransactionDto.builder(transaction).account(appended.account).build();
+  }
+
+  /**
+   * Appends the given transactions to the journal, accepting or rejecting each one of them independently, and waits
+   * once until all the accepted ones are durable.
+   *
+   * @param transactions   the transactions to be saved, with their references already assigned.
+   * @param referenceCheck the check that the reference is not already stored in the database.
+   * @return the result of each transaction, in the same order as the given transactions.
+   */
+  public List<TransactionBatchResult> saveAll(final List<Transaction> transactions,
+                                              final Consumer<String> referenceCheck) {
+    List<TransactionBatchResult> results = new ArrayList<>(transactions.size());
+    long position = 0;
+    for (Transaction transaction : transactions) {
+      try {
+        position = Math.max(position, append(transaction, referenceCheck).position);
+        results.add(TransactionBatchResult.accepted(transaction.getReference(), transaction.getAccount()));
+      } catch (ResponseStatusException ex) {
+        results.add(TransactionBatchResult.rejected(transaction.getReference(), transaction.getAccount(),
+          ex.getReason()));
+      } catch (ArithmeticException ex) {
+        results.add(TransactionBatchResult.rejected(transaction.getReference(), transaction.getAccount(),
+          OVERFLOW_MESSAGE));
+      } catch (RuntimeException ex) {
+        logger.error("The transaction {} could not be appended to the journal", transaction.getReference(), ex);
+        results.add(TransactionBatchResult.failed(transaction.getReference(), transaction.getAccount(),
+          APPEND_FAILED_MESSAGE));
+      }
+    }
+    awaitDurable(position);
+    return results;
+  }
+
+  /**
+   * Claims the reference, so no other pending transaction can use it, and appends the transaction while the
+   * {@link LedgerService} owns the account, checking the stored balance plus the amounts that are not drained yet.
+   */
+  private Appended append(final Transaction transaction, final Consumer<String> referenceCheck) {
+    String reference = transaction.getReference();
+    if (!pendingReferences.add(reference)) {
+      duplicateReferenceCounter.increment();
+      throw new ResponseStatusException(BAD_REQUEST, "The transaction cannot be saved, the reference " + reference
+        + " was already used in other transaction");
+    }
+    try {
+      referenceCheck.accept(reference);
+      return ledgerService.executeLocked(transaction.getAccount(), () -> {
+        String iban = transaction.getAccount();
+        AccountDto account = accountService.findById(iban)
+          .orElseGet(() -> AccountDto.builder(iban).balance(0).build());
+        long undrained = undrainedAmounts.getOrDefault(iban, 0L);
+        long balance = Math.addExact(Math.addExact(account.getBalance(), undrained), transaction.getAmount());
+        if (balance < 0) {
+          negativeBalanceCounter.increment();
+          throw new ResponseStatusException(BAD_REQUEST, "The balance account could not be below 0");
+        }
+        try {
+          long position = journal.append(transaction);
+          undrainedAmounts.put(iban, undrained + transaction.getAmount());
+          return new Appended(AccountDto.builder(account).balance(balance).build(), position);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+    } catch (RuntimeException ex) {
+      pendingReferences.remove(reference);
+      throw ex;
+    }
+  }
+
+  private void awaitDurable(final long position) {
+    try {
+      journal.awaitDurable(position);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private void drainAvailable() {
+    try {
+      while (drain() > 0) {
+        logger.debug("Transaction journal drained up to {}", drainedPosition);
+      }
+    } catch (Exception ex) {
+      logger.error("The transaction journal could not be drained, it will be retried", ex);
+    }
+  }
+
+  /**
+   * Writes the next durable records to the database, one database transaction per account, and moves the checkpoint
+   * after them.
+   *
+   * @return the number of drained records.
+   */
+  int drain() throws IOException {
+    List<TransactionJournal.Entry> entries = journal.read(drainedPosition, drainBatchSize);
+    if (entries.isEmpty()) {
+      return 0;
+    }
+    entries.stream()
+      .map(TransactionJournal.Entry::getTransaction)
+      .collect(Collectors.groupingBy(Transaction::getAccount, LinkedHashMap::new, Collectors.toList()))
+      .forEach((iban, transactions) -> ledgerService.executeAll(hotAccountService.allKeys(iban), () ->
+        drainAccount(iban, transactions)));
+    drainedPosition = entries.get(entries.size() - 1).getEndPosition();
+    journal.checkpoint(drainedPosition);
+    entries.forEach(entry -> pendingReferences.remove(entry.getTransaction().getReference()));
+    return entries.size();
+  }
+
+  /**
+   * Adds the transactions to the stored balance and summary of the account. The transactions that are already stored, because
+   * they were drained right before the application stopped, are skipped, so replaying a record twice has no effect. A
+   * hot account is owned with all its shards, and the part of the balance that its row does not hold is taken from them.
+   * Once committed, the drained amounts appended by this instance are no longer counted as undrained, while the account
+   * is still owned, so the balance checked by the appends never counts them twice nor misses them.
+   */
+  private Void drainAccount(final String iban, final List<Transaction> transactions) {
+    Set<String> stored = new HashSet<>(storage.findReferencesIn(transactions.stream()
+      .map(Transaction::getReference)
+      .collect(Collectors.toList())));
+    List<Transaction> pending = transactions.stream()
+      .filter(transaction -> !stored.contains(transaction.getReference()))
+      .collect(Collectors.toList());
+    if (pending.isEmpty()) {
+      return null;
+    }
+    AccountDto account = accountService.findById(iban).orElseGet(() -> AccountDto.builder(iban).balance(0).build());
+    long balance = account.getBalance();
+    for (Transaction transaction : pending) {
+      balance = Math.addExact(balance, transaction.getAmount());
+    }
+    AccountDto savedAccount = accountService.save(AccountDto.builder(account)
+      .shardBalance(hotAccountService.shardBalanceAfter(account, balance))
+      .balance(balance)
+      .build());
+    List<TransactionDto> drained = pending.stream()
+      .map(transaction -> TransactionDto.builder(transaction).account(savedAccount).build())
+      .collect(Collectors.toList());
+    storage.persistAll(drained);
+    accountSummaryService.add(iban, drained);
+    long appendedAmount = pending.stream()
+      .filter(transaction -> pendingReferences.contains(transaction.getReference()))
+      .mapToLong(Transaction::getAmount)
+      .sum();
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        undrainedAmounts.computeIfPresent(iban, (key, amount) -> (amount == appendedAmount) ? null
+          : amount - appendedAmount);
+      }
+    });
+    pending.forEach(transaction -> referenceFilter.put(transaction.getReference()));
+    return null;
+  }
+
+  private static class Appended {
+
+    private final AccountDto account;
+    private final long position;
+
+    Appended(final AccountDto account, final long position) {
+      this.account = account;
+      this.position = position;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.codechallenge.bank.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Ledger engine that serializes the balance mutations of each account.
+ * <p>
+ * The accounts are spread over a fixed set of lock stripes using the hash of their iban, so two mutations over the
+ * same account are always executed one after the other, while the mutations over unrelated accounts can run in
+ * parallel on all the available cores. The lock is held until the database transaction is committed, so the next
+ * mutation of the same account always reads the last committed balance.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class LedgerService {
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Value("${bank.ledger.stripes:0}")
+  private int configuredStripes;
+
+  private ReentrantLock[] stripes;
+  private TransactionTemplate transactionTemplate;
+
+  @PostConstruct
+  void init() {
+    int size = stripeCount(configuredStripes);
+    stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+    transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+
+  /**
+   * Executes the given mutation inside a database transaction, owning the account exclusively until it is committed.
+   *
+   * @param iban     the iban of the {@link com.codechallenge.bank.model.dto.AccountDto} that is going to be mutated.
+   * @param mutation the work that reads and writes the account balance.
+   * @return the value returned by the mutation.
+   */
+  public <T> T execute(final String iban, final Supplier<T> mutation) {
+    return executeLocked(iban, () -> transactionTemplate.execute(status -> mutation.get()));
+  }
+
+  /**
+   * Executes the given work owning the account exclusively, without opening a database transaction.
+   *
+   * @param iban the iban of the {@link com.codechallenge.bank.model.dto.AccountDto} that is going to be mutated.
+   * @param work the work that reads and writes the account balance.
+   * @return the value returned by the work.
+   */
+  public <T> T executeLocked(final String iban, final Supplier<T> work) {
+    ReentrantLock lock = stripeFor(iban);
+    lock.lock();
+    try {
+      return work.get();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Executes the given mutation inside a database transaction, owning all the given keys exclusively until it is
+   * committed. The stripes are always locked in the same order, so two threads owning several keys never deadlock.
+   *
+   * @param keys     the ibans, or the keys of the shards of an account, that are going to be mutated.
+   * @param mutation the work that reads and writes the balances.
+   * @return the value returned by the mutation.
+   */
+  public <T> T executeAll(final Collection<String> keys, final Supplier<T> mutation) {
+    int[] indexes = keys.stream()
+      .mapToInt(key -> indexFor(key, stripes.length))
+      .distinct()
+      .sorted()
+      .toArray();
+    int locked = 0;
+    try {
+      for (; locked < indexes.length; locked++) {
+        stripes[indexes[locked]].lock();
+      }
+      return transactionTemplate.execute(status -> mutation.get());
+    } finally {
+      while (locked > 0) {
+        stripes[indexes[--locked]].unlock();
+      }
+    }
+  }
+
+  int getStripeCount() {
+    return stripes.length;
+  }
+
+  ReentrantLock stripeFor(final String iban) {
+    return stripes[indexFor(iban, stripes.length)];
+  }
+
+  /**
+   * Spreads the hash of the iban so the stripes are evenly used even when the ibans share a long common prefix.
+   */
+  static int indexFor(final String iban, final int stripeCount) {
+    int hash = (iban != null) ? iban.hashCode() : 0;
+    hash ^= (hash >>> 16);
+    hash *= 0x85ebca6b;
+    hash ^= (hash >>> 13);
+    return hash & (stripeCount - 1);
+  }
+
+  /**
+   * Rounds the configured number of stripes up to a power of two, by default four stripes per available core.
+   */
+  static int stripeCount(final int configured) {
+    int requested = Math.min((configured > 0) ? configured : Runtime.getRuntime().availableProcessors() * 4, 1 << 16);
+    int size = 1;
+    while (size < requested) {
+      size <<= 1;
+    }
+    return size;
+  }
+}
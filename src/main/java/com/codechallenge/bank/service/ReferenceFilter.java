@@ -0,0 +1,126 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.dao.TransactionStorage;
+import com.codechallenge.bank.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In memory filter with all the stored transaction references, used to skip the database lookup of the references
+ * that are definitely new.
+ * <p>
+ * The filter is warmed with the references from the database when the application is ready, until then every reference
+ * is reported as maybe present so the database is always checked.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class ReferenceFilter {
+  
+  private static final Logger logger = LoggerFactory.getLogger(ReferenceFilter.class);
+  
+  @Autowired private TransactionStorage storage;
+  @Autowired private MeterRegistry meterRegistry;
+  
+  @Value("${bank.reference-filter.expected-insertions:1000000}")
+  private long expectedInsertions;
+  
+  @Value("${bank.reference-filter.false-positive-rate:0.01}")
+  private double falsePositiveRate;
+  
+  private BloomFilter filter;
+  private volatile boolean warmed;
+  private final AtomicLong definitelyNew = new AtomicLong();
+  private final AtomicLong falsePositives = new AtomicLong();
+  private Counter maybePresentCounter;
+  private Counter definitelyNewCounter;
+  private Counter falsePositiveCounter;
+  
+  @PostConstruct
+  void init() {
+    filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    maybePresentCounter = meterRegistry.counter("bank.reference.filter.checks", "result", "maybe_present");
+    definitelyNewCounter = meterRegistry.counter("bank.reference.filter.checks", "result", "definitely_new");
+    falsePositiveCounter = meterRegistry.counter("bank.reference.filter.false.positives");
+    Gauge.builder("bank.reference.filter.expected.fpp", filter, BloomFilter::expectedFalsePositiveRate)
+      .description("False positive rate estimated from the bits set in the filter")
+      .register(meterRegistry);
+    Gauge.builder("bank.reference.filter.observed.fpp", this, ReferenceFilter::observedFalsePositiveRate)
+      .description("Fraction of the new references that the filter reported as maybe present")
+      .register(meterRegistry);
+    Gauge.builder("bank.reference.filter.memory", filter, BloomFilter::memoryBytes)
+      .baseUnit("bytes")
+      .register(meterRegistry);
+  }
+  
+  /**
+   * Adds all the stored references to the filter, reading them as a stream from the storage.
+   */
+  @Transactional(readOnly = true)
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    long start = System.currentTimeMillis();
+    AtomicLong count = new AtomicLong();
+    try (Stream<String> references = storage.streamAllReferences()) {
+      references.forEach(reference -> {
+        filter.put(reference);
+        count.incrementAndGet();
+      });
+    }
+    warmed = true;
+    logger.info("Reference filter warmed with {} references in {} ms, {} bytes used", count,
+      System.currentTimeMillis() - start, filter.memoryBytes());
+  }
+  
+  /**
+   * @param reference the transaction reference to be checked.
+   * @return false when the reference is definitely not stored, true when it has to be checked in the database.
+   */
+  public boolean mightContain(final String reference) {
+    if (warmed && !filter.mightContain(reference)) {
+      definitelyNew.incrementAndGet();
+      definitelyNewCounter.increment();
+      return false;
+    }
+    maybePresentCounter.increment();
+    return true;
+  }
+  
+  /**
+   * Adds a new stored reference to the filter.
+   *
+   * @param reference the reference of the stored transaction.
+   */
+  public void put(final String reference) {
+    filter.put(reference);
+  }
+  
+  /**
+   * Records that the filter reported a reference as maybe present but it was not found in the database.
+   */
+  public void recordFalsePositive() {
+    if (warmed) {
+      falsePositives.incrementAndGet();
+      falsePositiveCounter.increment();
+    }
+  }
+  
+  private double observedFalsePositiveRate() {
+    long negatives = falsePositives.get() + definitelyNew.get();
+    return (negatives == 0) ? 0 : (double) falsePositives.get() / negatives;
+  }
+}
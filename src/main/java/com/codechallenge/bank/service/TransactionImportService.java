@@ -0,0 +1,352 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.TransactionImportReport;
+import com.codechallenge.bank.util.CsvReader;
+import com.codechallenge.bank.util.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import of transactions from a CSV or NDJSON file, used to load the historical data that would take too long
+ * through the REST endpoints.
+ * <p>
+ * The file is read as a stream by one thread, and every row is handed to the worker of its account (chosen by the hash
+ * of the iban) through a bounded queue, so the memory used does not depend on the size of the file and the reader
+ * waits when the workers fall behind. Each account is handled by one worker only, in the order of the file, so the
+ * workers never compete for the same account. The workers save their rows in batches through
+ * {@link TransactionService#saveAll(List)}, with the same rules as the REST endpoints (duplicate reference, balance
+ * below 0) and inserting the accepted transactions in JDBC batches.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@Service
+public class TransactionImportService {
+  
+  private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+  private static final Transaction END = Transaction.builder().build();
+  
+  @Autowired private TransactionService transactionService;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private MeterRegistry meterRegistry;
+  
+  @Value("${bank.import.workers:0}")
+  private int workers;
+  
+  @Value("${bank.import.batch-size:1000}")
+  private int batchSize;
+  
+  @Value("${bank.import.queue-size:10000}")
+  private int queueSize;
+  
+  @Value("${bank.import.progress-interval-seconds:10}")
+  private long progressInterval;
+  
+  private Counter acceptedCounter;
+  private Counter rejectedCounter;
+  private Counter malformedCounter;
+  private Counter failedCounter;
+  
+  @PostConstruct
+  void init() {
+    acceptedCounter = meterRegistry.counter("bank.import.rows", "result", "accepted");
+    rejectedCounter = meterRegistry.counter("bank.import.rows", "result", "rejected");
+    malformedCounter = meterRegistry.counter("bank.import.rows", "result", "malformed");
+    failedCounter = meterRegistry.counter("bank.import.rows", "result", "failed");
+  }
+  
+  /**
+   * Format of the imported files.
+   */
+  public enum Format {
+    /**
+     * Comma separated values, with a header row naming the columns like the JSON fields of a {@link Transaction}:
+     * reference, account_iban, date, amount, fee and description.
+     */
+    CSV,
+    /**
+     * One JSON {@link Transaction} per line.
+     */
+    NDJSON;
+    
+    /**
+     * @return CSV for the files with the csv extension, NDJSON for the rest.
+     */
+    public static Format of(final Path file) {
+      return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+    }
+  }
+  
+  /**
+   * Imports the transactions of the given file.
+   *
+   * @param file   the file to be imported, in UTF-8.
+   * @param format the format of the file.
+   * @return the totals of the import.
+   * @throws IOException when the file cannot be read.
+   */
+  public TransactionImportReport importFile(final Path file, final Format format) throws IOException {
+    logger.info("Importing the transactions of {} as {}", file, format);
+    try (InputStream input = Files.newInputStream(file)) {
+      return importTransactions(input, format);
+    }
+  }
+  
+  /**
+   * Imports the transactions read from the given input.
+   *
+   * @param input  the transactions to be imported, in UTF-8.
+   * @param format the format of the input.
+   * @return the totals of the import.
+   * @throws IOException when the input cannot be read.
+   */
+  public TransactionImportReport importTransactions(final InputStream input, final Format format) throws IOException {
+    int workerCount = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+    Progress progress = new Progress();
+    List<BlockingQueue<Transaction>> queues = new ArrayList<>(workerCount);
+    AtomicInteger threadNumber = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(workerCount, runnable ->
+      new Thread(runnable, "import-worker-" + threadNumber.getAndIncrement()));
+    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "import-progress");
+      thread.setDaemon(true);
+      return thread;
+    });
+    reporter.scheduleAtFixedRate(() -> logProgress(progress), progressInterval, progressInterval, TimeUnit.SECONDS);
+    List<Future<?>> results = new ArrayList<>(workerCount);
+    try {
+      for (int i = 0; i < workerCount; i++) {
+        BlockingQueue<Transaction> queue = new ArrayBlockingQueue<>(queueSize);
+        queues.add(queue);
+        results.add(executor.submit(() -> work(queue, progress)));
+      }
+      BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+      RowConsumer partitioner = transaction -> queues.get(partition(transaction, workerCount)).put(transaction);
+      if (format == Format.CSV) {
+        readCsv(reader, progress, partitioner);
+      } else {
+        readNdjson(reader, progress, partitioner);
+      }
+      for (BlockingQueue<Transaction> queue : queues) {
+        queue.put(END);
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("The import was interrupted", ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("An import worker stopped", ex.getCause());
+    } finally {
+      executor.shutdownNow();
+      reporter.shutdownNow();
+    }
+    TransactionImportReport report = progress.report();
+    logger.info("Import finished: {} rows read, {} accepted, {} rejected, {} malformed, {} failed in {} ({} rows/s)",
+      report.getRead(), report.getAccepted(), report.getRejected(), report.getMalformed(), report.getFailed(),
+      report.getElapsed(), report.getRowsPerSecond());
+    return report;
+  }
+  
+  private void readCsv(final Reader input, final Progress progress, final RowConsumer consumer)
+    throws IOException, InterruptedException {
+    CsvReader reader = new CsvReader(input);
+    List<String> header = reader.next();
+    if (header == null) {
+      return;
+    }
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; i < header.size(); i++) {
+      columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    if (!columns.containsKey("account_iban") || !columns.containsKey("amount")) {
+      throw new IOException("The CSV header has to include the account_iban and amount columns: " + header);
+    }
+    for (List<String> fields = reader.next(); fields != null; fields = reader.next()) {
+      if (fields.size() == 1 && fields.get(0).isBlank()) {
+        continue;
+      }
+      progress.read.incrementAndGet();
+      Transaction transaction;
+      try {
+        transaction = parseCsv(columns, fields);
+      } catch (RuntimeException ex) {
+        malformed(progress, reader.getLine(), ex);
+        continue;
+      }
+      consumer.accept(transaction);
+    }
+  }
+  
+  private static Transaction parseCsv(final Map<String, Integer> columns, final List<String> fields) {
+    String date = field(columns, fields, "date");
+    String fee = field(columns, fields, "fee");
+    return Transaction.builder()
+      .reference(field(columns, fields, "reference"))
+      .account(field(columns, fields, "account_iban"))
+      .date(date != null ? LocalDateTime.from(DateTimeFormatter.ISO_DATE_TIME.parse(date)) : null)
+      .amount(Money.of(StringUtils.defaultString(field(columns, fields, "amount"))))
+      .fee(fee != null ? Money.of(fee) : 0)
+      .description(field(columns, fields, "description"))
+      .build();
+  }
+  
+  private static String field(final Map<String, Integer> columns, final List<String> fields, final String column) {
+    Integer index = columns.get(column);
+    return index == null || index >= fields.size() ? null : StringUtils.trimToNull(fields.get(index));
+  }
+  
+  private void readNdjson(final BufferedReader reader, final Progress progress, final RowConsumer consumer)
+    throws IOException, InterruptedException {
+    ObjectReader transactionReader = objectMapper.readerFor(Transaction.class);
+    long line = 0;
+    for (String row = reader.readLine(); row != null; row = reader.readLine()) {
+      line++;
+      if (row.isBlank()) {
+        continue;
+      }
+      progress.read.incrementAndGet();
+      Transaction transaction;
+      try {
+        transaction = transactionReader.readValue(row);
+      } catch (IOException | RuntimeException ex) {
+        malformed(progress, line, ex);
+        continue;
+      }
+      consumer.accept(transaction);
+    }
+  }
+  
+  private void malformed(final Progress progress, final long line, final Exception ex) {
+    progress.malformed.incrementAndGet();
+    malformedCounter.increment();
+    logger.debug("The row of line {} is not a valid transaction: {}", line, ex.getMessage());
+  }
+  
+  private static int partition(final Transaction transaction, final int workerCount) {
+    return transaction.getAccount() == null ? 0 : Math.floorMod(transaction.getAccount().hashCode(), workerCount);
+  }
+  
+  /**
+   * Saves the transactions of the given queue in batches until the end of the input.
+   */
+  private Void work(final BlockingQueue<Transaction> queue, final Progress progress) throws InterruptedException {
+    List<Transaction> batch = new ArrayList<>(batchSize);
+    boolean end = false;
+    while (!end) {
+      batch.add(queue.take());
+      queue.drainTo(batch, batchSize - 1);
+      if (batch.get(batch.size() - 1) == END) {
+        batch.remove(batch.size() - 1);
+        end = true;
+      }
+      if (!batch.isEmpty()) {
+        save(batch, progress);
+        batch.clear();
+      }
+    }
+    return null;
+  }
+  
+  /**
+   * Counts every transaction from its own result, as the accounts of a batch are committed one by one: the transactions
+   * of an account that could not be saved are failed results, while the other accounts of the batch stay committed.
+   */
+  private void save(final List<Transaction> batch, final Progress progress) {
+    try {
+      for (TransactionBatchResult result : transactionService.saveAll(batch)) {
+        if (result.isAccepted()) {
+          progress.accepted.incrementAndGet();
+          acceptedCounter.increment();
+        } else if (result.isFailed()) {
+          progress.failed.incrementAndGet();
+          failedCounter.increment();
+          logger.warn("The transaction {} of the account {} could not be saved: {}", result.getReference(),
+            result.getAccount(), result.getReason());
+        } else {
+          progress.rejected.incrementAndGet();
+          rejectedCounter.increment();
+          logger.debug("The transaction {} of the account {} was rejected: {}", result.getReference(),
+            result.getAccount(), result.getReason());
+        }
+      }
+    } catch (RuntimeException ex) {
+      progress.failed.addAndGet(batch.size());
+      failedCounter.increment(batch.size());
+      logger.warn("A batch of {} transactions could not be saved", batch.size(), ex);
+    }
+  }
+  
+  private static void logProgress(final Progress progress) {
+    TransactionImportReport report = progress.report();
+    logger.info("Import progress: {} rows read, {} accepted, {} rejected, {} malformed, {} failed ({} rows/s)",
+      report.getRead(), report.getAccepted(), report.getRejected(), report.getMalformed(), report.getFailed(),
+      report.getRowsPerSecond());
+  }
+  
+  @FunctionalInterface
+  private interface RowConsumer {
+    
+    void accept(Transaction transaction) throws InterruptedException;
+  }
+  
+  private static class Progress {
+    
+    private final long start = System.nanoTime();
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    
+    TransactionImportReport report() {
+      return TransactionImportReport.builder()
+        .read(read.get())
+        .accepted(accepted.get())
+        .rejected(rejected.get())
+        .malformed(malformed.get())
+        .failed(failed.get())
+        .elapsed(Duration.ofNanos(System.nanoTime() - start))
+        .build();
+    }
+  }
+}
@@ -1,24 +1,42 @@
 package com.codechallenge.bank.service;
 
-import com.codechallenge.bank.dao.TransactionDAO;
+import com.codechallenge.bank.dao.TransactionStorage;
 import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.AccountTransactions;
 import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
 import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountShardDto;
 import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
 import com.codechallenge.bank.util.TransactionReferenceGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
-import javax.transaction.Transactional;
-import java.util.List;
-import java.util.Optional;
+import javax.annotation.PostConstruct;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
 
 /**
  * Transaction service with the business logic implementation
@@ -30,12 +48,77 @@ import static org.springframework.http.HttpStatus.BAD_REQUEST;
 public class TransactionService {
   
   private static final Logger logger = LoggerFactory.getLogger(TransactionService.class);
+  private static final String NEGATIVE_BALANCE_MESSAGE = "The balance account could not be below 0";
+  private static final String OVERFLOW_MESSAGE = "The balance account would overflow";
+  private static final String ACCOUNT_FAILED_MESSAGE = "The transactions of the account could not be saved";
+  private static final int IN_CHUNK_SIZE = 1000;
   
   @Autowired
   private AccountService accountService;
   
   @Autowired
-  private TransactionDAO dao;
+  private LedgerService ledgerService;
+  
+  @Autowired
+  private AccountSummaryService accountSummaryService;
+  
+  @Autowired
+  private HotAccountService hotAccountService;
+  
+  @Autowired
+  private TransactionStorage storage;
+  
+  @Autowired
+  private ReferenceFilter referenceFilter;
+  
+  @Autowired
+  private JournalService journalService;
+  
+  @Autowired
+  private Validator validator;
+  
+  @Autowired
+  private MeterRegistry meterRegistry;
+  
+  @Value("${bank.account.retry.max-attempts:5}")
+  private int retryMaxAttempts;
+  
+  @Value("${bank.account.retry.initial-backoff-ms:5}")
+  private long retryInitialBackoff;
+  
+  @Value("${bank.account.retry.max-backoff-ms:100}")
+  private long retryMaxBackoff;
+  
+  private Timer duplicateCheckTimer;
+  private Timer accountReadTimer;
+  private Timer accountWriteTimer;
+  private Timer insertTimer;
+  private Timer summaryWriteTimer;
+  private Counter duplicateReferenceCounter;
+  private Counter negativeBalanceCounter;
+  private Counter conflictCounter;
+  private Counter retryCounter;
+  
+  @PostConstruct
+  void init() {
+    duplicateCheckTimer = stepTimer("duplicate_check");
+    accountReadTimer = stepTimer("account_read");
+    accountWriteTimer = stepTimer("account_write");
+    insertTimer = stepTimer("insert");
+    summaryWriteTimer = stepTimer("summary_write");
+    duplicateReferenceCounter = meterRegistry.counter("bank.transaction.rejections", "reason", "duplicate_reference");
+    negativeBalanceCounter = meterRegistry.counter("bank.transaction.rejections", "reason", "negative_balance");
+    conflictCounter = meterRegistry.counter("bank.account.update.conflicts");
+    retryCounter = meterRegistry.counter("bank.account.update.retries");
+  }
+  
+  private Timer stepTimer(final String step) {
+    return Timer.builder("bank.transaction.save")
+      .description("Time spent in each step of saving a transaction")
+      .tag("step", step)
+      .publishPercentileHistogram()
+      .register(meterRegistry);
+  }
   
   /**
    * Finds a {@link Transaction} using the given reference (identifier)
@@ -44,11 +127,72 @@ public class TransactionService {
    * @return an {@link Optional} with the transaction if the reference is already in the database, otherwise it will be empty.
    */
   public Optional<TransactionDto> findById(final String reference) {
-    return dao.findById(reference);
+    return storage.findById(reference);
   }
   
   public List<TransactionDto> findAll() {
-    return dao.findAll();
+    return storage.findAll();
+  }
+  
+  /**
+   * Finds the fields used by the status rules of a transaction, without loading its account.
+   *
+   * @param reference the key of the {@link TransactionDto}
+   * @return an {@link Optional} with the status view if the reference is already in the database, otherwise empty.
+   */
+  public Optional<TransactionStatusView> findStatusView(final String reference) {
+    return storage.findStatusViewById(reference);
+  }
+  
+  /**
+   * Finds the fields used by the status rules of the transactions with the given references, using one IN query for
+   * every chunk of references.
+   *
+   * @param references the keys of the {@link TransactionDto}s.
+   * @return the status views of the transactions that are stored, in no particular order.
+   */
+  public List<TransactionStatusView> findStatusViews(final Collection<String> references) {
+    List<String> pending = new ArrayList<>(references);
+    List<TransactionStatusView> transactions = new ArrayList<>(pending.size());
+    for (int from = 0; from < pending.size(); from += IN_CHUNK_SIZE) {
+      List<String> chunk = pending.subList(from, Math.min(from + IN_CHUNK_SIZE, pending.size()));
+      transactions.addAll(storage.findStatusViewsByIdIn(chunk));
+    }
+    return transactions;
+  }
+  
+  /**
+   * Finds one page of transactions ordered by reference, starting right after the given reference (keyset pagination),
+   * so every page costs the same no matter how many transactions are stored before it.
+   *
+   * @param after the reference of the last transaction from the previous page, or null to get the first page.
+   * @param limit the maximum number of transactions of the page.
+   * @return the transactions of the page.
+   */
+  public List<TransactionDto> findPage(final String after, final int limit) {
+    return storage.findPage(StringUtils.isEmpty(after) ? null : after, limit);
+  }
+  
+  /**
+   * Finds the lean representation of the transactions ordered by reference, starting right after the given reference,
+   * without loading their accounts.
+   *
+   * @param after the reference of the last transaction from the previous page, or null to start from the first one.
+   * @param limit the maximum number of transactions.
+   * @return the lean transactions.
+   */
+  public List<TransactionItem> findItems(final String after, final int limit) {
+    return storage.findItems(StringUtils.isEmpty(after) ? null : after, limit);
+  }
+  
+  /**
+   * Performs the given action for every stored transaction, ordered by reference, reading them in chunks so the memory
+   * used stays flat.
+   *
+   * @param action the action to be performed for each transaction.
+   */
+  public void forEach(final Consumer<TransactionDto> action) {
+    storage.forEach(action);
   }
   
   public List<TransactionDto> findAll(final String iban, final String sortType) {
@@ -56,31 +200,275 @@ public class TransactionService {
     return Optional.ofNullable(sortType)
       .filter(st -> "asc".equalsIgnoreCase(st) || "desc".equalsIgnoreCase(st))
       .map(st -> Sort.by(Sort.Direction.fromString(st), "amount"))
-      .map(st -> dao.findByAccount(account, st))
-      .orElse(dao.findByAccount(account));
+      .map(st -> storage.findByAccount(account, st))
+      .orElse(storage.findByAccount(account));
   }
   
   /**
-   * Saves the given {@link Transaction} to the database
+   * Finds the transactions of an account sorted and paginated following the given {@link TransactionQuery}.
    *
-   * @param transaction the one to be saved.
-   */
-  @Transactional
-  public TransactionDto save(final Transaction transaction) {
-    checkIsNewTransaction(transaction.getReference());
-    return Optional.of(saveAccount(transaction.getAccount(), transaction.getAmount()))
-      .map(account -> buildTransaction(account, transaction))
-      .map(dao::save)
-      .get();
+   * @param iban  the iban of the {@link AccountDto} owner of the transactions.
+   * @param query how the transactions have to be sorted and paginated.
+   * @return the transactions of the account that fulfill the query.
+   */
+  public List<TransactionDto> findByAccount(final String iban, final TransactionQuery query) {
+    AccountDto account = accountService.findById(iban).orElseThrow(() -> new DataNotFoundException("transactions", iban));
+    return storage.findByAccount(account, query);
   }
   
-  private AccountDto saveAccount(final String iban, final double transactionAmount) {
+  /**
+   * Finds the lean representation of the transactions of an account, sorted and paginated following the given
+   * {@link TransactionQuery}, with the account read only once.
+   *
+   * @param iban  the iban of the {@link AccountDto} owner of the transactions.
+   * @param query how the transactions have to be sorted and paginated.
+   * @return the account with its transactions that fulfill the query.
+   */
+  public AccountTransactions findItemsByAccount(final String iban, final TransactionQuery query) {
+    AccountDto account = accountService.findById(iban).orElseThrow(() -> new DataNotFoundException("transactions", iban));
+    return new AccountTransactions(account, storage.findItemsByAccount(account, query));
+  }
+  
+  /**
+   * Saves the given {@link Transaction} to the database.
+   * <p>
+   * The balance of the account is read, checked and written while the {@link LedgerService} owns the account, so the
+   * concurrent transactions over the same account never lose an update. The summary of the account is updated in the
+   * same database transaction. The account is versioned, when other instance sharing the database updated it in the
+   * meantime the whole save is retried, reading and checking the balance again. When the {@link JournalService} is
+   * enabled the transaction is appended to the journal instead, and it is written to the database later.
+   * <p>
+   * A credit to a hot account (see {@link HotAccountService}) only owns one of its shards, so the credits to the same
+   * account do not wait for each other, while a debit owns the account and all its shards.
+   *
+   * @param request the one to be saved.
+   */
+  public TransactionDto save(final Transaction request) {
+    Transaction transaction = Transaction.builder(request)
+      .reference(getTransactionReference(request.getReference()))
+      .build();
+    if (journalService.isEnabled()) {
+      return journalService.save(transaction, this::checkIsNewTransaction);
+    }
+    String iban = transaction.getAccount();
+    if (!hotAccountService.isHot(iban)) {
+      return retryOnConflict(iban, () -> ledgerService.execute(iban, () -> saveInLedger(transaction)));
+    }
+    if (transaction.getAmount() >= 0) {
+      int shard = hotAccountService.pickShard();
+      return retryOnConflict(iban, () -> ledgerService.execute(AccountShardDto.key(iban, shard), () ->
+        creditShard(transaction, shard)));
+    }
+    return retryOnConflict(iban, () -> ledgerService.executeAll(hotAccountService.allKeys(iban), () ->
+      debitHotAccount(transaction)));
+  }
+  
+  private TransactionDto saveInLedger(final Transaction transaction) {
+    duplicateCheckTimer.record(() -> checkIsNewTransaction(transaction.getReference()));
+    AccountDto account = accountReadTimer.record(() -> findAccountOrDefault(transaction.getAccount()));
+    AccountDto updatedAccount = AccountDto.builder(account)
+      .balance(getNewBalance(account, transaction.getAmount()))
+      .build();
+    AccountDto savedAccount = accountWriteTimer.record(() -> accountService.save(updatedAccount));
+    TransactionDto savedTransaction = insertTimer.record(() ->
+      saveTransaction(buildTransaction(savedAccount, transaction)));
+    summaryWriteTimer.record(() -> accountSummaryService.add(savedAccount.getIban(),
+      Collections.singletonList(savedTransaction)));
+    return savedTransaction;
+  }
+  
+  /**
+   * Adds a credit to one shard of a hot account, leaving the row of the account untouched. The first credit to an
+   * account that is not stored yet creates it, when other credit creates it at the same time the attempt is retried.
+   */
+  private TransactionDto creditShard(final Transaction transaction, final int shard) {
+    String iban = transaction.getAccount();
+    duplicateCheckTimer.record(() -> checkIsNewTransaction(transaction.getReference()));
+    AccountDto account = accountReadTimer.record(() -> accountService.findById(iban)
+      .orElseGet(() -> accountService.save(AccountDto.builder(iban).balance(0).build())));
+    checkOverflow(account.getBalance(), transaction.getAmount());
+    accountWriteTimer.record(() -> hotAccountService.credit(iban, shard, transaction.getAmount()));
+    TransactionDto savedTransaction = insertTimer.record(() ->
+      saveTransaction(buildTransaction(account, transaction)));
+    summaryWriteTimer.record(() -> accountSummaryService.add(AccountShardDto.key(iban, shard),
+      Collections.singletonList(savedTransaction)));
+    return TransactionDto.builder(savedTransaction)
+      .account(AccountDto.builder(account)
+        .balance(account.getBalance() + transaction.getAmount())
+        .shardBalance(account.getShardBalance() + transaction.getAmount())
+        .build())
+      .build();
+  }
+  
+  /**
+   * Takes a debit from a hot account while owning the account and all its shards: the whole balance is checked, and
+   * the amount is taken from the row of the account first and then from the shards, leaving none of them below 0.
+   */
+  private TransactionDto debitHotAccount(final Transaction transaction) {
+    duplicateCheckTimer.record(() -> checkIsNewTransaction(transaction.getReference()));
+    AccountDto account = accountReadTimer.record(() -> findAccountOrDefault(transaction.getAccount()));
+    long balance = getNewBalance(account, transaction.getAmount());
+    long shardBalance = accountWriteTimer.record(() -> hotAccountService.shardBalanceAfter(account, balance));
+    AccountDto savedAccount = accountWriteTimer.record(() -> accountService.save(AccountDto.builder(account)
+      .shardBalance(shardBalance)
+      .balance(balance)
+      .build()));
+    TransactionDto savedTransaction = insertTimer.record(() ->
+      saveTransaction(buildTransaction(savedAccount, transaction)));
+    summaryWriteTimer.record(() -> accountSummaryService.add(savedAccount.getIban(),
+      Collections.singletonList(savedTransaction)));
+    return TransactionDto.builder(savedTransaction)
+      .account(AccountDto.builder(savedAccount)
+        .shardBalance(shardBalance)
+        .balance(balance)
+        .build())
+      .build();
+  }
+  
+  /**
+   * Saves the given batch of {@link Transaction}s, accepting or rejecting each one of them independently.
+   * <p>
+   * The transactions are grouped by account, so each account is read once, its balance is folded over all its
+   * transactions in the given order and it is written once, while the accepted transactions are inserted using JDBC
+   * batches. A transaction that is not valid, that uses an already stored reference or that leaves the balance below 0
+   * or over the maximum is rejected without affecting the rest of the batch. Each account is committed on its own, so
+   * when an account cannot be saved all its transactions are failed results, while the other accounts keep theirs.
+   *
+   * @param transactions the ones to be saved, in the order they have to be applied.
+   * @return the result of each transaction, in the same order as the given transactions.
+   */
+  public List<TransactionBatchResult> saveAll(final List<Transaction> transactions) {
+    TransactionBatchResult[] results = new TransactionBatchResult[transactions.size()];
+    List<Transaction> referenced = new ArrayList<>(transactions.size());
+    Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+    Set<String> batchReferences = new HashSet<>();
+    for (int index = 0; index < transactions.size(); index++) {
+      Transaction transaction = Transaction.builder(transactions.get(index))
+        .reference(getTransactionReference(transactions.get(index).getReference()))
+        .build();
+      referenced.add(transaction);
+      Set<ConstraintViolation<Transaction>> violations = validator.validate(transaction);
+      if (!violations.isEmpty()) {
+        results[index] = TransactionBatchResult.rejected(transaction.getReference(), transaction.getAccount(),
+          violations.iterator().next().getMessage());
+      } else if (!batchReferences.add(transaction.getReference())) {
+        duplicateReferenceCounter.increment();
+        results[index] = TransactionBatchResult.rejected(transaction.getReference(), transaction.getAccount(),
+          getUsedReferenceMessage(transaction.getReference()));
+      } else {
+        indexesByAccount.computeIfAbsent(transaction.getAccount(), iban -> new ArrayList<>()).add(index);
+      }
+    }
+    if (journalService.isEnabled()) {
+      List<Integer> indexes = indexesByAccount.values().stream()
+        .flatMap(List::stream)
+        .collect(Collectors.toList());
+      List<TransactionBatchResult> journaled = journalService.saveAll(indexes.stream()
+        .map(referenced::get)
+        .collect(Collectors.toList()), this::checkIsNewTransaction);
+      for (int i = 0; i < indexes.size(); i++) {
+        results[indexes.get(i)] = journaled.get(i);
+      }
+      return Arrays.asList(results);
+    }
+    indexesByAccount.forEach((iban, indexes) -> {
+      try {
+        retryOnConflict(iban, () -> ledgerService.executeAll(hotAccountService.allKeys(iban), () ->
+          saveAccountBatch(iban, indexes, referenced)))
+          .forEach((index, result) -> results[index] = result);
+      } catch (RuntimeException ex) {
+        logger.error("The batch transactions of the account {} could not be saved", iban, ex);
+        String reason = (ex instanceof ResponseStatusException) ? ((ResponseStatusException) ex).getReason()
+          : ACCOUNT_FAILED_MESSAGE;
+        indexes.forEach(index -> results[index] = TransactionBatchResult.failed(
+          referenced.get(index).getReference(), iban, reason));
+      }
+    });
+    return Arrays.asList(results);
+  }
+  
+  /**
+   * Folds the balance of one account over its transactions from the batch, writing the account and the accepted
+   * transactions once at the end. A hot account is owned with all its shards, so the part of the balance that its row
+   * does not hold is taken from the shards.
+   */
+  private Map<Integer, TransactionBatchResult> saveAccountBatch(final String iban, final List<Integer> indexes,
+                                                                final List<Transaction> transactions) {
+    List<String> referencesToCheck = indexes.stream()
+      .map(index -> transactions.get(index).getReference())
+      .filter(referenceFilter::mightContain)
+      .collect(Collectors.toList());
+    Set<String> usedReferences = referencesToCheck.isEmpty()
+      ? Collections.emptySet() : new HashSet<>(storage.findReferencesIn(referencesToCheck));
     AccountDto account = findAccountOrDefault(iban);
-    return Optional.of(account)
-      .map(a -> getNewBalance(a, transactionAmount))
-      .map(balance -> AccountDto.builder(account).balance(balance).build())
-      .map(accountService::save)
-      .get();
+    long balance = account.getBalance();
+    Map<Integer, TransactionBatchResult> results = new HashMap<>();
+    List<Transaction> accepted = new ArrayList<>(indexes.size());
+    for (int index : indexes) {
+      Transaction transaction = transactions.get(index);
+      long amount = transaction.getAmount();
+      if (usedReferences.contains(transaction.getReference())) {
+        duplicateReferenceCounter.increment();
+        results.put(index, TransactionBatchResult.rejected(transaction.getReference(), iban,
+          getUsedReferenceMessage(transaction.getReference())));
+      } else if (amount > 0 && balance > Long.MAX_VALUE - amount) {
+        results.put(index, TransactionBatchResult.rejected(transaction.getReference(), iban, OVERFLOW_MESSAGE));
+      } else if (balance + amount < 0) {
+        negativeBalanceCounter.increment();
+        results.put(index, TransactionBatchResult.rejected(transaction.getReference(), iban, NEGATIVE_BALANCE_MESSAGE));
+      } else {
+        balance += amount;
+        accepted.add(transaction);
+        results.put(index, TransactionBatchResult.accepted(transaction.getReference(), iban));
+      }
+    }
+    if (!accepted.isEmpty()) {
+      AccountDto savedAccount = accountService.save(AccountDto.builder(account)
+        .shardBalance(hotAccountService.shardBalanceAfter(account, balance))
+        .balance(balance)
+        .build());
+      List<TransactionDto> acceptedTransactions = accepted.stream()
+        .map(transaction -> buildTransaction(savedAccount, transaction))
+        .collect(Collectors.toList());
+      storage.persistAll(acceptedTransactions);
+      accountSummaryService.add(iban, acceptedTransactions);
+      accepted.forEach(transaction -> referenceFilter.put(transaction.getReference()));
+    }
+    return results;
+  }
+  
+  /**
+   * Executes the given mutation, that owns the account through the {@link LedgerService}, executing it again when the
+   * account or a new reference was written by other instance sharing the database before the commit. The attempts
+   * wait an exponential backoff with jitter, without owning the account.
+   */
+  private <T> T retryOnConflict(final String iban, final Supplier<T> mutation) {
+    long backoff = retryInitialBackoff;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return mutation.get();
+      } catch (OptimisticLockingFailureException | DataIntegrityViolationException ex) {
+        conflictCounter.increment();
+        if (attempt >= retryMaxAttempts) {
+          logger.warn("The account {} could not be updated after {} attempts", iban, attempt, ex);
+          throw new ResponseStatusException(CONFLICT, "The account " + iban
+            + " is being updated concurrently, the transaction was not saved", ex);
+        }
+        retryCounter.increment();
+        logger.debug("Conflict updating the account {}, attempt {} of {}", iban, attempt, retryMaxAttempts);
+        sleep(ThreadLocalRandom.current().nextLong(backoff + 1));
+        backoff = Math.min(backoff * 2, retryMaxBackoff);
+      }
+    }
+  }
+  
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ResponseStatusException(CONFLICT, "Interrupted while retrying the transaction", ex);
+    }
   }
   
   private AccountDto findAccountOrDefault(final String iban) {
@@ -96,33 +484,90 @@ public class TransactionService {
       .build();
   }
   
-  private String getTransactionReference(String reference) {
-    return StringUtils.isEmpty(reference) ? TransactionReferenceGenerator.generate() : reference;
+  /**
+   * Inserts the transaction without reading it first. A reference rejected by the storage was stored by other instance
+   * sharing the database, so it is added to the {@link ReferenceFilter} and the retried attempt rejects it as used.
+   */
+  private TransactionDto saveTransaction(final TransactionDto transaction) {
+    TransactionDto savedTransaction;
+    try {
+      savedTransaction = storage.save(transaction);
+    } catch (DataIntegrityViolationException ex) {
+      referenceFilter.put(transaction.getReference());
+      throw ex;
+    }
+    referenceFilter.put(transaction.getReference());
+    return savedTransaction;
   }
   
   /**
-   * Checks if the given reference is not stored in the database
+   * @return the given reference, or a new generated one. A generated reference that is already stored, that can only
+   * happen when the generator of other run of this node issued it, is replaced by other one instead of being rejected.
+   */
+  private String getTransactionReference(final String reference) {
+    if (!StringUtils.isEmpty(reference)) {
+      return reference;
+    }
+    String generated = TransactionReferenceGenerator.generate();
+    while (referenceFilter.mightContain(generated)) {
+      if (!storage.existsById(generated)) {
+        referenceFilter.recordFalsePositive();
+        break;
+      }
+      logger.warn("The generated reference {} is already stored, other one is generated", generated);
+      generated = TransactionReferenceGenerator.generate();
+    }
+    return generated;
+  }
+  
+  /**
+   * Checks if the given reference is not stored in the database, the database is only queried when the
+   * {@link ReferenceFilter} cannot ensure that the reference is new.
    *
    * @param reference the transaction's reference to be checked.
    */
   private void checkIsNewTransaction(String reference) {
     Optional.ofNullable(reference)
-      .flatMap(dao::findById)
-      .ifPresent(t -> {
-        throw new ResponseStatusException(BAD_REQUEST, "The transaction cannot be saved, the reference "
-          + reference + " was already used in other transaction");
+      .filter(referenceFilter::mightContain)
+      .ifPresent(r -> {
+        if (!storage.existsById(r)) {
+          referenceFilter.recordFalsePositive();
+          return;
+        }
+        duplicateReferenceCounter.increment();
+        throw new ResponseStatusException(BAD_REQUEST, getUsedReferenceMessage(reference));
       });
   }
   
+  private String getUsedReferenceMessage(final String reference) {
+    return "The transaction cannot be saved, the reference " + reference + " was already used in other transaction";
+  }
+  
   /**
    * Get the account balance after apply the new transaction amount.
    *
    * @param account           The {@link AccountDto} that has to be checked.
-   * @param transactionAmount The new transaction amount that is going to be saved.
+   * @param transactionAmount The new transaction amount that is going to be saved, in minor units.
    */
-  private double getNewBalance(final AccountDto account, final double transactionAmount) {
-    return Optional.of(account)
-      .map(a -> a.getBalance() + transactionAmount)
-      .get();
+  private long getNewBalance(final AccountDto account, final long transactionAmount) {
+    checkOverflow(account.getBalance(), transactionAmount);
+    long balance = account.getBalance() + transactionAmount;
+    if (balance < 0) {
+      negativeBalanceCounter.increment();
+      throw new ResponseStatusException(BAD_REQUEST, NEGATIVE_BALANCE_MESSAGE);
+    }
+    return balance;
+  }
+  
+  /**
+   * Checks that the given amount can be added to the balance, as the batches do, so the overflow is a client error.
+   *
+   * @param balance the account balance, in minor units.
+   * @param amount  the new transaction amount that is going to be saved, in minor units.
+   */
+  private void checkOverflow(final long balance, final long amount) {
+    if (amount > 0 && balance > Long.MAX_VALUE - amount) {
+      throw new ResponseStatusException(BAD_REQUEST, OVERFLOW_MESSAGE);
+    }
   }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.model.Channel;
+import com.codechallenge.bank.model.Status;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import com.codechallenge.bank.util.Money;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+import static com.codechallenge.bank.model.Status.*;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Precompiled table with the rules used to build a {@link com.codechallenge.bank.model.TransactionStatus}, indexed by
+ * the relation between the transaction date and the current date and by the {@link Channel}.
+ * <p>
+ * For the status field:
+ * - When the transaction date is before the current date the {@link Status} should be: SETTLED.
+ * - When the transaction date is equal to the current date the {@link Status} should be: PENDING
+ * - When the transaction date is after the current date the {@link Status} should be: FUTURE, or PENDING for the ATM
+ * <p>
+ * For the amount:
+ * - When the {@link Channel} is ATM or CLIENT, the amount should be the amount subtracting the fee
+ * - When the {@link Channel} is INTERNAL, the amount should be the transaction amount
+ * <p>
+ * For the fee:
+ * - When the {@link Channel} is ATM or CLIENT, the fee should not be shown ({@link Money#NONE})
+ * - When the {@link Channel} is INTERNAL, the fee should be the transaction fee
+ * <p>
+ * The rules are built once and the amounts are {@link Money} minor units, so finding and applying a rule does not
+ * allocate nor box.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public final class TransactionStatusRules {
+
+  private static final int PAST = 0;
+  private static final int TODAY = 1;
+  private static final int FUTURE_DATE = 2;
+
+  private static final Rule[][] RULES = new Rule[3][Channel.values().length];
+
+  static {
+    for (Channel channel : Channel.values()) {
+      boolean internal = channel == Channel.INTERNAL;
+      RULES[PAST][channel.ordinal()] = new Rule(SETTLED, internal);
+      RULES[TODAY][channel.ordinal()] = new Rule(PENDING, internal);
+      RULES[FUTURE_DATE][channel.ordinal()] = new Rule(channel == Channel.ATM ? PENDING : FUTURE, internal);
+    }
+  }
+
+  private TransactionStatusRules() {
+    super();
+  }
+
+  /**
+   * Finds the rule for the given transaction date.
+   *
+   * @param transactionDate the date of the transaction.
+   * @param today           the current date, captured once per request.
+   * @param channel         the type of {@link Channel} that is asking for the status.
+   * @return the rule to be applied.
+   */
+  public static Rule find(final LocalDate transactionDate, final LocalDate today, final Channel channel) {
+    if (channel == null) {
+      throw new ResponseStatusException(BAD_REQUEST, "Please provide a channel for the given reference");
+    }
+    int comparison = transactionDate.compareTo(today);
+    int dateRelation = (comparison < 0) ? PAST : (comparison == 0) ? TODAY : FUTURE_DATE;
+    return RULES[dateRelation][channel.ordinal()];
+  }
+
+  public static final class Rule {
+
+    private final Status status;
+    private final boolean internal;
+
+    private Rule(final Status status, final boolean internal) {
+      this.status = status;
+      this.internal = internal;
+    }
+
+    public Status getStatus() {
+      return status;
+    }
+
+    /**
+     * @return the transaction amount for the internal channel, otherwise the amount after subtracting the fee.
+     */
+    public long amount(final TransactionStatusView transaction) {
+      long amount = transaction.getAmount();
+      if (internal) {
+        return amount;
+      }
+      return (amount < 0) ? amount + transaction.getFee() : amount - transaction.getFee();
+    }
+
+    /**
+     * @return the transaction fee for the internal channel, otherwise {@link Money#NONE}.
+     */
+    public long fee(final TransactionStatusView transaction) {
+      return internal ? transaction.getFee() : Money.NONE;
+    }
+  }
+}
@@ -1,160 +1,216 @@
 package com.codechallenge.bank.service;
 
 import com.codechallenge.bank.model.*;
-import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import com.codechallenge.bank.util.ExpiringCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.function.Predicate;
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import static com.codechallenge.bank.model.Channel.*;
 import static com.codechallenge.bank.model.Status.*;
-import static org.springframework.http.HttpStatus.BAD_REQUEST;
 
 @Service
 public class TransactionStatusService {
   
   private static final Logger logger = LoggerFactory.getLogger(TransactionStatusService.class);
   @Autowired private TransactionService transactionService;
+  @Autowired private MeterRegistry meterRegistry;
+  
+  @Value("${bank.status-cache.maximum-size:100000}")
+  private int cacheMaximumSize;
+  
+  private final Clock clock = Clock.systemDefaultZone();
+  private ExpiringCache<StatusKey, TransactionStatus> cache;
+  private Counter missingChannelCounter;
+  private Timer[][] statusTimers;
+  
+  @PostConstruct
+  void init() {
+    cache = new ExpiringCache<>(cacheMaximumSize, clock);
+    FunctionCounter.builder("bank.status.cache.requests", cache, ExpiringCache::getHits)
+      .tag("result", "hit")
+      .register(meterRegistry);
+    FunctionCounter.builder("bank.status.cache.requests", cache, ExpiringCache::getMisses)
+      .tag("result", "miss")
+      .register(meterRegistry);
+    Gauge.builder("bank.status.cache.hit.ratio", cache, ExpiringCache::hitRatio)
+      .description("Fraction of the status requests answered from the cache")
+      .register(meterRegistry);
+    Gauge.builder("bank.status.cache.size", cache, ExpiringCache::size)
+      .register(meterRegistry);
+    missingChannelCounter = meterRegistry.counter("bank.transaction.rejections", "reason", "missing_channel");
+    statusTimers = new Timer[Channel.values().length + 1][Status.values().length + 1];
+    for (int channel = 0; channel < statusTimers.length; channel++) {
+      for (int status = 0; status < statusTimers[channel].length; status++) {
+        statusTimers[channel][status] = Timer.builder("bank.transaction.status")
+          .description("Time spent finding the status of a transaction")
+          .tag("channel", (channel < Channel.values().length) ? Channel.values()[channel].name() : "NONE")
+          .tag("status", (status < Status.values().length) ? Status.values()[status].name() : "ERROR")
+          .publishPercentileHistogram()
+          .register(meterRegistry);
+      }
+    }
+  }
   
   /**
    * Finds the {@link TransactionStatus} for the reference from the {@link TransactionStatusRequester}
+   * <p>
+   * The status of a stored transaction only changes when the day changes, so it is cached until the next midnight,
+   * and forever once it is SETTLED. The INVALID status is not cached because the transaction can be stored later.
    *
    * @param requester The {@link TransactionStatusRequester} with the details to be checked to build the status.
    * @return A {@link TransactionStatus} with the details.
    */
   public TransactionStatus findStatusFromChannel(final TransactionStatusRequester requester) {
-    return transactionService.findById(requester.getReference())
-      .map(transaction -> buildTransactionStatus(transaction, requester.getChannel()))
-      .orElse(TransactionStatus.builder().reference(requester.getReference()).status(INVALID).build());
+    Timer.Sample sample = Timer.start(meterRegistry);
+    TransactionStatus status = null;
+    try {
+      status = findCachedStatus(requester);
+      if (status == null) {
+        status = findStoredStatus(requester);
+      }
+      return status;
+    } finally {
+      Channel channel = requester.getChannel();
+      sample.stop(statusTimers[(channel != null) ? channel.ordinal() : Channel.values().length]
+        [(status != null) ? status.getStatus().ordinal() : Status.values().length]);
+    }
   }
   
   /**
-   * Builds a {@link TransactionStatus} following the next rules:
-   * <p>
-   * For the status field:
-   * - When the transaction date is before the current date the {@link Status} should be: SETTLED.
-   * - When the transaction date is equal to the current date the {@link Status} should be: PENDING
-   * - When the transaction date is equal to the current date the {@link Status} should be: FUTURE
-   * <p>
-   * For the amount:
-   * - When the {@link Channel} is ATM or CLIENT, the amount should be the amount subtracting the fee
-   * - When the {@link Channel} is INTERNAL, the amount should be the transaction amount
-   * <p>
-   * For the fee:
-   * - When the {@link Channel} is ATM or CLIENT, the fee should be null
-   * - When the {@link Channel} is INTERNAL, the fee should be the transaction fee
+   * Finds the {@link TransactionStatus} in the cache without reading the database, so it can be called from a thread
+   * that must not block.
    *
-   * @param transaction the {@link Transaction} stored in the database
-   * @param channel     the type of {@link Channel} that is asking for the status.
+   * @param requester The {@link TransactionStatusRequester} with the details to be checked to build the status.
+   * @return the cached status, or null if it is not cached.
    */
-  private TransactionStatus buildTransactionStatus(final TransactionDto transaction, final Channel channel) {
-    return Optional.of(TransactionStatus.builder())
-      .map(builder -> builder.status(calculateStatus(transaction.getDate(), channel)))
-      .map(builder -> builder.reference(transaction.getReference()))
-      .map(builder -> builder.amount(calculateAmount(transaction, channel)))
-      .map(builder -> {
-        if (INTERNAL.equals(channel)) {
-          builder.fee(transaction.getFee());
-        }
-        return builder;
-      })
-      .map(TransactionStatus.Builder::build)
-      .get();
+  public TransactionStatus findCachedStatus(final TransactionStatusRequester requester) {
+    return cache.get(new StatusKey(requester.getReference(), requester.getChannel()));
   }
   
   /**
-   * Calculates the {@link Status} using the date from the {@link Transaction} stored in the database.
+   * Builds the {@link TransactionStatus} reading the transaction from the database, and caches it.
    *
-   * @param transactionDate the transaction date
-   * @return the {@link Status}
+   * @param requester The {@link TransactionStatusRequester} with the details to be checked to build the status.
+   * @return A {@link TransactionStatus} with the details.
    */
-  private Status calculateStatus(final LocalDateTime transactionDate, final Channel channel) {
-    return calculateSettledStatus(transactionDate)
-      .or(() -> calculatePendingStatus(transactionDate))
-      .or(() -> calculatePendingStatusForATM(transactionDate, channel))
-      .or(() -> calculateFutureStatus(transactionDate))
-      .get();
+  public TransactionStatus findStoredStatus(final TransactionStatusRequester requester) {
+    return cacheStatus(new StatusKey(requester.getReference(), requester.getChannel()),
+      transactionService.findStatusView(requester.getReference()).orElse(null), LocalDate.now(clock));
   }
   
-  private Optional<Status> calculateSettledStatus(final LocalDateTime transactionDate) {
-    return Optional.of(LocalDateTime.now())
-      .filter(currentDate -> transactionDate.toLocalDate().isBefore(currentDate.toLocalDate()))
-      .map(c -> SETTLED);
-  }
-  
-  private Optional<Status> calculatePendingStatus(final LocalDateTime transactionDate) {
-    return Optional.of(LocalDateTime.now())
-      .filter(currentDate -> transactionDate.toLocalDate().isEqual(currentDate.toLocalDate()))
-      .map(c -> PENDING);
-  }
-  
-  private Optional<Status> calculatePendingStatusForATM(LocalDateTime transactionDate, Channel channel) {
-    return Optional.of(LocalDateTime.now())
-      .filter(currentDate -> transactionDate.toLocalDate().isAfter(currentDate.toLocalDate()) && getAtmPredicate().test(channel))
-      .map(c -> PENDING);
-  }
-  
-  private Optional<Status> calculateFutureStatus(final LocalDateTime transactionDate) {
-    return Optional.of(LocalDateTime.now())
-      .filter(currentDate -> transactionDate.toLocalDate().isAfter(currentDate.toLocalDate()))
-      .map(c -> FUTURE);
-  }
-  
-  private double calculateAmount(final TransactionDto transaction, final Channel channel) {
-    return calculateClientAmount(transaction, channel)
-      .or(() -> calculateAtmAmount(transaction, channel))
-      .or(() -> calculateInternalAmount(transaction, channel))
-      .orElseThrow(() -> new ResponseStatusException(BAD_REQUEST, "Please provide a channel for the given reference"));
-  }
-  
-  private Predicate<Channel> getClientPredicate() {
-    return CLIENT::equals;
-  }
-  
-  private Predicate<Channel> getAtmPredicate() {
-    return ATM::equals;
-  }
-  
-  private Predicate<Channel> getInternalPredicate() {
-    return INTERNAL::equals;
-  }
-  
-  private Optional<Double> calculateClientAmount(final TransactionDto transaction, final Channel channel) {
-    return Optional.ofNullable(channel)
-      .filter(getClientPredicate())
-      .map(c -> calculateAmountSubtractingFee(transaction));
+  /**
+   * Finds the {@link TransactionStatus} for every given {@link TransactionStatusRequester}, reading all the
+   * transactions that are not cached with one query.
+   *
+   * @param requesters the {@link TransactionStatusRequester}s with the details to be checked to build the statuses.
+   * @return the {@link TransactionStatus}es, in the same order as the given requesters.
+   */
+  public List<TransactionStatus> findStatusesFromChannel(final List<TransactionStatusRequester> requesters) {
+    TransactionStatus[] statuses = new TransactionStatus[requesters.size()];
+    Set<String> missingReferences = new HashSet<>();
+    for (int index = 0; index < requesters.size(); index++) {
+      TransactionStatusRequester requester = requesters.get(index);
+      statuses[index] = cache.get(new StatusKey(requester.getReference(), requester.getChannel()));
+      if (statuses[index] == null) {
+        missingReferences.add(requester.getReference());
+      }
+    }
+    if (!missingReferences.isEmpty()) {
+      LocalDate today = LocalDate.now(clock);
+      Map<String, TransactionStatusView> transactions = transactionService.findStatusViews(missingReferences).stream()
+        .collect(Collectors.toMap(TransactionStatusView::getReference, Function.identity()));
+      for (int index = 0; index < requesters.size(); index++) {
+        TransactionStatusRequester requester = requesters.get(index);
+        if (statuses[index] == null) {
+          statuses[index] = cacheStatus(new StatusKey(requester.getReference(), requester.getChannel()),
+            transactions.get(requester.getReference()), today);
+        }
+      }
+    }
+    return Arrays.asList(statuses);
   }
   
-  private Optional<Double> calculateAtmAmount(final TransactionDto transaction, final Channel channel) {
-    return Optional.ofNullable(channel)
-      .filter(getAtmPredicate())
-      .map(c -> calculateAmountSubtractingFee(transaction));
+  /**
+   * Builds the status and caches it until the day after the given current date, the same date used by the rules.
+   * The given transaction is null when the reference is not stored.
+   */
+  private TransactionStatus cacheStatus(final StatusKey key, final TransactionStatusView transaction,
+                                        final LocalDate today) {
+    TransactionStatus status = (transaction != null)
+      ? buildTransactionStatus(transaction, key.channel, today)
+      : TransactionStatus.builder().reference(key.reference).status(INVALID).build();
+    if (!INVALID.equals(status.getStatus())) {
+      Instant nextMidnight = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant();
+      cache.put(key, status, SETTLED.equals(status.getStatus()) ? null : nextMidnight);
+    }
+    return status;
   }
   
-  private Optional<Double> calculateInternalAmount(final TransactionDto transaction, final Channel channel) {
-    return Optional.ofNullable(channel)
-      .filter(getInternalPredicate())
-      .map(c -> transaction.getAmount());
+  /**
+   * Removes all the cached statuses.
+   */
+  public void clearCache() {
+    cache.clear();
   }
   
   /**
-   * Calculates the amount after subtracting the fee, that will be used in the {@link TransactionStatus} object.
+   * Builds a {@link TransactionStatus} following the {@link TransactionStatusRules}.
    *
-   * @param transaction the {@link Transaction} stored in the database
-   * @return the new calculated amount.
+   * @param transaction the fields of the transaction stored in the database
+   * @param channel     the type of {@link Channel} that is asking for the status.
+   * @param today       the current date, captured once per request.
    */
-  private double calculateAmountSubtractingFee(final TransactionDto transaction) {
-    int signChanger = (transaction.getAmount() < 0) ? -1 : 1;
-    double fee = Optional.ofNullable(transaction.getFee()).orElse(0.0);
-    return Optional.of(transaction.getAmount())
-      .map(Math::abs)
-      .map((amount) -> (amount - fee) * signChanger)
-      .orElse(transaction.getAmount());
+  private TransactionStatus buildTransactionStatus(final TransactionStatusView transaction, final Channel channel,
+                                                   final LocalDate today) {
+    if (channel == null) {
+      missingChannelCounter.increment();
+    }
+    TransactionStatusRules.Rule rule = TransactionStatusRules.find(transaction.getDate().toLocalDate(), today, channel);
+    return TransactionStatus.builder()
+      .reference(transaction.getReference())
+      .status(rule.getStatus())
+      .amount(rule.amount(transaction))
+      .fee(rule.fee(transaction))
+      .build();
+  }
+  
+  private static class StatusKey {
+    
+    private final String reference;
+    private final Channel channel;
+    
+    StatusKey(final String reference, final Channel channel) {
+      this.reference = reference;
+      this.channel = channel;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      StatusKey that = (StatusKey) o;
+      return Objects.equals(reference, that.reference) && channel == that.channel;
+    }
+    
+    @Override
+    public int hashCode() {
+      return 31 * Objects.hashCode(reference) + Objects.hashCode(channel);
+    }
   }
 }
@@ -0,0 +1,123 @@
+package com.codechallenge.bank.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread safe Bloom filter of strings, used to know without querying the database that a value was never stored.
+ * <p>
+ * {@link #mightContain(String)} never returns false for a value that was added, and it returns true for a value that
+ * was not added with a probability close to the false positive rate used to size the filter, while the number of added
+ * values stays below the expected insertions. The bits are set with compare-and-set, so no locks are used.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class BloomFilter {
+
+  private final AtomicLongArray words;
+  private final long bitSize;
+  private final int hashFunctions;
+  private final AtomicLong setBits = new AtomicLong();
+
+  /**
+   * @param expectedInsertions the number of values that are expected to be added.
+   * @param falsePositiveRate  the desired false positive rate once all the expected values were added.
+   */
+  public BloomFilter(final long expectedInsertions, final double falsePositiveRate) {
+    if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("Invalid Bloom filter size: " + expectedInsertions + " values with "
+        + falsePositiveRate + " false positive rate");
+    }
+    long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+    int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+    words = new AtomicLongArray(wordCount);
+    bitSize = wordCount * 64L;
+    hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+  }
+
+  /**
+   * Adds the value to the filter.
+   *
+   * @param value the value to be added.
+   * @return true if any bit changed, false if the filter might already contain the value.
+   */
+  public boolean put(final String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1) | 1;
+    boolean changed = false;
+    for (int i = 0; i < hashFunctions; i++) {
+      changed |= setBit(Math.floorMod(hash1 + i * hash2, bitSize));
+    }
+    return changed;
+  }
+
+  /**
+   * @param value the value to be checked.
+   * @return false if the value was never added, true if it might have been added.
+   */
+  public boolean mightContain(final String value) {
+    long hash1 = hash(value);
+    long hash2 = mix(hash1) | 1;
+    for (int i = 0; i < hashFunctions; i++) {
+      long index = Math.floorMod(hash1 + i * hash2, bitSize);
+      if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the probability that {@link #mightContain(String)} returns true for a value that was never added, estimated
+   * from the fraction of bits that are set.
+   */
+  public double expectedFalsePositiveRate() {
+    return Math.pow((double) setBits.get() / bitSize, hashFunctions);
+  }
+
+  /**
+   * @return the memory used by the bits of the filter, in bytes.
+   */
+  public long memoryBytes() {
+    return bitSize / 8;
+  }
+
+  public int getHashFunctions() {
+    return hashFunctions;
+  }
+
+  private boolean setBit(final long index) {
+    int word = (int) (index >>> 6);
+    long mask = 1L << index;
+    long current;
+    do {
+      current = words.get(word);
+      if ((current & mask) != 0) {
+        return false;
+      }
+    } while (!words.compareAndSet(word, current, current | mask));
+    setBits.incrementAndGet();
+    return true;
+  }
+
+  private static long hash(final String value) {
+    long hash = 0x9E3779B97F4A7C15L ^ value.length();
+    for (int i = 0; i < value.length(); i++) {
+      hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * Final mixer of MurmurHash3, spreads every input bit over all the output bits.
+   */
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,89 @@
+package com.codechallenge.bank.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of comma separated values (RFC 4180), that reads one record at a time so the memory used does not
+ * depend on the size of the input. A field can be quoted with double quotes, and then it can hold commas, line breaks
+ * and double quotes written twice.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class CsvReader implements Closeable {
+  
+  private final Reader reader;
+  private long line = 1;
+  private long recordLine;
+  
+  public CsvReader(final Reader reader) {
+    this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+  }
+  
+  /**
+   * @return the fields of the next record, or null at the end of the input. An empty line is a record with one empty
+   * field.
+   * @throws IOException when the input cannot be read or it ends inside a quoted field.
+   */
+  public List<String> next() throws IOException {
+    recordLine = line;
+    int c = read();
+    if (c == -1) {
+      return null;
+    }
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          throw new IOException("Unterminated quoted field in the record of line " + recordLine);
+        }
+        if (c == '"') {
+          c = read();
+          if (c != '"') {
+            quoted = false;
+            continue;
+          }
+        }
+        field.append((char) c);
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n' || c == -1) {
+        fields.add(field.toString());
+        return fields;
+      } else if (c == '"' && field.length() == 0) {
+        quoted = true;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+      c = read();
+    }
+  }
+  
+  /**
+   * @return the line where the last record returned by {@link #next()} starts, beginning with 1.
+   */
+  public long getLine() {
+    return recordLine;
+  }
+  
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+  
+  private int read() throws IOException {
+    int c = reader.read();
+    if (c == '\n') {
+      line++;
+    }
+    return c;
+  }
+}
@@ -0,0 +1,60 @@
+package com.codechallenge.bank.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of comma separated values (RFC 4180), the counterpart of {@link CsvReader}. The fields with commas, double
+ * quotes or line breaks are quoted, and a null field is written empty.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class CsvWriter implements Flushable {
+  
+  private final Writer writer;
+  
+  public CsvWriter(final Writer writer) {
+    this.writer = writer;
+  }
+  
+  /**
+   * Writes one record, ended with CRLF.
+   *
+   * @param fields the fields of the record.
+   * @throws IOException when the record cannot be written.
+   */
+  public void writeRow(final String... fields) throws IOException {
+    for (int i = 0; i < fields.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeField(fields[i]);
+    }
+    writer.write("\r\n");
+  }
+  
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+  
+  private void writeField(final String field) throws IOException {
+    if (field == null) {
+      return;
+    }
+    boolean quoted = false;
+    for (int i = 0; i < field.length() && !quoted; i++) {
+      char c = field.charAt(i);
+      quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quoted) {
+      writer.write(field);
+      return;
+    }
+    writer.write('"');
+    writer.write(field.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
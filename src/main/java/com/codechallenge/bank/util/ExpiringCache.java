@@ -0,0 +1,178 @@
+package com.codechallenge.bank.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe cache with a maximum number of entries, where every entry can have its own expiration instant.
+ * <p>
+ * The entries are kept in a {@link ConcurrentHashMap}, so the reads do not take any lock: a hit only records when the
+ * entry was read. When the cache is full an approximate least recently used entry is evicted: a few entries are
+ * sampled, walking the map from where the previous eviction stopped, and the expired one or the least recently read
+ * of them is removed. Only the writes that fill the cache take the eviction lock. The expired entries are removed when
+ * they are read, or when they are sampled.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class ExpiringCache<K, V> {
+
+  private static final int EVICTION_SAMPLE_SIZE = 8;
+
+  private final Clock clock;
+  private final int maximumSize;
+  private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final Object evictionLock = new Object();
+  private Iterator<Map.Entry<K, Entry<V>>> evictionCursor = Collections.emptyIterator();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @param maximumSize the maximum number of entries, 0 disables the cache.
+   * @param clock       the clock used to check if the entries are expired.
+   */
+  public ExpiringCache(final int maximumSize, final Clock clock) {
+    if (maximumSize < 0) {
+      throw new IllegalArgumentException("Invalid cache size: " + maximumSize);
+    }
+    this.clock = clock;
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * @param key the key of the value.
+   * @return the cached value, or null if it is not cached or it is expired.
+   */
+  public V get(final K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry != null && entry.expiresAt > clock.millis()) {
+      entry.readAt = System.nanoTime();
+      hits.increment();
+      return entry.value;
+    }
+    if (entry != null) {
+      entries.remove(key, entry);
+    }
+    misses.increment();
+    return null;
+  }
+
+  /**
+   * Caches the value until the given instant.
+   *
+   * @param key       the key of the value.
+   * @param value     the value to be cached.
+   * @param expiresAt the instant when the value is not valid anymore, or null if it never expires.
+   */
+  public void put(final K key, final V value, final Instant expiresAt) {
+    if (maximumSize == 0) {
+      return;
+    }
+    entries.put(key, new Entry<>(value, (expiresAt != null) ? expiresAt.toEpochMilli() : Long.MAX_VALUE));
+    evictWhileFull();
+  }
+
+  /**
+   * Caches the value until the given instant, only when there is no value cached for the key or it is expired.
+   *
+   * @param key       the key of the value.
+   * @param value     the value to be cached.
+   * @param expiresAt the instant when the value is not valid anymore, or null if it never expires.
+   * @return the value that was already cached, or null if the given value was cached.
+   */
+  public V putIfAbsent(final K key, final V value, final Instant expiresAt) {
+    if (maximumSize == 0) {
+      return null;
+    }
+    long now = clock.millis();
+    Entry<V> entry = new Entry<>(value, (expiresAt != null) ? expiresAt.toEpochMilli() : Long.MAX_VALUE);
+    Entry<V> current = entries.compute(key, (cachedKey, cached) ->
+      (cached != null && cached.expiresAt > now) ? cached : entry);
+    if (current != entry) {
+      return current.value;
+    }
+    evictWhileFull();
+    return null;
+  }
+
+  public void remove(final K key) {
+    entries.remove(key);
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the fraction of the reads that found the value in the cache.
+   */
+  public double hitRatio() {
+    long hitCount = hits.sum();
+    long reads = hitCount + misses.sum();
+    return (reads == 0) ? 0 : (double) hitCount / reads;
+  }
+
+  private void evictWhileFull() {
+    while (entries.size() > maximumSize) {
+      synchronized (evictionLock) {
+        if (entries.size() > maximumSize) {
+          evictOne(clock.millis());
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes the first expired entry of the sample, or the least recently read one when none is expired. It has to be
+   * called holding the eviction lock.
+   */
+  private void evictOne(final long now) {
+    Map.Entry<K, Entry<V>> eldest = null;
+    for (int sampled = 0; sampled < EVICTION_SAMPLE_SIZE; sampled++) {
+      if (!evictionCursor.hasNext()) {
+        evictionCursor = entries.entrySet().iterator();
+        if (!evictionCursor.hasNext()) {
+          return;
+        }
+      }
+      Map.Entry<K, Entry<V>> candidate = evictionCursor.next();
+      if (candidate.getValue().expiresAt <= now) {
+        eldest = candidate;
+        break;
+      }
+      if (eldest == null || candidate.getValue().readAt - eldest.getValue().readAt < 0) {
+        eldest = candidate;
+      }
+    }
+    entries.remove(eldest.getKey(), eldest.getValue());
+  }
+
+  private static class Entry<V> {
+
+    private final V value;
+    private final long expiresAt;
+    private volatile long readAt = System.nanoTime();
+
+    Entry(final V value, final long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.codechallenge.bank.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed point representation of the money amounts as a number of minor units (cents) kept in a primitive long, so the
+ * balances are added without rounding drift and without boxing.
+ * <p>
+ * The amounts are written to and read from JSON as exact decimal numbers with {@link #SCALE} decimals, using
+ * {@link Serializer} and {@link Deserializer}.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public final class Money {
+
+  public static final int SCALE = 2;
+
+  /**
+   * Marks an amount that is not present in a response, it is never written to JSON.
+   */
+  public static final long NONE = Long.MIN_VALUE;
+
+  private Money() {
+    super();
+  }
+
+  /**
+   * @param amount the decimal amount, with {@link #SCALE} decimals at most.
+   * @return the amount in minor units.
+   * @throws IllegalArgumentException if the amount has more decimals or it does not fit in a long.
+   */
+  public static long of(final BigDecimal amount) {
+    try {
+      return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    } catch (ArithmeticException ex) {
+      throw new IllegalArgumentException("Invalid amount " + amount.toPlainString() + ", it must have " + SCALE
+        + " decimals at most", ex);
+    }
+  }
+
+  public static long of(final String amount) {
+    return of(new BigDecimal(amount.trim()));
+  }
+
+  /**
+   * Converts an amount stored with the old floating point representation, rounded to the nearest minor unit.
+   *
+   * @param amount the floating point amount.
+   * @return the amount in minor units.
+   */
+  public static long fromDouble(final double amount) {
+    return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+  }
+
+  public static BigDecimal toDecimal(final long amount) {
+    return BigDecimal.valueOf(amount, SCALE);
+  }
+
+  public static String format(final long amount) {
+    return toDecimal(amount).toPlainString();
+  }
+
+  /**
+   * Writes an amount in minor units as an exact decimal number.
+   */
+  public static class Serializer extends StdSerializer<Long> {
+
+    public Serializer() {
+      super(Long.class);
+    }
+
+    @Override
+    public void serialize(final Long amount, final JsonGenerator generator, final SerializerProvider provider)
+      throws IOException {
+      generator.writeNumber(toDecimal(amount));
+    }
+  }
+
+  /**
+   * Reads a decimal number, or a string with a decimal number, as an amount in minor units. The amounts with more
+   * decimals than {@link #SCALE} are rejected instead of rounded.
+   */
+  public static class Deserializer extends StdDeserializer<Long> {
+
+    public Deserializer() {
+      super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+      JsonToken token = parser.currentToken();
+      try {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+          return of(parser.getDecimalValue());
+        }
+        if (token == JsonToken.VALUE_STRING) {
+          return of(parser.getText());
+        }
+      } catch (IllegalArgumentException ex) {
+        throw InvalidFormatException.from(parser, ex.getMessage(), parser.getText(), Long.class);
+      }
+      return (Long) context.handleUnexpectedToken(Long.class, parser);
+    }
+
+    @Override
+    public Long getNullValue(final DeserializationContext context) {
+      return 0L;
+    }
+  }
+
+  /**
+   * Used as {@link com.fasterxml.jackson.annotation.JsonInclude#valueFilter()} to skip the amounts that are
+   * {@link #NONE}.
+   */
+  public static class NoneFilter {
+
+    @Override
+    public boolean equals(final Object value) {
+      return value instanceof Long && (Long) value == NONE;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(NONE);
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package com.codechallenge.bank.util;
+
+/**
+ * Map from strings to non negative ints with open addressing and linear probing, so a lookup walks over plain arrays
+ * instead of boxed entries, and the hash of every key is kept next to it so most probes do not compare the strings.
+ * <p>
+ * It is not thread safe, the callers guard it with their own lock.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class StringIntHashMap {
+  
+  /**
+   * Returned by {@link #get(String)} when the key is not in the map.
+   */
+  public static final int NO_VALUE = -1;
+  
+  private static final int MIN_CAPACITY = 16;
+  
+  private String[] keys;
+  private int[] hashes;
+  private int[] values;
+  private int size;
+  
+  public StringIntHashMap() {
+    this(MIN_CAPACITY);
+  }
+  
+  /**
+   * @param expectedSize the number of keys that can be added before the tables grow.
+   */
+  public StringIntHashMap(final int expectedSize) {
+    allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) * 2));
+  }
+  
+  /**
+   * @param key the key to be found.
+   * @return the value of the key, or {@link #NO_VALUE} when the key is not in the map.
+   */
+  public int get(final String key) {
+    int hash = hash(key);
+    int mask = keys.length - 1;
+    for (int index = hash & mask; keys[index] != null; index = (index + 1) & mask) {
+      if (hashes[index] == hash && keys[index].equals(key)) {
+        return values[index];
+      }
+    }
+    return NO_VALUE;
+  }
+  
+  /**
+   * @param key   the key to be added or replaced.
+   * @param value the value of the key, it cannot be negative.
+   */
+  public void put(final String key, final int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("Invalid value " + value + " for the key " + key);
+    }
+    int hash = hash(key);
+    int mask = keys.length - 1;
+    int index = hash & mask;
+    for (; keys[index] != null; index = (index + 1) & mask) {
+      if (hashes[index] == hash && keys[index].equals(key)) {
+        values[index] = value;
+        return;
+      }
+    }
+    keys[index] = key;
+    hashes[index] = hash;
+    values[index] = value;
+    if (++size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+  }
+  
+  /**
+   * Removes the key moving back the keys probed after it, so no tombstones are left and the lookups never slow down.
+   *
+   * @param key the key to be removed.
+   * @return the value the key had, or {@link #NO_VALUE} when the key was not in the map.
+   */
+  public int remove(final String key) {
+    int hash = hash(key);
+    int mask = keys.length - 1;
+    int index = hash & mask;
+    while (keys[index] != null && (hashes[index] != hash || !keys[index].equals(key))) {
+      index = (index + 1) & mask;
+    }
+    if (keys[index] == null) {
+      return NO_VALUE;
+    }
+    int value = values[index];
+    int gap = index;
+    for (int next = (gap + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+      int home = hashes[next] & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        hashes[gap] = hashes[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+    }
+    keys[gap] = null;
+    size--;
+    return value;
+  }
+  
+  public int size() {
+    return size;
+  }
+  
+  private void resize(final int capacity) {
+    String[] oldKeys = keys;
+    int[] oldHashes = hashes;
+    int[] oldValues = values;
+    allocate(capacity);
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int index = oldHashes[i] & mask;
+        while (keys[index] != null) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = oldKeys[i];
+        hashes[index] = oldHashes[i];
+        values[index] = oldValues[i];
+      }
+    }
+  }
+  
+  private void allocate(final int capacity) {
+    keys = new String[capacity];
+    hashes = new int[capacity];
+    values = new int[capacity];
+  }
+  
+  /**
+   * Spreads the bits of {@link String#hashCode()}, so the keys that only differ in the last characters do not fill
+   * consecutive slots.
+   */
+  private static int hash(final String key) {
+    int hash = key.hashCode() * 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
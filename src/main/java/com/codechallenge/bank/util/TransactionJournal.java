@@ -0,0 +1,387 @@
+package com.codechallenge.bank.util;
+
+import com.codechallenge.bank.model.Transaction;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append only journal of {@link Transaction}s stored in memory mapped segment files.
+ * <p>
+ * Every record is written as: payload length (int), CRC32 of the payload (int) and the payload, where the payload
+ * starts with the record format version. A length of 0 marks the end of the written records and a length of -1 marks
+ * that the rest of the records are in the next segment. The records are identified by their position, that is the
+ * segment number multiplied by the segment size plus the offset inside the segment, so the positions always grow.
+ * <p>
+ * The appends only copy the record into the mapped segment. {@link #awaitDurable(long)} implements the group commit:
+ * the first waiting thread forces the segment to disk on behalf of all the records appended so far while the rest of
+ * the threads wait for it, so one fsync is shared by all the concurrent writers.
+ * <p>
+ * The records that were already drained are marked with {@link #checkpoint(long)}, when the journal is opened again the
+ * records after the checkpoint can be read again with {@link #read(long, int)}.
+ * <p>
+ * The amounts are written as {@link Money} minor units. The records written with the first format version, with
+ * floating point amounts, are still read and rounded to the nearest minor unit.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class TransactionJournal implements Closeable {
+
+  static final byte FORMAT_VERSION = 2;
+  private static final byte DOUBLE_AMOUNTS_VERSION = 1;
+  private static final int HEADER_SIZE = 8;
+  private static final int ROLL_MARKER = -1;
+  private static final String SEGMENT_SUFFIX = ".journal";
+  private static final String CHECKPOINT_FILE = "checkpoint";
+
+  private final Path directory;
+  private final int segmentSize;
+
+  private final Object appendMonitor = new Object();
+  private long segmentNumber;
+  private MappedByteBuffer segment;
+  private long writtenPosition;
+
+  private final Object syncMonitor = new Object();
+  private boolean syncing;
+  private volatile long durablePosition;
+  private final AtomicLong commits = new AtomicLong();
+
+  private long readSegmentNumber = -1;
+  private MappedByteBuffer readSegment;
+
+  /**
+   * Opens the journal stored in the given directory, creating it if it does not exist. The last segment is scanned to
+   * find the end of the written records, a record that was not completely written is discarded.
+   *
+   * @param directory   the directory of the segment files.
+   * @param segmentSize the size in bytes of every segment file.
+   * @throws IOException if the journal cannot be opened.
+   */
+  public TransactionJournal(final Path directory, final int segmentSize) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.segmentSize = segmentSize;
+    List<Long> segments = listSegments();
+    long checkpoint = readCheckpoint();
+    segmentNumber = segments.isEmpty() ? checkpoint / segmentSize : segments.get(segments.size() - 1);
+    segment = map(segmentNumber, FileChannel.MapMode.READ_WRITE);
+    int offset = findEnd(segment);
+    zeroFrom(segment, offset);
+    writtenPosition = segmentNumber * segmentSize + offset;
+    durablePosition = writtenPosition;
+  }
+
+  /**
+   * Appends the transaction at the end of the journal. The record is not durable until {@link #awaitDurable(long)}
+   * returns for the position returned by this method.
+   *
+   * @param transaction the transaction to be appended, with its reference already assigned.
+   * @return the position right after the appended record.
+   */
+  public long append(final Transaction transaction) throws IOException {
+    byte[] payload = encode(transaction);
+    if (HEADER_SIZE + payload.length + Integer.BYTES > segmentSize) {
+      throw new IllegalArgumentException("The transaction " + transaction.getReference() + " does not fit in a segment");
+    }
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    synchronized (appendMonitor) {
+      if (segment.position() + HEADER_SIZE + payload.length + Integer.BYTES > segmentSize) {
+        roll();
+      }
+      int offset = segment.position();
+      segment.position(offset + Integer.BYTES);
+      segment.putInt((int) crc.getValue());
+      segment.put(payload);
+      // the length is written last, so a reader never sees a record before its payload is complete
+      segment.putInt(offset, payload.length);
+      writtenPosition = segmentNumber * segmentSize + segment.position();
+      return writtenPosition;
+    }
+  }
+
+  /**
+   * Waits until all the records before the given position are stored on disk, forcing the segment if no other thread
+   * is already doing it.
+   *
+   * @param position the position returned by {@link #append(Transaction)}.
+   */
+  public void awaitDurable(final long position) throws IOException {
+    while (true) {
+      synchronized (syncMonitor) {
+        while (syncing && durablePosition < position) {
+          try {
+            syncMonitor.wait();
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the journal commit");
+          }
+        }
+        if (durablePosition >= position) {
+          return;
+        }
+        syncing = true;
+      }
+      long target = durablePosition;
+      try {
+        MappedByteBuffer toForce;
+        synchronized (appendMonitor) {
+          target = writtenPosition;
+          toForce = segment;
+        }
+        toForce.force();
+        commits.incrementAndGet();
+      } finally {
+        synchronized (syncMonitor) {
+          durablePosition = Math.max(durablePosition, target);
+          syncing = false;
+          syncMonitor.notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads the durable records stored after the given position. It must be called from only one thread at a time.
+   *
+   * @param position   the position where the reading starts, usually the last checkpoint.
+   * @param maxRecords the maximum number of records to be read.
+   * @return the read records, in the order they were appended.
+   */
+  public List<Entry> read(final long position, final int maxRecords) throws IOException {
+    List<Entry> entries = new ArrayList<>();
+    long current = position;
+    long limit = durablePosition;
+    while (entries.size() < maxRecords && current < limit) {
+      long number = current / segmentSize;
+      int offset = (int) (current % segmentSize);
+      ByteBuffer buffer = readSegment(number);
+      int length = buffer.getInt(offset);
+      if (length == ROLL_MARKER) {
+        current = (number + 1) * segmentSize;
+        continue;
+      }
+      if (length <= 0) {
+        break;
+      }
+      byte[] payload = new byte[length];
+      ByteBuffer record = buffer.duplicate();
+      record.position(offset + HEADER_SIZE);
+      record.get(payload);
+      current += HEADER_SIZE + length;
+      entries.add(new Entry(decode(payload), current));
+    }
+    return entries;
+  }
+
+  /**
+   * Stores the position of the last drained record and deletes the segments that only had drained records.
+   *
+   * @param position the position right after the last drained record.
+   */
+  public void checkpoint(final long position) throws IOException {
+    Path temporary = directory.resolve(CHECKPOINT_FILE + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      StandardOpenOption.TRUNCATE_EXISTING)) {
+      channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, position));
+      channel.force(true);
+    }
+    Files.move(temporary, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+      StandardCopyOption.ATOMIC_MOVE);
+    long firstNeededSegment = position / segmentSize;
+    for (long number : listSegments()) {
+      if (number < firstNeededSegment) {
+        if (number == readSegmentNumber) {
+          readSegmentNumber = -1;
+          readSegment = null;
+        }
+        Files.deleteIfExists(segmentPath(number));
+      }
+    }
+  }
+
+  /**
+   * @return the position of the last drained record stored with {@link #checkpoint(long)}.
+   */
+  public long readCheckpoint() throws IOException {
+    Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+    if (!Files.exists(checkpoint)) {
+      return listSegments().stream().findFirst().map(number -> number * segmentSize).orElse(0L);
+    }
+    return ByteBuffer.wrap(Files.readAllBytes(checkpoint)).getLong();
+  }
+
+  public long getDurablePosition() {
+    return durablePosition;
+  }
+
+  /**
+   * @return the number of times the journal was forced to disk, each one commits a group of records.
+   */
+  public long getCommits() {
+    return commits.get();
+  }
+
+  @Override
+  public void close() throws IOException {
+    long position;
+    synchronized (appendMonitor) {
+      position = writtenPosition;
+    }
+    awaitDurable(position);
+  }
+
+  /**
+   * Closes the current segment with a roll marker and continues in the next one. The current segment is forced before
+   * so the durable position always implies that the previous segments are durable.
+   */
+  private void roll() throws IOException {
+    segment.putInt(segment.position(), ROLL_MARKER);
+    segment.force();
+    segmentNumber++;
+    segment = map(segmentNumber, FileChannel.MapMode.READ_WRITE);
+    writtenPosition = segmentNumber * segmentSize;
+  }
+
+  private ByteBuffer readSegment(final long number) throws IOException {
+    if (number != readSegmentNumber) {
+      readSegment = map(number, FileChannel.MapMode.READ_ONLY);
+      readSegmentNumber = number;
+    }
+    return readSegment;
+  }
+
+  private MappedByteBuffer map(final long number, final FileChannel.MapMode mode) throws IOException {
+    try (FileChannel channel = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE,
+      StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(mode, 0, segmentSize);
+    }
+  }
+
+  /**
+   * Finds the offset after the last complete record of the segment, checking the CRC of every record.
+   */
+  private int findEnd(final MappedByteBuffer buffer) {
+    int offset = 0;
+    CRC32 crc = new CRC32();
+    while (offset + HEADER_SIZE <= segmentSize) {
+      int length = buffer.getInt(offset);
+      if (length <= 0 || offset + HEADER_SIZE + length > segmentSize) {
+        break;
+      }
+      byte[] payload = new byte[length];
+      ByteBuffer record = buffer.duplicate();
+      record.position(offset + HEADER_SIZE);
+      record.get(payload);
+      crc.reset();
+      crc.update(payload);
+      if ((int) crc.getValue() != buffer.getInt(offset + Integer.BYTES)) {
+        break;
+      }
+      offset += HEADER_SIZE + length;
+    }
+    return offset;
+  }
+
+  /**
+   * Clears whatever was partially written after the last complete record, and leaves the segment ready to append.
+   */
+  private void zeroFrom(final MappedByteBuffer buffer, final int offset) {
+    for (int i = offset; i < segmentSize; i++) {
+      buffer.put(i, (byte) 0);
+    }
+    buffer.position(offset);
+  }
+
+  private List<Long> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(file -> file.getFileName().toString())
+        .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+        .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+        .sorted()
+        .collect(Collectors.toList());
+    }
+  }
+
+  private Path segmentPath(final long number) {
+    return directory.resolve(String.format("%020d%s", number, SEGMENT_SUFFIX));
+  }
+
+  static byte[] encode(final Transaction transaction) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+    try (DataOutputStream output = new DataOutputStream(bytes)) {
+      output.writeByte(FORMAT_VERSION);
+      output.writeUTF(transaction.getReference());
+      output.writeUTF(transaction.getAccount());
+      LocalDateTime date = (transaction.getDate() != null) ? transaction.getDate() : LocalDateTime.now();
+      output.writeLong(date.toEpochSecond(ZoneOffset.UTC));
+      output.writeInt(date.getNano());
+      output.writeLong(transaction.getAmount());
+      output.writeLong(transaction.getFee());
+      output.writeBoolean(transaction.getDescription() != null);
+      output.write(transaction.getDescription() != null
+        ? transaction.getDescription().getBytes(StandardCharsets.UTF_8) : new byte[0]);
+    }
+    return bytes.toByteArray();
+  }
+
+  static Transaction decode(final byte[] payload) throws IOException {
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+      byte version = input.readByte();
+      if (version != FORMAT_VERSION && version != DOUBLE_AMOUNTS_VERSION) {
+        throw new IOException("Unknown journal record version " + version);
+      }
+      Transaction.Builder builder = Transaction.builder()
+        .reference(input.readUTF())
+        .account(input.readUTF())
+        .date(LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC));
+      if (version == DOUBLE_AMOUNTS_VERSION) {
+        builder.amount(Money.fromDouble(input.readDouble()));
+        boolean hasFee = input.readBoolean();
+        double fee = input.readDouble();
+        builder.fee(hasFee ? Money.fromDouble(fee) : 0);
+      } else {
+        builder.amount(input.readLong()).fee(input.readLong());
+      }
+      boolean hasDescription = input.readBoolean();
+      return builder
+        .description(hasDescription ? new String(input.readAllBytes(), StandardCharsets.UTF_8) : null)
+        .build();
+    }
+  }
+
+  /**
+   * A record read from the journal with the position right after it.
+   */
+  public static class Entry {
+
+    private final Transaction transaction;
+    private final long endPosition;
+
+    Entry(final Transaction transaction, final long endPosition) {
+      this.transaction = transaction;
+      this.endPosition = endPosition;
+    }
+
+    public Transaction getTransaction() {
+      return transaction;
+    }
+
+    public long getEndPosition() {
+      return endPosition;
+    }
+  }
+}
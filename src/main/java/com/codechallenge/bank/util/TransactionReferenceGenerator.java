@@ -1,36 +1,184 @@
 package com.codechallenge.bank.util;
 
-import java.util.Random;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 /**
- * This class is intended to generate a random reference for the transactions that not provide one.
+ * This class is intended to generate a unique reference for the transactions that not provide one.
+ * <p>
+ * Every reference is built from a 64 bits identifier with the layout: 41 bits with the milliseconds since 2019-01-01,
+ * 10 bits with the node number and 12 bits with a sequence inside the millisecond. The timestamp and the sequence are
+ * kept together in one {@link AtomicLong} that is only increased with compare-and-set, so the references are unique
+ * inside the node without using locks or the database. When more than 4096 references are generated in the same
+ * millisecond the sequence overflows into the next millisecond instead of waiting for the clock. A clock that goes
+ * backwards does not stop the generator: the identifiers keep increasing from the last timestamp and sequence, until
+ * the clock catches up with them.
+ * <p>
+ * The identifiers issued before a restart are kept apart with a high-water mark, read from the file of the system
+ * property "bank.reference.high-water-file" (or BANK_REFERENCE_HIGH_WATER_FILE). The mark is a timestamp one second
+ * ahead of the issued identifiers, written before any identifier goes beyond it, and the first identifier after a
+ * restart is always after the mark, even when the sequence had borrowed future milliseconds or the clock went back.
+ * <p>
+ * The node number (0 to 1023) has to be different in every instance that writes into the same database, it is read
+ * from the system property "bank.reference.node" (or the environment variable BANK_REFERENCE_NODE). The format is
+ * read from "bank.reference.format" (or BANK_REFERENCE_FORMAT), it can be READABLE (default) or COMPACT.
  *
  * @author Carlos Rodriguez
  * @since 26/07/2019
  */
 public class TransactionReferenceGenerator {
 
+    public enum Format {
+        /**
+         * The identifier in decimal followed by a check letter from A-Z, the same format used before (12345A).
+         */
+        READABLE,
+        /**
+         * The identifier in base 36 with uppercase letters, up to 13 chars.
+         */
+        COMPACT
+    }
+
+    static final long EPOCH = Instant.parse("2019-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    static final long HIGH_WATER_AHEAD = 1000;
+
+    private static final TransactionReferenceGenerator DEFAULT = new TransactionReferenceGenerator(
+        Integer.parseInt(getSetting("bank.reference.node", "0")),
+        Format.valueOf(getSetting("bank.reference.format", Format.READABLE.name()).toUpperCase()),
+        Optional.of(getSetting("bank.reference.high-water-file", "")).filter(StringUtils::isNotBlank).map(Paths::get)
+            .orElse(null));
+
+    private final long node;
+    private final Format format;
+    private final Path highWaterFile;
+    private final AtomicLong state = new AtomicLong();
+    private volatile long highWater = Long.MAX_VALUE;
+
+    /**
+     * @param node   the number of this node, between 0 and 1023.
+     * @param format the {@link Format} of the generated references.
+     */
+    public TransactionReferenceGenerator(final int node, final Format format) {
+        this(node, format, null);
+    }
+
+    /**
+     * @param node          the number of this node, between 0 and 1023.
+     * @param format        the {@link Format} of the generated references.
+     * @param highWaterFile the file that keeps the high-water mark between restarts, or null to keep none.
+     */
+    public TransactionReferenceGenerator(final int node, final Format format, final Path highWaterFile) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("The node has to be between 0 and " + MAX_NODE + " but it was " + node);
+        }
+        this.node = node;
+        this.format = format;
+        this.highWaterFile = highWaterFile;
+        if (highWaterFile != null) {
+            long mark = readHighWater(highWaterFile);
+            state.set(((mark + 1) << SEQUENCE_BITS) - 1);
+            highWater = mark;
+        }
+    }
+
     /**
-     * Generates the random reference.
-     * @return A random reference with format (12345A)
+     * Generates the reference using the default generator of this node.
+     * @return A unique reference with format (12345A) or (K3J2ABC9Q) depending on the configured format.
      */
     public static String generate() {
-        return generateRandomInt() + generateRandomChar();
+        return DEFAULT.next();
     }
 
     /**
-     * Generates a random integer between 1 to 20000
-     * @return A random integer
+     * Generates the next unique reference.
+     * @return A unique reference with the format of this generator.
      */
-    private static int generateRandomInt() {
-        return new Random().nextInt(20000);
+    public String next() {
+        long id = nextId();
+        return (format == Format.COMPACT) ? Long.toString(id, 36).toUpperCase() : Long.toString(id) + checkLetter(id);
     }
 
     /**
-     * Generates a random String with one char from A-Z
-     * @return A random String
+     * Generates the next unique identifier.
+     * @return A positive identifier, greater than every identifier generated before by this generator.
      */
-    private static String generateRandomChar() {
-        return Character.toString(((char) (new Random().nextInt(26) + 'a'))).toUpperCase();
+    long nextId() {
+        long now = currentTime();
+        long last;
+        long next;
+        do {
+            last = state.get();
+            next = (now > (last >>> SEQUENCE_BITS)) ? (now << SEQUENCE_BITS) : last + 1;
+        } while (!state.compareAndSet(last, next));
+        long timestamp = next >>> SEQUENCE_BITS;
+        if (timestamp > highWater) {
+            raiseHighWater(timestamp);
+        }
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * @return the milliseconds since {@link #EPOCH}.
+     */
+    long currentTime() {
+        return System.currentTimeMillis() - EPOCH;
+    }
+
+    /**
+     * Writes a new high-water mark ahead of the given timestamp, before the identifier with that timestamp is returned.
+     * The file is replaced atomically, so a failed write keeps the previous mark.
+     */
+    private synchronized void raiseHighWater(final long timestamp) {
+        if (timestamp <= highWater) {
+            return;
+        }
+        long mark = timestamp + HIGH_WATER_AHEAD;
+        Path temporary = highWaterFile.resolveSibling(highWaterFile.getFileName() + ".tmp");
+        try {
+            Files.write(temporary, Long.toString(mark).getBytes(StandardCharsets.US_ASCII));
+            Files.move(temporary, highWaterFile, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("The high-water mark of the references could not be written", ex);
+        }
+        highWater = mark;
+    }
+
+    private static long readHighWater(final Path highWaterFile) {
+        try {
+            return Files.exists(highWaterFile)
+                ? Long.parseLong(new String(Files.readAllBytes(highWaterFile), StandardCharsets.US_ASCII).trim()) : 0;
+        } catch (IOException | NumberFormatException ex) {
+            throw new IllegalStateException("The high-water mark of the references could not be read from "
+                + highWaterFile, ex);
+        }
+    }
+
+    /**
+     * Gets a letter from A-Z derived from the identifier
+     * @return A char from A-Z
+     */
+    private static char checkLetter(final long id) {
+        return (char) ('A' + (id % 26));
+    }
+
+    private static String getSetting(final String property, final String defaultValue) {
+        String value = System.getProperty(property, System.getenv(property.toUpperCase().replace('.', '_')));
+        return StringUtils.isBlank(value) ? defaultValue : value.trim();
     }
-}
\ No newline at end of file
+}
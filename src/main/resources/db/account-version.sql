@@ -0,0 +1,3 @@
+-- Adds the version column used by the optimistic locking of com.codechallenge.bank.model.dto.AccountDto. Run it once,
+-- with the application stopped, over a database created by a version without it.
+alter table account_dto add column version bigint default 0 not null;
@@ -0,0 +1,9 @@
+-- Converts the amounts stored as floating point numbers into the fixed point minor units (cents) used by
+-- com.codechallenge.bank.util.Money. Run it once, with the application stopped, over a database created by a version
+-- that stored the amounts as DOUBLE. The missing fees are stored as 0.
+update account_dto set balance = round(balance * 100, 0);
+alter table account_dto alter column balance bigint not null;
+
+update account_transaction set amount = round(amount * 100, 0), fee = round(coalesce(fee, 0) * 100, 0);
+alter table account_transaction alter column amount bigint not null;
+alter table account_transaction alter column fee bigint not null;
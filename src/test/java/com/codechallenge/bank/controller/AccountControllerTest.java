@@ -0,0 +1,116 @@
+package com.codechallenge.bank.controller;
+
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.service.AccountStatementService;
+import com.codechallenge.bank.service.AccountSummaryService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AccountControllerTest {
+  
+  @MockBean private AccountSummaryService service;
+  @MockBean private AccountStatementService statementService;
+  @Autowired private AccountController controller;
+  @Autowired private ObjectMapper objectMapper;
+  
+  @Test
+  public void findSummary_amountsInMajorUnits() {
+    when(service.findByIban("ABC123")).thenReturn(AccountSummaryDto.builder("ABC123")
+      .add(TransactionDto.builder().amount(20000).date(LocalDateTime.of(2026, 10, 16, 12, 0)).build())
+      .add(TransactionDto.builder().amount(-19338).fee(318).date(LocalDateTime.of(2026, 10, 17, 12, 0)).build())
+      .build());
+    
+    JsonNode summary = objectMapper.valueToTree(controller.findSummary("ABC123"));
+    
+    assertEquals("ABC123", summary.get("iban").asText());
+    assertEquals(2, summary.get("transaction_count").asLong());
+    assertEquals(200.00, summary.get("credit_sum").asDouble(), 0);
+    assertEquals(193.38, summary.get("debit_sum").asDouble(), 0);
+    assertEquals(3.18, summary.get("fee_sum").asDouble(), 0);
+  }
+  
+  @Test(expected = DataNotFoundException.class)
+  public void findSummary_unknownAccount() {
+    when(service.findByIban("ABC123")).thenThrow(new DataNotFoundException("account", "ABC123"));
+    controller.findSummary("ABC123");
+  }
+  
+  @Test
+  public void exportStatement_gzipWhenAccepted() throws IOException {
+    LocalDateTime from = LocalDateTime.of(2026, 10, 1, 0, 0);
+    doAnswer(invocation -> {
+      Writer writer = invocation.getArgument(3);
+      writer.write("reference,date,description,amount,fee,balance\r\n");
+      writer.flush();
+      return null;
+    }).when(statementService).write(eq("ABC123"), eq(from), isNull(), any(Writer.class));
+    
+    ResponseEntity<StreamingResponseBody> response = controller.exportStatement("ABC123", from, null, "deflate, gzip");
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    response.getBody().writeTo(output);
+    
+    assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    assertEquals("text/csv;charset=UTF-8", response.getHeaders().getContentType().toString());
+    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+      assertEquals("reference,date,description,amount,fee,balance\r\n",
+        new String(input.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+  
+  @Test
+  public void exportStatement_invalidDateRange() {
+    LocalDateTime date = LocalDateTime.of(2026, 10, 1, 0, 0);
+    try {
+      controller.exportStatement("ABC123", date, date, null);
+      fail("The date from has to be before the date to");
+    } catch (ResponseStatusException ex) {
+      assertEquals(400, ex.getStatus().value());
+      verify(statementService, never()).findAccount(any());
+    }
+  }
+  
+  @Test
+  public void acceptsGzip_qualityOfTheCoding() {
+    assertTrue(AccountController.acceptsGzip("gzip"));
+    assertTrue(AccountController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+    assertTrue(AccountController.acceptsGzip("*"));
+    assertFalse(AccountController.acceptsGzip("gzip;q=0"));
+    assertFalse(AccountController.acceptsGzip("gzip;q=0, *"));
+    assertFalse(AccountController.acceptsGzip("*, gzip;q=0.0"));
+    assertFalse(AccountController.acceptsGzip("*;q=0"));
+    assertTrue(AccountController.acceptsGzip("identity;q=0, *;q=0.1"));
+    assertFalse(AccountController.acceptsGzip("deflate, identity"));
+    assertFalse(AccountController.acceptsGzip(null));
+  }
+}
@@ -0,0 +1,166 @@
+package com.codechallenge.bank.controller;
+
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.Channel;
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionSortField;
+import com.codechallenge.bank.model.TransactionStatus;
+import com.codechallenge.bank.model.TransactionStatusRequester;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.service.TransactionService;
+import com.codechallenge.bank.service.TransactionStatusService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.codechallenge.bank.model.Status.PENDING;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+  properties = "spring.main.web-application-type=reactive")
+@ActiveProfiles("reactive")
+public class ReactiveRoutesTest {
+  
+  @Autowired private WebTestClient client;
+  @MockBean private TransactionService transactionService;
+  @MockBean private TransactionStatusService statusService;
+  
+  @Test
+  public void create_validTransaction() {
+    when(transactionService.save(any(Transaction.class)))
+      .thenReturn(TransactionDto.builder().reference("12345A").account("ABC123").amount(19038).build());
+  
+    client.post().uri("/transactions")
+      .contentType(APPLICATION_JSON)
+      .syncBody("{\"account_iban\":\"ABC123\",\"amount\":190.38}")
+      .exchange()
+      .expectStatus().isCreated()
+      .expectBody()
+      .jsonPath("$.reference").isEqualTo("12345A");
+    verify(transactionService).save(argThat(transaction -> transaction.getAmount() == 19038));
+  }
+  
+  @Test
+  public void create_withoutAccount() {
+    client.post().uri("/transactions")
+      .contentType(APPLICATION_JSON)
+      .syncBody("{\"amount\":190.38}")
+      .exchange()
+      .expectStatus().isBadRequest();
+    verify(transactionService, never()).save(any(Transaction.class));
+  }
+  
+  @Test
+  public void findByAccount_pageSortedByFee() {
+    when(transactionService.findByAccount(eq("ABC123"), argThat(query ->
+      query.getSortField() == TransactionSortField.FEE && query.getDirection() == Sort.Direction.DESC
+        && "123A".equals(query.getAfter()) && Integer.valueOf(10).equals(query.getLimit()))))
+      .thenReturn(Collections.singletonList(TransactionDto.builder().reference("123B").account("ABC123").build()));
+  
+    client.get().uri("/transactions/ABC123?after=123A&limit=10")
+      .header("sort-by", "fee")
+      .header("sort-type", "DESC")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$[0].reference").isEqualTo("123B");
+  }
+  
+  @Test
+  public void findByAccount_invalidLimit() {
+    client.get().uri("/transactions/ABC123?limit=0")
+      .exchange()
+      .expectStatus().isBadRequest();
+  }
+  
+  @Test
+  public void findByAccount_unknownAccount() {
+    when(transactionService.findAll("ABC123", null)).thenThrow(new DataNotFoundException("transactions", "ABC123"));
+  
+    client.get().uri("/transactions/ABC123")
+      .exchange()
+      .expectStatus().isNotFound();
+  }
+  
+  @Test
+  public void findStatus_cachedWithoutReadingTheDatabase() {
+    TransactionStatusRequester requester = TransactionStatusRequester.builder()
+      .reference("12345A")
+      .channel(Channel.ATM)
+      .build();
+    when(statusService.findCachedStatus(requester))
+      .thenReturn(TransactionStatus.builder().reference("12345A").status(PENDING).amount(19020).build());
+  
+    client.method(HttpMethod.GET).uri("/transactionStatus")
+      .contentType(APPLICATION_JSON)
+      .syncBody("{\"reference\":\"12345A\",\"channel\":\"ATM\"}")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.status").isEqualTo("PENDING")
+      .jsonPath("$.fee").doesNotExist();
+    verify(statusService, never()).findStoredStatus(any());
+  }
+  
+  @Test
+  public void findStatus_notCached() {
+    TransactionStatusRequester requester = TransactionStatusRequester.builder()
+      .reference("12345A")
+      .channel(Channel.INTERNAL)
+      .build();
+    when(statusService.findStoredStatus(requester))
+      .thenReturn(TransactionStatus.builder().reference("12345A").status(PENDING).amount(19338).fee(318).build());
+  
+    client.method(HttpMethod.GET).uri("/transactionStatus")
+      .contentType(APPLICATION_JSON)
+      .syncBody("{\"reference\":\"12345A\",\"channel\":\"INTERNAL\"}")
+      .exchange()
+      .expectStatus().isOk()
+      .expectBody()
+      .jsonPath("$.fee").isEqualTo(3.18);
+  }
+  
+  @Test
+  public void blocking_fullSchedulerIsServiceUnavailable() {
+    Scheduler scheduler = new ReactiveRoutes().jdbcScheduler(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      ReactiveRoutes.blocking(scheduler, () -> release.await(10, TimeUnit.SECONDS))
+        .subscribe(released -> { }, ex -> { });
+      ReactiveRoutes.blocking(scheduler, () -> release.await(10, TimeUnit.SECONDS))
+        .subscribe(released -> { }, ex -> { });
+      ReactiveRoutes.blocking(scheduler, () -> true).block();
+      fail("Expecting service unavailable exception");
+    } catch (ResponseStatusException ex) {
+      assertEquals(SERVICE_UNAVAILABLE, ex.getStatus());
+    } finally {
+      release.countDown();
+      scheduler.dispose();
+    }
+  }
+}
@@ -1,23 +1,46 @@
 package com.codechallenge.bank.controller;
 
+import com.codechallenge.bank.model.AccountTransactions;
 import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionSortField;
+import com.codechallenge.bank.model.dto.AccountDto;
 import com.codechallenge.bank.model.dto.TransactionDto;
 import com.codechallenge.bank.service.AccountService;
 import com.codechallenge.bank.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,15 +54,16 @@ public class TransactionControllerTest {
   @Autowired private TransactionController controller;
   @MockBean private TransactionService transactionService;
   @MockBean private AccountService accountService;
+  @Autowired private ObjectMapper objectMapper;
   
   @Test
   public void create_validMessage() {
     Transaction transaction = Transaction.builder()
       .account("ABC123")
-      .amount(190.38)
+      .amount(19038)
       .build();
     try {
-      controller.create(transaction);
+      controller.create(transaction, null);
       verify(transactionService, times(1)).save(transaction);
     } catch (ResponseStatusException ex) {
       fail("Expecting invalidParameterException was expected");
@@ -47,14 +71,52 @@ public class TransactionControllerTest {
   }
   
   @Test
-  public void findAll_noData() {
-    when(transactionService.findAll()).thenReturn(Collections.emptyList());
-    List<TransactionDto> transactions = controller.findAll();
-    assertEquals(Collections.emptyList(), transactions);
+  public void create_idempotencyKeyReplayed() {
+    Transaction transaction = Transaction.builder()
+      .account("ABC123")
+      .amount(-19038)
+      .build();
+    TransactionDto saved = TransactionDto.builder().reference("12345A").account("ABC123").amount(-19038).build();
+    when(transactionService.save(transaction)).thenReturn(saved);
+    
+    ResponseEntity<TransactionDto> first = controller.create(transaction, "retry-create-1");
+    ResponseEntity<TransactionDto> retry = controller.create(transaction, "retry-create-1");
+    
+    assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+    assertEquals(saved, retry.getBody());
+    assertNull(first.getHeaders().getFirst("Idempotent-Replayed"));
+    assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+    verify(transactionService, times(1)).save(transaction);
+  }
+  
+  @Test
+  public void createAll_validMessage() {
+    List<Transaction> transactions = Collections.singletonList(Transaction.builder()
+      .account("ABC123")
+      .amount(19038)
+      .build());
+    List<TransactionBatchResult> expectedResults = Collections.singletonList(TransactionBatchResult.accepted("1A", "ABC123"));
+    when(transactionService.saveAll(transactions)).thenReturn(expectedResults);
+    assertEquals(expectedResults, controller.createAll(transactions));
+  }
+  
+  @Test
+  public void createAll_ndjson() {
+    String body = "{\"reference\":\"1A\",\"account_iban\":\"ABC123\",\"amount\":10}\n"
+      + "{\"reference\":\"1B\",\"account_iban\":\"ABC123\",\"amount\":-5}\n";
+    controller.createAll(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    verify(transactionService, times(1)).saveAll(argThat(transactions -> transactions.size() == 2
+      && "1B".equals(transactions.get(1).getReference())));
+  }
+  
+  @Test
+  public void findAll_noData() throws IOException {
+    assertEquals(Collections.emptyList(), findAll(Collections.emptyList()));
+    verify(transactionService, never()).findAll();
   }
   
   @Test
-  public void findAll_transactionsInOneAccount() {
+  public void findAll_transactionsInOneAccount() throws IOException {
     TransactionDto expectedTransaction1 = TransactionDto.builder()
       .reference("123A")
       .account("ABC123")
@@ -65,19 +127,18 @@ public class TransactionControllerTest {
       .reference("123B")
       .account("ABC123")
       .amount(90)
-      .fee(10d)
+      .fee(10)
       .build();
     
     List<TransactionDto> expectedTransactions = Arrays.asList(expectedTransaction1, expectedTransaction2);
-    when(transactionService.findAll()).thenReturn(expectedTransactions);
-    List<TransactionDto> transactions = controller.findAll();
+    List<TransactionDto> transactions = findAll(expectedTransactions);
     assertEquals(expectedTransactions, transactions);
     assertEquals(expectedTransaction1, transactions.get(0));
     assertEquals(expectedTransaction2, transactions.get(1));
   }
   
   @Test
-  public void findAll_transactionsInMultipleAccounts() {
+  public void findAll_transactionsInMultipleAccounts() throws IOException {
     TransactionDto expectedTransaction1 = TransactionDto.builder()
       .reference("123A")
       .account("ABC123")
@@ -88,17 +149,60 @@ public class TransactionControllerTest {
       .reference("123B")
       .account("ABC123")
       .amount(90)
-      .fee(10d)
+      .fee(10)
       .build();
     
     List<TransactionDto> expectedTransactions = Arrays.asList(expectedTransaction1, expectedTransaction2);
-    when(transactionService.findAll()).thenReturn(expectedTransactions);
-    List<TransactionDto> transactions = controller.findAll();
+    List<TransactionDto> transactions = findAll(expectedTransactions);
     assertEquals(expectedTransactions, transactions);
     assertEquals(expectedTransaction1, transactions.get(0));
     assertEquals(expectedTransaction2, transactions.get(1));
   }
   
+  private List<TransactionDto> findAll(final List<TransactionDto> stored) throws IOException {
+    doAnswer(invocation -> {
+      Consumer<TransactionDto> action = invocation.getArgument(0);
+      stored.forEach(action);
+      return null;
+    }).when(transactionService).forEach(any());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    controller.findAll().getBody().writeTo(output);
+    return Arrays.asList(objectMapper.readValue(output.toByteArray(), TransactionDto[].class));
+  }
+  
+  @Test
+  public void findPage_afterReference() {
+    List<TransactionDto> expectedTransactions = Collections.singletonList(TransactionDto.builder()
+      .reference("123B")
+      .account("ABC123")
+      .amount(90)
+      .build());
+    when(transactionService.findPage("123A", 10)).thenReturn(expectedTransactions);
+    assertEquals(expectedTransactions, controller.findPage("123A", 10));
+  }
+  
+  @Test(expected = ResponseStatusException.class)
+  public void findPage_invalidLimit() {
+    controller.findPage(null, 0);
+    fail("Expecting invalid parameter exception");
+  }
+  
+  @Test
+  public void streamAll_oneTransactionPerLine() throws IOException {
+    doAnswer(invocation -> {
+      Consumer<TransactionDto> action = invocation.getArgument(0);
+      action.accept(TransactionDto.builder().reference("123A").account("ABC123").amount(100).build());
+      action.accept(TransactionDto.builder().reference("123B").account("ABC123").amount(90).build());
+      return null;
+    }).when(transactionService).forEach(any());
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    controller.streamAll().getBody().writeTo(output);
+    String[] lines = output.toString(StandardCharsets.UTF_8.name()).split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].startsWith("{\"reference\":\"123A\""));
+    assertTrue(lines[1].startsWith("{\"reference\":\"123B\""));
+  }
+  
   @Test
   public void findAll_iban() {
     TransactionDto expectedTransaction1 = TransactionDto.builder()
@@ -111,12 +215,98 @@ public class TransactionControllerTest {
       .reference("123B")
       .account("ABC123")
       .amount(90)
-      .fee(10d)
+      .fee(10)
       .build();
     
     List<TransactionDto> expectedTransactions = Arrays.asList(expectedTransaction1, expectedTransaction2);
     when(transactionService.findAll("ABC123", null)).thenReturn(expectedTransactions);
-    List<TransactionDto> transactions = controller.findAll("ABC123", null);
+    List<TransactionDto> transactions = controller.findAll("ABC123", null, null, null);
     assertEquals(expectedTransactions, transactions);
   }
-}
\ No newline at end of file
+  
+  @Test
+  public void findPage_ibanSortedByFee() {
+    List<TransactionDto> expectedTransactions = Collections.singletonList(TransactionDto.builder()
+      .reference("123B")
+      .account("ABC123")
+      .amount(90)
+      .fee(10)
+      .build());
+    when(transactionService.findByAccount(eq("ABC123"), argThat(query -> query.getSortField() == TransactionSortField.FEE
+      && query.getDirection() == Sort.Direction.DESC && "123A".equals(query.getAfter()) && query.getLimit() == 10)))
+      .thenReturn(expectedTransactions);
+    assertEquals(expectedTransactions, controller.findPage("ABC123", "fee", "DESC", "123A", 10, null, null));
+  }
+  
+  @Test
+  public void findAll_ibanDateRangeSortedByAmount() {
+    LocalDateTime from = LocalDateTime.of(2019, 7, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2019, 8, 1, 0, 0);
+    List<TransactionDto> expectedTransactions = Collections.singletonList(TransactionDto.builder()
+      .reference("123B")
+      .account("ABC123")
+      .date(LocalDateTime.of(2019, 7, 16, 16, 55))
+      .amount(90)
+      .build());
+    when(transactionService.findByAccount(eq("ABC123"), argThat(query ->
+      query.getSortField() == TransactionSortField.AMOUNT && query.getDirection() == Sort.Direction.ASC
+        && from.equals(query.getFrom()) && to.equals(query.getTo()) && query.getLimit() == null)))
+      .thenReturn(expectedTransactions);
+    assertEquals(expectedTransactions, controller.findAll("ABC123", "ASC", from, to));
+    verify(transactionService, never()).findAll("ABC123", "ASC");
+  }
+  
+  @Test
+  public void findAll_ibanDateRangeSortedByDate() {
+    LocalDateTime from = LocalDateTime.of(2019, 7, 1, 0, 0);
+    controller.findAll("ABC123", null, from, null);
+    verify(transactionService).findByAccount(eq("ABC123"), argThat(query ->
+      query.getSortField() == TransactionSortField.DATE && from.equals(query.getFrom()) && query.getTo() == null));
+  }
+  
+  @Test(expected = ResponseStatusException.class)
+  public void findAll_ibanEmptyDateRange() {
+    LocalDateTime date = LocalDateTime.of(2019, 7, 1, 0, 0);
+    controller.findAll("ABC123", null, date, date);
+    fail("Expecting invalid parameter exception");
+  }
+  
+  @Test
+  public void findItems_ibanSparseFields() throws IOException {
+    AccountDto account = AccountDto.builder("ABC123").balance(100).build();
+    AccountTransactions transactions = new AccountTransactions(account, Arrays.asList(
+      new TransactionItem("1A", LocalDateTime.of(2019, 7, 16, 16, 55), 10000, 150, "Restaurant payment"),
+      new TransactionItem("1B", LocalDateTime.of(2019, 7, 17, 16, 55), -2000, 0, null)));
+    when(transactionService.findItemsByAccount(eq("ABC123"), argThat(query ->
+      query.getSortField() == TransactionSortField.AMOUNT && query.getDirection() == Sort.Direction.DESC)))
+      .thenReturn(transactions);
+    
+    MappingJacksonValue response = controller.findItems("ABC123", null, "DESC", null, 100,
+      Arrays.asList("reference", "amount"), null, null);
+    String body = objectMapper.writer(response.getFilters()).writeValueAsString(response.getValue());
+    JsonNode json = objectMapper.readTree(body);
+    assertEquals("ABC123", json.get("account").get("iban").asText());
+    assertEquals(2, json.get("transactions").size());
+    JsonNode first = json.get("transactions").get(0);
+    assertEquals(Arrays.asList("reference", "amount"), fieldNames(first));
+    assertTrue(body.contains("{\"reference\":\"1A\",\"amount\":100.00}"));
+  }
+  
+  @Test(expected = ResponseStatusException.class)
+  public void findItems_unknownField() {
+    controller.findItems(null, 100, Collections.singletonList("account"));
+    fail("Expecting invalid parameter exception");
+  }
+  
+  @Test(expected = ResponseStatusException.class)
+  public void findAll_ibanInvalidSortField() {
+    controller.findAll("ABC123", "description", null, null, null);
+    fail("Expecting invalid parameter exception");
+  }
+  
+  private static List<String> fieldNames(final JsonNode node) {
+    List<String> names = new ArrayList<>();
+    node.fieldNames().forEachRemaining(names::add);
+    return names;
+  }
+}
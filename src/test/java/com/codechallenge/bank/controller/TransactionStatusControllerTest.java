@@ -10,6 +10,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static com.codechallenge.bank.model.Status.INVALID;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.when;
@@ -35,4 +38,16 @@ public class TransactionStatusControllerTest {
     TransactionStatus status = controller.find(requester);
     assertEquals(expectedStatus, status);
   }
-}
\ No newline at end of file
+  
+  @Test
+  public void findAll_validMessage() {
+    List<TransactionStatusRequester> requesters = Arrays.asList(
+      TransactionStatusRequester.builder().reference("12345A").build(),
+      TransactionStatusRequester.builder().reference("12345B").build());
+    List<TransactionStatus> expectedStatuses = Arrays.asList(
+      TransactionStatus.builder().reference("12345A").status(INVALID).build(),
+      TransactionStatus.builder().reference("12345B").status(INVALID).build());
+    when(service.findStatusesFromChannel(requesters)).thenReturn(expectedStatuses);
+    assertEquals(expectedStatuses, controller.findAll(requesters));
+  }
+}
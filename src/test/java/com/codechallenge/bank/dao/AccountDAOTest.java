@@ -0,0 +1,39 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.dto.AccountDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class AccountDAOTest {
+  
+  @Autowired private AccountDAO dao;
+  
+  @Test
+  public void save_versionIncremented() {
+    AccountDto stored = dao.saveAndFlush(AccountDto.builder("ABC123").balance(100).build());
+    assertEquals(Long.valueOf(0), stored.getVersion());
+    AccountDto updated = dao.saveAndFlush(AccountDto.builder(stored).balance(70).build());
+    assertEquals(Long.valueOf(1), updated.getVersion());
+    assertEquals(70, dao.findById("ABC123").get().getBalance());
+  }
+  
+  @Test(expected = ObjectOptimisticLockingFailureException.class)
+  public void save_staleVersionRejected() {
+    AccountDto stored = dao.saveAndFlush(AccountDto.builder("ABC123").balance(100).build());
+    AccountDto stale = AccountDto.builder(stored).balance(50).build();
+    dao.saveAndFlush(AccountDto.builder(stored).balance(70).build());
+    dao.saveAndFlush(stale);
+  }
+}
@@ -0,0 +1,73 @@
+package com.codechallenge.bank.dao;
+
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class ConcurrencyLimitedDataSourceTest {
+  
+  private final DataSource pool = mock(DataSource.class);
+  private final Connection connection = mock(Connection.class);
+  
+  @Test
+  public void getConnection_waitsUntilAConnectionIsClosed() throws SQLException {
+    when(pool.getConnection()).thenReturn(connection);
+    ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, 50);
+  
+    Connection first = dataSource.getConnection();
+    try {
+      dataSource.getConnection();
+      fail("Only one connection can be held at the same time");
+    } catch (SQLTransientConnectionException ex) {
+      assertTrue(ex.getMessage().contains("50ms"));
+    }
+    first.close();
+  
+    assertNotNull(dataSource.getConnection());
+    verify(connection).close();
+    verify(pool, times(2)).getConnection();
+  }
+  
+  @Test
+  public void close_releasesOnlyOnce() throws SQLException {
+    when(pool.getConnection()).thenReturn(connection);
+    ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, 50);
+  
+    Connection first = dataSource.getConnection();
+    first.close();
+    first.close();
+  
+    dataSource.getConnection();
+    try {
+      dataSource.getConnection();
+      fail("A connection closed twice cannot give two permits back");
+    } catch (SQLTransientConnectionException ex) {
+      assertEquals(0, dataSource.getWaiting());
+    }
+  }
+  
+  @Test
+  public void getConnection_releasedWhenThePoolFails() throws SQLException {
+    when(pool.getConnection()).thenThrow(new SQLException("pool exhausted")).thenReturn(connection);
+    ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(pool, 1, 50);
+  
+    try {
+      dataSource.getConnection();
+      fail("The failure of the pool has to be propagated");
+    } catch (SQLException ex) {
+      assertEquals("pool exhausted", ex.getMessage());
+    }
+  
+    assertNotNull(dataSource.getConnection());
+  }
+}
@@ -0,0 +1,50 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.service.TransactionService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+  + "com.codechallenge.bank.dao.RecordingStatementInspector")
+public class JpaStorageTest extends StorageContractTest {
+  
+  @Autowired private TransactionService transactionService;
+  @Autowired private AccountSummaryStorage summaryStorage;
+  
+  @Test
+  public void storage_defaultEngine() {
+    assertTrue(accountStorage instanceof JpaAccountStorage);
+    assertTrue(transactionStorage instanceof JpaTransactionStorage);
+    assertTrue(summaryStorage instanceof JpaAccountSummaryStorage);
+  }
+  
+  @Test
+  public void save_newReferenceIsInsertedWithoutSelectingIt() {
+    String id = newId();
+    saveAccount(id, 5000);
+    RecordingStatementInspector.clear();
+    
+    transactionService.save(Transaction.builder().reference(id + "-1").account(id).amount(100).build());
+    
+    List<String> transactionStatements = RecordingStatementInspector.recorded().stream()
+      .map(String::toLowerCase)
+      .filter(sql -> sql.contains("account_transaction"))
+      .collect(Collectors.toList());
+    assertEquals(1, transactionStatements.size());
+    assertTrue(transactionStatements.get(0), transactionStatements.get(0).startsWith("insert"));
+  }
+}
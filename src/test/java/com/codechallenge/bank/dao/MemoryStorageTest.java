@@ -0,0 +1,148 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.service.AccountSummaryService;
+import com.codechallenge.bank.service.TransactionService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "bank.storage.memory.snapshot-file=")
+@ActiveProfiles("memory")
+public class MemoryStorageTest extends StorageContractTest {
+  
+  @Autowired private MemoryStorage storage;
+  @Autowired private AccountSummaryStorage summaryStorage;
+  @Autowired private AccountSummaryService summaryService;
+  @Autowired private TransactionService transactionService;
+  
+  @Test
+  public void storage_memoryEngine() {
+    assertTrue(accountStorage instanceof MemoryAccountStorage);
+    assertTrue(transactionStorage instanceof MemoryStorage);
+    assertTrue(summaryStorage instanceof MemoryAccountSummaryStorage);
+  }
+  
+  @Test
+  public void writeSnapshot_keepsTheSummaries() throws IOException {
+    String id = newId();
+    transactionService.save(Transaction.builder().account(id).amount(10000).date(LocalDateTime.of(2026, 10, 1, 9, 0))
+      .build());
+    transactionService.save(Transaction.builder().account(id).amount(-2500).fee(150)
+      .date(LocalDateTime.of(2026, 10, 2, 9, 0)).build());
+    Path snapshot = Files.createTempFile("memory-storage", ".snapshot");
+    try {
+      storage.writeSnapshot(snapshot);
+      MemoryStorage restored = new MemoryStorage();
+      restored.readSnapshot(snapshot);
+      
+      AccountSummaryDto summary = restored.findSummary(id).get();
+      assertEquals(2, summary.getTransactionCount());
+      assertEquals(10000, summary.getCreditSum());
+      assertEquals(2500, summary.getDebitSum());
+      assertEquals(150, summary.getFeeSum());
+      assertEquals(LocalDateTime.of(2026, 10, 2, 9, 0), summary.getLastTransactionDate());
+      assertEquals(2, summaryService.findByIban(id).getTransactionCount());
+    } finally {
+      Files.deleteIfExists(snapshot);
+    }
+  }
+  
+  @Test
+  public void writeSnapshot_skipsTheWritesRolledBackLater() throws Exception {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    CountDownLatch written = new CountDownLatch(1);
+    CompletableFuture<Void> rolledBack = CompletableFuture.runAsync(() -> transactionTemplate.execute(status -> {
+      transactionStorage.persistAll(Collections.singletonList(transaction(id + "-1", account, 100, 0, null, null)));
+      written.countDown();
+      sleep(200);
+      status.setRollbackOnly();
+      return null;
+    }));
+    assertTrue(written.await(5, TimeUnit.SECONDS));
+    assertTrue(transactionStorage.existsById(id + "-1"));
+    Path snapshot = Files.createTempFile("memory-storage", ".snapshot");
+    try {
+      storage.writeSnapshot(snapshot);
+      rolledBack.get(5, TimeUnit.SECONDS);
+      MemoryStorage restored = new MemoryStorage();
+      restored.readSnapshot(snapshot);
+      
+      assertTrue(restored.findAccount(id).isPresent());
+      assertFalse(restored.existsById(id + "-1"));
+    } finally {
+      Files.deleteIfExists(snapshot);
+    }
+  }
+  
+  @Test
+  public void readSnapshot_restoresTheAccountsAndTransactions() throws IOException {
+    String id = newId();
+    AccountDto account = accountStorage.save(AccountDto.builder(id).balance(1200).build());
+    persist(transaction(id + "-1", account, 1000, 25, LocalDateTime.of(2026, 9, 30, 12, 0, 0, 123456789), "Salary"),
+      transaction(id + "-2", account, 200, 0, LocalDateTime.of(2026, 10, 1, 9, 30), null));
+    Path snapshot = Files.createTempFile("memory-storage", ".snapshot");
+    try {
+      storage.writeSnapshot(snapshot);
+      MemoryStorage restored = new MemoryStorage();
+      restored.readSnapshot(snapshot);
+      
+      AccountDto restoredAccount = restored.findAccount(id).get();
+      assertEquals(1200, restoredAccount.getBalance());
+      assertEquals(account.getVersion(), restoredAccount.getVersion());
+      assertEquals(account.getDate(), restoredAccount.getDate());
+      TransactionDto transaction = restored.findById(id + "-1").get();
+      assertEquals(1000, transaction.getAmount());
+      assertEquals(25, transaction.getFee());
+      assertEquals(LocalDateTime.of(2026, 9, 30, 12, 0, 0, 123456789), transaction.getDate());
+      assertEquals("Salary", transaction.getDescription());
+      assertNull(restored.findById(id + "-2").get().getDescription());
+      assertEquals(2, restored.findByAccount(restoredAccount).size());
+      assertEquals(Collections.singletonList(id + "-2"), restored.findReferencesIn(Collections.singletonList(id + "-2")));
+    } finally {
+      Files.deleteIfExists(snapshot);
+    }
+  }
+  
+  @Test(expected = IOException.class)
+  public void readSnapshot_otherFile() throws IOException {
+    Path file = Files.createTempFile("memory-storage", ".txt");
+    try {
+      Files.write(file, "reference,amount\n".getBytes());
+      new MemoryStorage().readSnapshot(file);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+  
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package com.codechallenge.bank.dao;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the SQL statements prepared by hibernate in the current thread, so a test can check which ones a call issued.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class RecordingStatementInspector implements StatementInspector {
+  
+  private static final ThreadLocal<List<String>> statements = ThreadLocal.withInitial(ArrayList::new);
+  
+  @Override
+  public String inspect(final String sql) {
+    statements.get().add(sql);
+    return sql;
+  }
+  
+  public static List<String> recorded() {
+    return statements.get();
+  }
+  
+  public static void clear() {
+    statements.get().clear();
+  }
+}
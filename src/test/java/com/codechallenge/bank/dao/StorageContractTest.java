@@ -0,0 +1,361 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.TransactionSortField;
+import com.codechallenge.bank.model.TransactionStatus;
+import com.codechallenge.bank.model.TransactionStatusRequester;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import com.codechallenge.bank.service.TransactionStatusService;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.codechallenge.bank.model.Channel.CLIENT;
+import static com.codechallenge.bank.model.Channel.INTERNAL;
+import static com.codechallenge.bank.model.Status.INVALID;
+import static com.codechallenge.bank.model.Status.SETTLED;
+import static org.junit.Assert.*;
+
+/**
+ * Behaviour that every {@link AccountStorage} and {@link TransactionStorage} engine has to fulfill, run against each
+ * engine by its subclass.
+ *
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public abstract class StorageContractTest {
+  
+  private static final LocalDateTime DATE = LocalDateTime.of(2026, 9, 30, 12, 0);
+  
+  @Autowired protected AccountStorage accountStorage;
+  @Autowired protected TransactionStorage transactionStorage;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private TransactionStatusService statusService;
+  
+  protected TransactionTemplate transactionTemplate;
+  
+  @Before
+  public void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+  }
+  
+  @Test
+  public void saveAccount_staleVersionIsRejected() {
+    String iban = newId();
+    AccountDto saved = accountStorage.save(AccountDto.builder(iban).balance(1000).build());
+    AccountDto updated = accountStorage.save(AccountDto.builder(saved).balance(2500).build());
+    
+    assertEquals(2500, accountStorage.findById(iban).get().getBalance());
+    assertNotEquals(saved.getVersion(), updated.getVersion());
+    try {
+      accountStorage.save(AccountDto.builder(saved).balance(0).build());
+      fail("The account was saved with a stale version");
+    } catch (OptimisticLockingFailureException ex) {
+      assertEquals(2500, accountStorage.findById(iban).get().getBalance());
+    }
+    assertTrue(accountStorage.findAll().stream().anyMatch(account -> iban.equals(account.getIban())));
+  }
+  
+  @Test
+  public void persistAll_findsTheTransactionsByReference() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    persist(transaction(id + "-1", account, 1000, 10, DATE, "Salary"),
+      transaction(id + "-2", account, -300, 0, DATE.plusDays(1), null));
+    
+    TransactionDto found = transactionStorage.findById(id + "-1").get();
+    assertEquals(id, found.getAccount().getIban());
+    assertEquals(1000, found.getAmount());
+    assertEquals(10, found.getFee());
+    assertEquals(DATE, found.getDate());
+    assertEquals("Salary", found.getDescription());
+    assertTrue(transactionStorage.existsById(id + "-2"));
+    assertFalse(transactionStorage.existsById(id + "-3"));
+    assertFalse(transactionStorage.findById(id + "-3").isPresent());
+    TransactionStatusView view = transactionStorage.findStatusViewById(id + "-2").get();
+    assertFalse(view instanceof TransactionDto);
+    assertEquals(-300, view.getAmount());
+    assertEquals(DATE.plusDays(1), view.getDate());
+    assertEquals(Arrays.asList(id + "-1", id + "-2"), transactionStorage.findStatusViewsByIdIn(
+      Arrays.asList(id + "-1", id + "-2", id + "-3")).stream()
+      .map(TransactionStatusView::getReference)
+      .sorted()
+      .collect(Collectors.toList()));
+    assertEquals(Collections.singletonList(id + "-2"),
+      transactionStorage.findReferencesIn(Arrays.asList(id + "-2", id + "-3")));
+  }
+  
+  @Test
+  public void statusService_readsTheStoredTransactions() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    persist(transaction(id + "-1", account, 1000, 10, DATE, null));
+    TransactionStatusRequester stored = TransactionStatusRequester.builder().reference(id + "-1").channel(INTERNAL)
+      .build();
+    TransactionStatusRequester missing = TransactionStatusRequester.builder().reference(id + "-2").channel(CLIENT)
+      .build();
+    
+    TransactionStatus status = statusService.findStatusFromChannel(stored);
+    assertEquals(SETTLED, status.getStatus());
+    assertEquals(1000, status.getAmount());
+    assertEquals(10, status.getFee());
+    assertEquals(Arrays.asList(SETTLED, INVALID), statusService.findStatusesFromChannel(Arrays.asList(stored, missing))
+      .stream()
+      .map(TransactionStatus::getStatus)
+      .collect(Collectors.toList()));
+  }
+  
+  @Test(expected = DataIntegrityViolationException.class)
+  public void persistAll_usedReferenceIsRejected() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    persist(transaction(id + "-1", account, 1000, 0, DATE, null));
+    persist(transaction(id + "-1", account, 2000, 0, DATE, null));
+  }
+  
+  @Test
+  public void save_usedReferenceIsRejected() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    persist(transaction(id + "-1", account, 1000, 0, DATE, null));
+    try {
+      transactionTemplate.execute(status -> transactionStorage.save(transaction(id + "-1", account, 2000, 0, DATE,
+        null)));
+      fail("The stored transaction was overwritten");
+    } catch (DataIntegrityViolationException ex) {
+      assertEquals(1000, transactionStorage.findById(id + "-1").get().getAmount());
+    }
+  }
+  
+  @Test
+  public void rollback_undoesTheWrites() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    String newIban = newId();
+    
+    transactionTemplate.execute(status -> {
+      AccountDto newAccount = accountStorage.save(AccountDto.builder(newIban).balance(100).build());
+      accountStorage.save(AccountDto.builder(accountStorage.findById(id).get()).balance(7000).build());
+      transactionStorage.persistAll(Arrays.asList(transaction(id + "-1", account, 2000, 0, DATE, null),
+        transaction(id + "-2", newAccount, 100, 0, DATE, null)));
+      status.setRollbackOnly();
+      return null;
+    });
+    
+    assertFalse(accountStorage.findById(newIban).isPresent());
+    assertEquals(5000, accountStorage.findById(id).get().getBalance());
+    assertFalse(transactionStorage.existsById(id + "-1"));
+    assertFalse(transactionStorage.existsById(id + "-2"));
+    assertTrue(transactionStorage.findByAccount(account).isEmpty());
+    AccountDto saved = accountStorage.save(AccountDto.builder(accountStorage.findById(id).get()).balance(6000).build());
+    assertEquals(6000, saved.getBalance());
+  }
+  
+  @Test
+  public void findByAccount_pagesFollowTheQueryOrder() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    AccountDto otherAccount = saveAccount(newId(), 5000);
+    List<TransactionDto> transactions = new ArrayList<>();
+    for (int i = 0; i < 11; i++) {
+      transactions.add(transaction(String.format("%s-%02d", id, i), account, (i % 4) * 100 - 100, i % 3,
+        DATE.plusDays(i % 5), null));
+    }
+    transactions.add(transaction(id + "-OTHER", otherAccount, 100, 0, DATE, null));
+    persist(transactions.toArray(new TransactionDto[0]));
+    
+    for (TransactionSortField field : TransactionSortField.values()) {
+      for (Sort.Direction direction : Sort.Direction.values()) {
+        List<String> expected = transactionStorage.findByAccount(account, TransactionQuery.builder()
+          .sortField(field)
+          .direction(direction)
+          .build()).stream()
+          .map(TransactionDto::getReference)
+          .collect(Collectors.toList());
+        assertEquals(11, expected.size());
+        List<String> paged = new ArrayList<>();
+        String after = null;
+        for (int page = 0; page < 4; page++) {
+          List<TransactionItem> items = transactionStorage.findItemsByAccount(account, TransactionQuery.builder()
+            .sortField(field)
+            .direction(direction)
+            .after(after)
+            .limit(3)
+            .build());
+          items.forEach(item -> paged.add(item.getReference()));
+          after = items.isEmpty() ? after : items.get(items.size() - 1).getReference();
+        }
+        assertEquals(field + " " + direction, expected, paged);
+        assertSorted(field, direction, transactionStorage.findByAccount(account, TransactionQuery.builder()
+          .sortField(field)
+          .direction(direction)
+          .build()));
+      }
+    }
+  }
+  
+  @Test
+  public void findByAccount_dateRangeAndSort() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    persist(transaction(id + "-1", account, 300, 0, DATE, null),
+      transaction(id + "-2", account, -100, 5, DATE.plusDays(1), "Shop"),
+      transaction(id + "-3", account, 200, 0, DATE.plusDays(2), null),
+      transaction(id + "-4", account, 50, 0, DATE.plusDays(3), null));
+    TransactionQuery range = TransactionQuery.builder()
+      .sortField(TransactionSortField.DATE)
+      .from(DATE.plusDays(1))
+      .to(DATE.plusDays(3))
+      .build();
+    
+    assertEquals(Arrays.asList(id + "-2", id + "-3"), transactionStorage.findByAccount(account, range).stream()
+      .map(TransactionDto::getReference)
+      .collect(Collectors.toList()));
+    List<String> streamed = transactionTemplate.execute(status -> {
+      try (Stream<TransactionItem> items = transactionStorage.streamItemsByAccount(account, range)) {
+        return items.map(TransactionItem::getReference).collect(Collectors.toList());
+      }
+    });
+    assertEquals(Arrays.asList(id + "-2", id + "-3"), streamed);
+    assertEquals(200, transactionStorage.sumAmountsBefore(account, DATE.plusDays(2)));
+    assertEquals(Arrays.asList(-100L, 50L, 200L, 300L), transactionStorage.findByAccount(account,
+      Sort.by(Sort.Direction.ASC, "amount")).stream()
+      .map(TransactionDto::getAmount)
+      .collect(Collectors.toList()));
+    assertEquals(4, transactionStorage.findByAccount(account).size());
+  }
+  
+  @Test(expected = DataNotFoundException.class)
+  public void findByAccount_afterTransactionOfOtherAccount() {
+    AccountDto account = saveAccount(newId(), 5000);
+    String otherId = newId();
+    AccountDto otherAccount = saveAccount(otherId, 5000);
+    persist(transaction(otherId + "-1", otherAccount, 100, 0, DATE, null));
+    
+    transactionStorage.findByAccount(account, TransactionQuery.builder()
+      .sortField(TransactionSortField.AMOUNT)
+      .after(otherId + "-1")
+      .build());
+  }
+  
+  @Test
+  public void computeSummary_fromTheStoredTransactions() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    persist(transaction(id + "-1", account, 1000, 10, DATE, null),
+      transaction(id + "-2", account, -300, 5, DATE.plusDays(2), null),
+      transaction(id + "-3", account, 200, 0, DATE.plusDays(1), null));
+    
+    AccountSummaryDto summary = transactionStorage.computeSummary(id).get();
+    assertEquals(3, summary.getTransactionCount());
+    assertEquals(1200, summary.getCreditSum());
+    assertEquals(300, summary.getDebitSum());
+    assertEquals(15, summary.getFeeSum());
+    assertEquals(DATE.plusDays(2), summary.getLastTransactionDate());
+    assertFalse(transactionStorage.computeSummary(newId()).isPresent());
+  }
+  
+  @Test
+  public void findPage_orderedByReference() {
+    String id = newId();
+    AccountDto account = saveAccount(id, 5000);
+    persist(transaction(id + "-3", account, 100, 0, DATE, null),
+      transaction(id + "-1", account, 100, 0, DATE, null),
+      transaction(id + "-2", account, 100, 0, DATE, "Refund"));
+    
+    assertEquals(Arrays.asList(id + "-1", id + "-2"), transactionStorage.findPage(id + "-0", 2).stream()
+      .map(TransactionDto::getReference)
+      .collect(Collectors.toList()));
+    TransactionItem item = transactionStorage.findItems(id + "-1", 1).get(0);
+    assertEquals(id + "-2", item.getReference());
+    assertEquals(id, item.getAccount());
+    assertEquals("Refund", item.getDescription());
+    
+    List<String> visited = new ArrayList<>();
+    transactionStorage.forEach(transaction -> {
+      if (transaction.getReference().startsWith(id)) {
+        visited.add(transaction.getReference());
+      }
+    });
+    assertEquals(Arrays.asList(id + "-1", id + "-2", id + "-3"), visited);
+    List<String> references = transactionTemplate.execute(status -> {
+      try (Stream<String> stored = transactionStorage.streamAllReferences()) {
+        return stored.filter(reference -> reference.startsWith(id)).sorted().collect(Collectors.toList());
+      }
+    });
+    assertEquals(visited, references);
+    assertTrue(transactionStorage.findAll().stream().anyMatch(transaction -> transaction.getReference().equals(id + "-3")));
+  }
+  
+  protected AccountDto saveAccount(final String iban, final long balance) {
+    return accountStorage.save(AccountDto.builder(iban).balance(balance).build());
+  }
+  
+  protected void persist(final TransactionDto... transactions) {
+    transactionTemplate.execute(status -> {
+      transactionStorage.persistAll(Arrays.asList(transactions));
+      return null;
+    });
+  }
+  
+  protected static TransactionDto transaction(final String reference, final AccountDto account, final long amount,
+                                              final long fee, final LocalDateTime date, final String description) {
+    return TransactionDto.builder()
+      .reference(reference)
+      .account(account)
+      .amount(amount)
+      .fee(fee)
+      .date(date)
+      .description(description)
+      .build();
+  }
+  
+  protected static String newId() {
+    return "ES" + UUID.randomUUID().toString().replace("-", "").substring(0, 20).toUpperCase();
+  }
+  
+  private static void assertSorted(final TransactionSortField field, final Sort.Direction direction,
+                                   final List<TransactionDto> transactions) {
+    for (int i = 1; i < transactions.size(); i++) {
+      TransactionDto previous = transactions.get(i - 1);
+      TransactionDto current = transactions.get(i);
+      int compared;
+      switch (field) {
+        case AMOUNT:
+          compared = Long.compare(previous.getAmount(), current.getAmount());
+          break;
+        case FEE:
+          compared = Long.compare(previous.getFee(), current.getFee());
+          break;
+        case DATE:
+          compared = previous.getDate().compareTo(current.getDate());
+          break;
+        default:
+          compared = 0;
+      }
+      if (compared == 0) {
+        compared = previous.getReference().compareTo(current.getReference());
+      }
+      assertTrue(field + " " + direction + " at " + i, direction.isAscending() ? compared < 0 : compared > 0);
+    }
+  }
+}
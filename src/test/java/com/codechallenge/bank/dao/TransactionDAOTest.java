@@ -0,0 +1,210 @@
+package com.codechallenge.bank.dao;
+
+import com.codechallenge.bank.model.TransactionItem;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.TransactionSortField;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusFields;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+  + "com.codechallenge.bank.dao.RecordingStatementInspector")
+public class TransactionDAOTest {
+  
+  @Autowired private TransactionDAO dao;
+  @Autowired private AccountDAO accountDAO;
+  
+  private AccountDto account;
+  private List<TransactionDto> transactions;
+  
+  @Before
+  public void setUp() {
+    account = accountDAO.save(AccountDto.builder().iban("ABC123").balance(1000).build());
+    AccountDto otherAccount = accountDAO.save(AccountDto.builder().iban("DEF456").balance(1000).build());
+    LocalDateTime date = LocalDateTime.of(2019, 9, 25, 10, 0);
+    transactions = new ArrayList<>();
+    for (int i = 0; i < 23; i++) {
+      transactions.add(TransactionDto.builder()
+        .reference(String.format("REF%02d", i))
+        .account(account)
+        .date(date.plusDays(i % 4))
+        .amount((i % 5) * 10 - 20)
+        .fee((i % 3 == 0) ? 0 : i % 2)
+        .build());
+    }
+    dao.persistAll(transactions);
+    dao.persistAll(List.of(TransactionDto.builder().reference("REF99").account(otherAccount).amount(5).build()));
+  }
+  
+  @Test
+  public void findByAccount_pagesFollowTheFullOrder() {
+    for (TransactionSortField field : TransactionSortField.values()) {
+      for (Sort.Direction direction : Sort.Direction.values()) {
+        List<String> expected = dao.findByAccount(account, TransactionQuery.builder()
+          .sortField(field)
+          .direction(direction)
+          .build())
+          .stream()
+          .map(TransactionDto::getReference)
+          .collect(Collectors.toList());
+        assertEquals(transactions.size(), expected.size());
+        assertEquals(expected, readAllPages(field, direction, 4));
+      }
+    }
+  }
+  
+  @Test
+  public void findByAccount_sortedByAmount() {
+    List<TransactionDto> sorted = dao.findByAccount(account, TransactionQuery.builder()
+      .sortField(TransactionSortField.AMOUNT)
+      .direction(Sort.Direction.DESC)
+      .build());
+    List<TransactionDto> expected = new ArrayList<>(transactions);
+    expected.sort(Comparator.comparingLong(TransactionDto::getAmount).reversed()
+      .thenComparing(TransactionDto::getReference, Comparator.reverseOrder()));
+    assertEquals(expected, sorted);
+  }
+  
+  @Test
+  public void findByAccount_dateRangeSortedByAmount() {
+    LocalDateTime from = LocalDateTime.of(2019, 9, 26, 10, 0);
+    LocalDateTime to = LocalDateTime.of(2019, 9, 28, 10, 0);
+    TransactionQuery query = TransactionQuery.builder()
+      .sortField(TransactionSortField.AMOUNT)
+      .direction(Sort.Direction.DESC)
+      .from(from)
+      .to(to)
+      .build();
+    List<TransactionDto> expected = transactions.stream()
+      .filter(transaction -> !transaction.getDate().isBefore(from) && transaction.getDate().isBefore(to))
+      .sorted(Comparator.comparingLong(TransactionDto::getAmount).reversed()
+        .thenComparing(TransactionDto::getReference, Comparator.reverseOrder()))
+      .collect(Collectors.toList());
+    assertEquals(12, expected.size());
+    assertEquals(expected, dao.findByAccount(account, query));
+    
+    List<TransactionDto> firstPage = dao.findByAccount(account, TransactionQuery.builder()
+      .sortField(TransactionSortField.AMOUNT)
+      .direction(Sort.Direction.DESC)
+      .from(from)
+      .to(to)
+      .limit(5)
+      .build());
+    List<TransactionDto> secondPage = dao.findByAccount(account, TransactionQuery.builder()
+      .sortField(TransactionSortField.AMOUNT)
+      .direction(Sort.Direction.DESC)
+      .from(from)
+      .to(to)
+      .after(firstPage.get(4).getReference())
+      .limit(5)
+      .build());
+    assertEquals(expected.subList(0, 5), firstPage);
+    assertEquals(expected.subList(5, 10), secondPage);
+  }
+  
+  @Test
+  public void findItemsByAccount_sameOrderAsEntities() {
+    TransactionQuery query = TransactionQuery.builder()
+      .sortField(TransactionSortField.FEE)
+      .direction(Sort.Direction.DESC)
+      .after("REF05")
+      .limit(7)
+      .build();
+    List<String> expected = dao.findByAccount(account, query).stream()
+      .map(TransactionDto::getReference)
+      .collect(Collectors.toList());
+    List<TransactionItem> items = dao.findItemsByAccount(account, query);
+    assertEquals(expected, items.stream().map(TransactionItem::getReference).collect(Collectors.toList()));
+    assertNull(items.get(0).getAccount());
+  }
+  
+  @Test
+  public void findItems_accountIbanFromForeignKey() {
+    List<TransactionItem> items = dao.findItems("REF20", 10);
+    assertEquals(List.of("REF21", "REF22", "REF99"),
+      items.stream().map(TransactionItem::getReference).collect(Collectors.toList()));
+    assertEquals("ABC123", items.get(0).getAccount());
+    assertEquals("DEF456", items.get(2).getAccount());
+    assertEquals(transactions.get(21).getAmount(), items.get(0).getAmount());
+    assertEquals(24, dao.findItems(null, 1000).size());
+  }
+  
+  @Test
+  public void findStatusViewById_onlyStatusFields() {
+    TransactionStatusView view = dao.findStatusViewById("REF04").get();
+    TransactionDto stored = transactions.get(4);
+    assertFalse(view instanceof TransactionDto);
+    assertTrue(view instanceof TransactionStatusFields);
+    assertEquals("REF04", view.getReference());
+    assertEquals(stored.getDate(), view.getDate());
+    assertEquals(stored.getAmount(), view.getAmount());
+    assertEquals(stored.getFee(), view.getFee());
+    assertFalse(dao.findStatusViewById("NEW").isPresent());
+  }
+  
+  @Test
+  public void findStatusViewsByIdIn_foundReferences() {
+    List<String> references = dao.findStatusViewsByIdIn(List.of("REF01", "REF99", "NEW")).stream()
+      .map(TransactionStatusView::getReference)
+      .sorted()
+      .collect(Collectors.toList());
+    assertEquals(List.of("REF01", "REF99"), references);
+  }
+  
+  @Test
+  public void findStatusViews_selectOnlyTheTransactionTable() {
+    RecordingStatementInspector.clear();
+    dao.findStatusViewById("REF04");
+    dao.findStatusViewsByIdIn(List.of("REF01", "REF99"));
+    List<String> selects = RecordingStatementInspector.recorded().stream()
+      .filter(sql -> sql.startsWith("select"))
+      .collect(Collectors.toList());
+    assertEquals(2, selects.size());
+    selects.forEach(sql -> assertFalse(sql, sql.contains("account_dto")));
+  }
+  
+  @Test
+  public void findReferencesIn_storedReferences() {
+    List<String> references = dao.findReferencesIn(List.of("REF01", "REF22", "NEW"));
+    references.sort(Comparator.naturalOrder());
+    assertEquals(List.of("REF01", "REF22"), references);
+  }
+  
+  private List<String> readAllPages(final TransactionSortField field, final Sort.Direction direction, final int limit) {
+    List<String> references = new ArrayList<>();
+    String after = null;
+    List<TransactionDto> page;
+    do {
+      page = dao.findByAccount(account, TransactionQuery.builder()
+        .sortField(field)
+        .direction(direction)
+        .after(after)
+        .limit(limit)
+        .build());
+      page.forEach(transaction -> references.add(transaction.getReference()));
+      after = page.isEmpty() ? after : page.get(page.size() - 1).getReference();
+    } while (page.size() == limit);
+    return references;
+  }
+}
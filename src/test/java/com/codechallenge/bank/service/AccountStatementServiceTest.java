@@ -0,0 +1,82 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.Transaction;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AccountStatementServiceTest {
+  
+  private static final LocalDateTime DATE = LocalDateTime.of(2026, 9, 30, 12, 0);
+  
+  @Autowired private AccountStatementService service;
+  @Autowired private TransactionService transactionService;
+  
+  @Test
+  public void write_runningBalanceFromTheBalanceBeforeTheRange() throws IOException {
+    String iban = newIban();
+    save(iban, "S1", 10000, 0, DATE, null);
+    save(iban, "S3", -2500, 150, DATE.plusDays(2), "Restaurant, \"La Tagliatella\"");
+    save(iban, "S2", 4000, 0, DATE.plusDays(1), "Refund");
+    save(iban, "S4", -1000, 0, DATE.plusDays(3), null);
+    
+    StringWriter output = new StringWriter();
+    service.write(iban, DATE.plusDays(1), DATE.plusDays(3), output);
+    
+    assertEquals("reference,date,description,amount,fee,balance\r\n"
+      + "S2" + iban + ",2026-10-01T12:00,Refund,40.00,0.00,140.00\r\n"
+      + "S3" + iban + ",2026-10-02T12:00,\"Restaurant, \"\"La Tagliatella\"\"\",-25.00,1.50,115.00\r\n",
+      output.toString());
+  }
+  
+  @Test
+  public void write_wholeAccountEndsWithItsBalance() throws IOException {
+    String iban = newIban();
+    save(iban, "S1", 10000, 0, DATE, null);
+    save(iban, "S2", -2500, 0, DATE.plusDays(1), null);
+    
+    StringWriter output = new StringWriter();
+    service.write(iban, null, null, output);
+    
+    String[] lines = output.toString().split("\r\n");
+    assertEquals(3, lines.length);
+    assertTrue(lines[2].endsWith(",75.00"));
+  }
+  
+  @Test(expected = DataNotFoundException.class)
+  public void write_unknownAccount() throws IOException {
+    service.write(newIban(), null, null, new StringWriter());
+  }
+  
+  private void save(final String iban, final String reference, final long amount, final long fee,
+                    final LocalDateTime date, final String description) {
+    transactionService.save(Transaction.builder()
+      .reference(reference + iban)
+      .account(iban)
+      .amount(amount)
+      .fee(fee)
+      .date(date)
+      .description(description)
+      .build());
+  }
+  
+  private static String newIban() {
+    return "ES" + UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+  }
+}
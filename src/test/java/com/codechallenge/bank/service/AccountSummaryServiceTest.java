@@ -0,0 +1,101 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.dao.AccountSummaryDAO;
+import com.codechallenge.bank.exception.DataNotFoundException;
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AccountSummaryServiceTest {
+  
+  private static final LocalDateTime DATE = LocalDateTime.of(2026, 10, 17, 12, 0);
+  
+  @Autowired private AccountSummaryService service;
+  @Autowired private TransactionService transactionService;
+  @Autowired private AccountSummaryDAO dao;
+  
+  @Test
+  public void save_updatesTheSummary() {
+    String iban = newIban();
+    transactionService.save(transaction(iban, 10000, 0, DATE));
+    transactionService.save(transaction(iban, -2500, 150, DATE.plusDays(2)));
+    transactionService.saveAll(Arrays.asList(
+      transaction(iban, 4000, 0, DATE.plusDays(1)),
+      transaction(iban, -50000, 0, DATE.plusDays(3))));
+    
+    AccountSummaryDto summary = service.findByIban(iban);
+    
+    assertEquals(3, summary.getTransactionCount());
+    assertEquals(14000, summary.getCreditSum());
+    assertEquals(2500, summary.getDebitSum());
+    assertEquals(150, summary.getFeeSum());
+    assertEquals(DATE.plusDays(2), summary.getLastTransactionDate());
+  }
+  
+  @Test
+  public void save_rejectedTransactionNotCounted() {
+    String iban = newIban();
+    transactionService.save(transaction(iban, 1000, 0, DATE));
+    try {
+      transactionService.save(transaction(iban, -2000, 0, DATE));
+      fail("The balance cannot be below 0");
+    } catch (ResponseStatusException ex) {
+      assertEquals(1, service.findByIban(iban).getTransactionCount());
+    }
+  }
+  
+  @Test
+  public void rebuild_sameSummaryAsTheStoredTransactions() {
+    String iban = newIban();
+    transactionService.save(transaction(iban, 10000, 0, DATE));
+    transactionService.save(transaction(iban, -2500, 150, DATE.plusDays(2)));
+    AccountSummaryDto expected = service.findByIban(iban);
+    dao.deleteById(iban);
+    assertEquals(0, service.findByIban(iban).getTransactionCount());
+    
+    assertTrue(service.rebuild() > 0);
+    
+    AccountSummaryDto summary = service.findByIban(iban);
+    assertEquals(expected.getTransactionCount(), summary.getTransactionCount());
+    assertEquals(expected.getCreditSum(), summary.getCreditSum());
+    assertEquals(expected.getDebitSum(), summary.getDebitSum());
+    assertEquals(expected.getFeeSum(), summary.getFeeSum());
+    assertEquals(expected.getLastTransactionDate(), summary.getLastTransactionDate());
+  }
+  
+  @Test(expected = DataNotFoundException.class)
+  public void findByIban_unknownAccount() {
+    service.findByIban(newIban());
+  }
+  
+  private static String newIban() {
+    return "ES" + UUID.randomUUID().toString().replace("-", "").substring(0, 20);
+  }
+  
+  private static Transaction transaction(final String iban, final long amount, final long fee,
+                                         final LocalDateTime date) {
+    return Transaction.builder()
+      .account(iban)
+      .amount(amount)
+      .fee(fee)
+      .date(date)
+      .build();
+  }
+}
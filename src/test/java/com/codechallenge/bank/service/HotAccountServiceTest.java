@@ -0,0 +1,151 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.dao.AccountShardDAO;
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.dto.AccountDto;
+import com.codechallenge.bank.model.dto.AccountShardDto;
+import com.codechallenge.bank.model.dto.AccountSummaryDto;
+import com.codechallenge.bank.model.dto.TransactionDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"bank.hot-accounts.ibans=ESHOT001,ESHOT002,ESHOT003,ESHOT004,ESHOT005",
+  "bank.hot-accounts.shards=4"})
+public class HotAccountServiceTest {
+  
+  private static final LocalDateTime DATE = LocalDateTime.of(2026, 10, 17, 12, 0);
+  
+  @Autowired private HotAccountService service;
+  @Autowired private TransactionService transactionService;
+  @Autowired private AccountService accountService;
+  @Autowired private AccountSummaryService accountSummaryService;
+  @Autowired private AccountShardDAO shardDAO;
+  
+  @Test
+  public void allKeys_onlyTheHotAccountsHaveShards() {
+    assertTrue(service.isHot("ESHOT001"));
+    assertEquals(5, service.allKeys("ESHOT001").size());
+    assertEquals(AccountShardDto.key("ESHOT001", 3), service.allKeys("ESHOT001").get(4));
+    assertFalse(service.isHot("ES0001"));
+    assertEquals(1, service.allKeys("ES0001").size());
+  }
+  
+  @Test
+  public void save_concurrentCreditsGiveTheExactBalance() throws Exception {
+    String iban = "ESHOT001";
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<TransactionDto>> saved = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        saved.add(executor.submit(() -> transactionService.save(transaction(iban, 150))));
+      }
+      for (Future<TransactionDto> transaction : saved) {
+        transaction.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  
+    assertEquals(30000, accountService.findById(iban).get().getBalance());
+    assertEquals(30000, shardDAO.findByIbanOrderById(iban).stream().mapToLong(AccountShardDto::getBalance).sum());
+    assertTrue(transactionService.findAll(iban, null).stream()
+      .allMatch(transaction -> transaction.getAccount().getBalance() == 30000));
+  }
+  
+  @Test
+  public void save_debitBorrowsFromTheShards() {
+    String iban = "ESHOT002";
+    for (int i = 0; i < 20; i++) {
+      transactionService.save(transaction(iban, 1000));
+    }
+  
+    TransactionDto debit = transactionService.save(transaction(iban, -19500));
+  
+    assertEquals(500, debit.getAccount().getBalance());
+    assertEquals(500, accountService.findById(iban).get().getBalance());
+    assertTrue(shardDAO.findByIbanOrderById(iban).stream().allMatch(shard -> shard.getBalance() >= 0));
+    transactionService.save(transaction(iban, 250));
+    transactionService.save(transaction(iban, -750));
+    assertEquals(0, accountService.findById(iban).get().getBalance());
+  }
+  
+  @Test
+  public void saveAll_batchDebitBorrowsFromTheShards() {
+    String iban = "ESHOT005";
+    for (int i = 0; i < 20; i++) {
+      transactionService.save(transaction(iban, 1000));
+    }
+    
+    List<TransactionBatchResult> results = transactionService.saveAll(Arrays.asList(transaction(iban, 500),
+      transaction(iban, -20000), transaction(iban, -1001)));
+    
+    assertTrue(results.get(0).isAccepted());
+    assertTrue(results.get(1).isAccepted());
+    assertFalse(results.get(2).isAccepted());
+    AccountDto account = accountService.findById(iban).get();
+    assertEquals(500, account.getBalance());
+    assertTrue(account.getBalance() - account.getShardBalance() >= 0);
+    assertTrue(shardDAO.findByIbanOrderById(iban).stream().allMatch(shard -> shard.getBalance() >= 0));
+  }
+  
+  @Test
+  public void save_debitOverTheWholeBalanceRejected() {
+    String iban = "ESHOT003";
+    transactionService.save(transaction(iban, 1000));
+    transactionService.save(transaction(iban, 1000));
+    try {
+      transactionService.save(transaction(iban, -2001));
+      fail("The balance cannot be below 0");
+    } catch (ResponseStatusException ex) {
+      assertEquals(BAD_REQUEST, ex.getStatus());
+      assertEquals(2000, accountService.findById(iban).get().getBalance());
+    }
+  }
+  
+  @Test
+  public void summary_joinsTheShards() {
+    String iban = "ESHOT004";
+    for (int i = 0; i < 10; i++) {
+      transactionService.save(transaction(iban, 1000));
+    }
+    transactionService.save(transaction(iban, -3000));
+  
+    AccountSummaryDto summary = accountSummaryService.findByIban(iban);
+    assertEquals(iban, summary.getIban());
+    assertEquals(11, summary.getTransactionCount());
+    assertEquals(10000, summary.getCreditSum());
+    assertEquals(3000, summary.getDebitSum());
+  
+    accountSummaryService.rebuild();
+    assertEquals(11, accountSummaryService.findByIban(iban).getTransactionCount());
+  }
+  
+  private static Transaction transaction(final String iban, final long amount) {
+    return Transaction.builder()
+      .account(iban)
+      .amount(amount)
+      .date(DATE)
+      .build();
+  }
+}
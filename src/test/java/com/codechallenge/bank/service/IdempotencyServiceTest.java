@@ -0,0 +1,149 @@
+package com.codechallenge.bank.service;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class IdempotencyServiceTest {
+  
+  @Autowired private IdempotencyService service;
+  
+  @Test
+  public void execute_replayedWithoutExecutingAgain() {
+    String key = UUID.randomUUID().toString();
+    AtomicInteger executions = new AtomicInteger();
+    
+    IdempotencyService.Result<Integer> first = service.execute(key, "request", executions::incrementAndGet);
+    IdempotencyService.Result<Integer> replay = service.execute(key, "request", executions::incrementAndGet);
+    
+    assertFalse(first.isReplayed());
+    assertTrue(replay.isReplayed());
+    assertEquals(Integer.valueOf(1), replay.getValue());
+    assertEquals(1, executions.get());
+  }
+  
+  @Test
+  public void execute_concurrentDuplicateWaitsForTheFirstResult() throws Exception {
+    String key = UUID.randomUUID().toString();
+    AtomicInteger executions = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<IdempotencyService.Result<Integer>> first = executor.submit(() -> service.execute(key, "request", () -> {
+        started.countDown();
+        await(release);
+        return executions.incrementAndGet();
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      Future<IdempotencyService.Result<Integer>> duplicate = executor.submit(() ->
+        service.execute(key, "request", executions::incrementAndGet));
+      
+      Thread.sleep(100);
+      assertFalse(duplicate.isDone());
+      release.countDown();
+      
+      assertEquals(Integer.valueOf(1), first.get(5, TimeUnit.SECONDS).getValue());
+      assertEquals(Integer.valueOf(1), duplicate.get(5, TimeUnit.SECONDS).getValue());
+      assertTrue(duplicate.get().isReplayed());
+      assertEquals(1, executions.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+  
+  @Test
+  public void execute_differentRequestRejected() {
+    String key = UUID.randomUUID().toString();
+    service.execute(key, "request", () -> 1);
+    try {
+      service.execute(key, "other request", () -> 2);
+      fail("A key cannot be used with a different request");
+    } catch (ResponseStatusException ex) {
+      assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatus());
+    }
+  }
+  
+  @Test
+  public void execute_clientErrorReplayed() {
+    String key = UUID.randomUUID().toString();
+    AtomicInteger executions = new AtomicInteger();
+    for (int i = 0; i < 2; i++) {
+      try {
+        service.execute(key, "request", () -> {
+          executions.incrementAndGet();
+          throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "The balance account could not be below 0");
+        });
+        fail("The client error has to be replayed");
+      } catch (ResponseStatusException ex) {
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+      }
+    }
+    assertEquals(1, executions.get());
+  }
+  
+  @Test
+  public void execute_failureFreesTheKey() {
+    String key = UUID.randomUUID().toString();
+    try {
+      service.execute(key, "request", () -> {
+        throw new IllegalStateException("database unavailable");
+      });
+      fail("The failure has to be propagated");
+    } catch (IllegalStateException ex) {
+      assertEquals("database unavailable", ex.getMessage());
+    }
+    IdempotencyService.Result<Integer> retry = service.execute(key, "request", () -> 1);
+    assertFalse(retry.isReplayed());
+    assertEquals(Integer.valueOf(1), retry.getValue());
+  }
+  
+  @Test
+  public void execute_conflictFreesTheKey() {
+    String key = UUID.randomUUID().toString();
+    try {
+      service.execute(key, "request", () -> {
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "The account is being updated concurrently");
+      });
+      fail("The conflict has to be propagated");
+    } catch (ResponseStatusException ex) {
+      assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+    }
+    IdempotencyService.Result<Integer> retry = service.execute(key, "request", () -> 1);
+    assertFalse(retry.isReplayed());
+    assertEquals(Integer.valueOf(1), retry.getValue());
+  }
+  
+  @Test(expected = ResponseStatusException.class)
+  public void execute_blankKey() {
+    service.execute(" ", "request", () -> 1);
+  }
+  
+  private static void await(final CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
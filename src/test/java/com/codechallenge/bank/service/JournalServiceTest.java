@@ -0,0 +1,83 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.dto.AccountDto;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"bank.journal.enabled=true", "bank.journal.directory=target/journal-${random.uuid}"})
+public class JournalServiceTest {
+  
+  private static final LocalDateTime DATE = LocalDateTime.of(2026, 10, 17, 12, 0);
+  
+  @Autowired private TransactionService transactionService;
+  @Autowired private AccountService accountService;
+  
+  @Test
+  public void save_checksTheStoredBalance() throws Exception {
+    String iban = UUID.randomUUID().toString();
+    transactionService.save(transaction(iban, 1000));
+    AccountDto drained = awaitBalance(iban, 1000);
+    accountService.save(AccountDto.builder(drained).balance(200).build());
+    
+    try {
+      transactionService.save(transaction(iban, -500));
+      fail("The balance written outside the journal was not read");
+    } catch (ResponseStatusException ex) {
+      assertEquals(BAD_REQUEST, ex.getStatus());
+    }
+    assertEquals(0, transactionService.save(transaction(iban, -200)).getAccount().getBalance());
+    awaitBalance(iban, 0);
+  }
+  
+  @Test
+  public void saveAll_failedRowDoesNotAbortTheBatch() throws Exception {
+    String iban = UUID.randomUUID().toString();
+    
+    List<TransactionBatchResult> results = transactionService.saveAll(Arrays.asList(
+      transaction(iban, Long.MAX_VALUE), transaction(iban, 1), transaction(iban, -10)));
+    
+    assertTrue(results.get(0).isAccepted());
+    assertFalse(results.get(1).isAccepted());
+    assertEquals("The balance account would overflow", results.get(1).getReason());
+    assertTrue(results.get(2).isAccepted());
+    awaitBalance(iban, Long.MAX_VALUE - 10);
+  }
+  
+  private AccountDto awaitBalance(final String iban, final long balance) throws InterruptedException {
+    for (int attempt = 0; attempt < 100; attempt++) {
+      AccountDto account = accountService.findById(iban).orElse(null);
+      if (account != null && account.getBalance() == balance) {
+        return account;
+      }
+      Thread.sleep(50);
+    }
+    throw new AssertionError("The journal was not drained into the account " + iban);
+  }
+  
+  private static Transaction transaction(final String iban, final long amount) {
+    return Transaction.builder()
+      .account(iban)
+      .amount(amount)
+      .date(DATE)
+      .build();
+  }
+}
@@ -0,0 +1,151 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.model.Transaction;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class LedgerServiceTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(LedgerServiceTest.class);
+
+  @Autowired private LedgerService ledgerService;
+  @Autowired private TransactionService transactionService;
+  @Autowired private AccountService accountService;
+
+  @Test
+  public void stripeCount_roundedToPowerOfTwo() {
+    assertEquals(1, LedgerService.stripeCount(1));
+    assertEquals(8, LedgerService.stripeCount(5));
+    assertEquals(64, LedgerService.stripeCount(64));
+    assertEquals(Integer.bitCount(ledgerService.getStripeCount()), 1);
+  }
+
+  @Test
+  public void stripeFor_sameIbanSameStripe() {
+    assertSame(ledgerService.stripeFor("ES9820385778983000760236"), ledgerService.stripeFor("ES9820385778983000760236"));
+  }
+
+  @Test
+  public void execute_unrelatedAccountsDoNotWait() throws Exception {
+    String iban = "ABC123";
+    String otherIban = findIbanInOtherStripe(iban);
+    CountDownLatch owned = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> owner = executor.submit(() -> ledgerService.execute(iban, () -> {
+        owned.countDown();
+        await(release);
+        return null;
+      }));
+      assertTrue(owned.await(5, TimeUnit.SECONDS));
+      assertEquals("done", ledgerService.execute(otherIban, () -> "done"));
+      release.countDown();
+      owner.get(5, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void executeAll_ownsEveryKey() throws Exception {
+    String iban = "ABC123";
+    String otherIban = findIbanInOtherStripe(iban);
+    CountDownLatch owned = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<?> owner = executor.submit(() -> ledgerService.executeAll(List.of(otherIban, iban, iban), () -> {
+        owned.countDown();
+        await(release);
+        return null;
+      }));
+      assertTrue(owned.await(5, TimeUnit.SECONDS));
+      assertTrue(ledgerService.stripeFor(iban).isLocked());
+      assertTrue(ledgerService.stripeFor(otherIban).isLocked());
+      release.countDown();
+      owner.get(5, TimeUnit.SECONDS);
+      assertFalse(ledgerService.stripeFor(iban).isLocked());
+      assertFalse(ledgerService.stripeFor(otherIban).isLocked());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void save_concurrentCredits_noLostUpdates() throws Exception {
+    int threads = 16;
+    int transactionsPerThread = 100;
+    List<String> ibans = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      ibans.add("LEDGER" + UUID.randomUUID().toString().replace("-", "").substring(0, 12));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        String iban = ibans.get(t % ibans.size());
+        futures.add(executor.submit(() -> {
+          await(start);
+          for (int i = 0; i < transactionsPerThread; i++) {
+            transactionService.save(Transaction.builder().account(iban).amount(1).build());
+          }
+        }));
+      }
+      long startTime = System.nanoTime();
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(2, TimeUnit.MINUTES);
+      }
+      long elapsed = System.nanoTime() - startTime;
+      logger.info("{} transactions saved in {} ms ({} tx/s)", threads * transactionsPerThread,
+        TimeUnit.NANOSECONDS.toMillis(elapsed), (threads * transactionsPerThread) * 1_000_000_000L / elapsed);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    double expectedBalance = (double) threads / ibans.size() * transactionsPerThread;
+    for (String iban : ibans) {
+      assertEquals(expectedBalance, accountService.findById(iban).get().getBalance(), 0);
+    }
+  }
+
+  private String findIbanInOtherStripe(final String iban) {
+    ReentrantLock lock = ledgerService.stripeFor(iban);
+    for (int i = 0; ; i++) {
+      String candidate = iban + i;
+      if (ledgerService.stripeFor(candidate) != lock) {
+        return candidate;
+      }
+    }
+  }
+
+  private static void await(final CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.model.TransactionImportReport;
+import com.codechallenge.bank.service.TransactionImportService.Format;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {"bank.import.workers=3", "bank.import.batch-size=2"})
+public class TransactionImportServiceTest {
+  
+  @Autowired private TransactionImportService service;
+  @SpyBean private AccountService accountService;
+  @Autowired private TransactionService transactionService;
+  
+  @Test
+  public void importTransactions_csvWithTheRulesOfTheTransactions() throws IOException {
+    String id = newId();
+    String first = "ESA" + id;
+    String second = "ESB" + id;
+    String csv = "reference,account_iban,date,amount,fee,description\n"
+      + "A1" + id + "," + first + ",2019-07-16T16:55:42.000Z,100.00,1.00,\"Salary, July\"\n"
+      + "B1" + id + "," + second + ",2019-07-16T16:56:00,50.00,,\n"
+      + "A2" + id + "," + first + ",2019-07-17T10:00:00,-30.00,,\n"
+      + "A3" + id + "," + first + ",2019-07-17T11:00:00,-80.00,,\n"
+      + "A1" + id + "," + first + ",2019-07-17T12:00:00,10.00,,\n"
+      + "B2" + id + "," + second + ",2019-07-17T12:00:00,abc,,\n"
+      + "\n"
+      + "," + second + ",2019-07-18T09:00:00,5.00,0.10,Refund\n";
+    
+    TransactionImportReport report = service.importTransactions(input(csv), Format.CSV);
+    
+    assertEquals(7, report.getRead());
+    assertEquals(4, report.getAccepted());
+    assertEquals(2, report.getRejected());
+    assertEquals(1, report.getMalformed());
+    assertEquals(0, report.getFailed());
+    assertEquals(7000, accountService.findById(first).get().getBalance());
+    assertEquals(5500, accountService.findById(second).get().getBalance());
+    assertEquals("Salary, July", transactionService.findById("A1" + id).get().getDescription());
+    assertEquals(100, transactionService.findById("A1" + id).get().getFee());
+  }
+  
+  @Test
+  public void importTransactions_ndjson() throws IOException {
+    String id = newId();
+    String iban = "ESN" + id;
+    String ndjson = "{\"reference\":\"N1" + id + "\",\"account_iban\":\"" + iban + "\",\"amount\":12.50}\n"
+      + "{not a transaction\n"
+      + "{\"reference\":\"N2" + id + "\",\"account_iban\":\"" + iban + "\",\"amount\":-2.50,\"fee\":0.25}\n"
+      + "{\"reference\":\"N3" + id + "\",\"amount\":1.00}\n";
+    
+    TransactionImportReport report = service.importTransactions(input(ndjson), Format.NDJSON);
+    
+    assertEquals(4, report.getRead());
+    assertEquals(2, report.getAccepted());
+    assertEquals(1, report.getRejected());
+    assertEquals(1, report.getMalformed());
+    assertEquals(1000, accountService.findById(iban).get().getBalance());
+  }
+  
+  @Test
+  public void importTransactions_failedAccountCountedAlone() throws IOException {
+    String id = newId();
+    String saved = "ESS" + id;
+    String failing = "ESF" + id;
+    String ndjson = "{\"account_iban\":\"" + saved + "\",\"amount\":10.00}\n"
+      + "{\"account_iban\":\"" + failing + "\",\"amount\":10.00}\n"
+      + "{\"account_iban\":\"" + saved + "\",\"amount\":5.00}\n"
+      + "{\"account_iban\":\"" + failing + "\",\"amount\":5.00}\n";
+    doThrow(new IllegalStateException("Database error")).when(accountService)
+      .save(argThat(account -> failing.equals(account.getIban())));
+    
+    TransactionImportReport report = service.importTransactions(input(ndjson), Format.NDJSON);
+    
+    assertEquals(2, report.getAccepted());
+    assertEquals(0, report.getRejected());
+    assertEquals(2, report.getFailed());
+    assertEquals(1500, accountService.findById(saved).get().getBalance());
+    assertFalse(accountService.findById(failing).isPresent());
+  }
+  
+  @Test
+  public void format_fromTheExtension() {
+    assertEquals(Format.CSV, Format.of(Paths.get("history", "transactions.CSV")));
+    assertEquals(Format.NDJSON, Format.of(Paths.get("transactions.ndjson")));
+  }
+  
+  private static InputStream input(final String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+  
+  private static String newId() {
+    return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+  }
+}
@@ -3,18 +3,27 @@ package com.codechallenge.bank.service;
 import com.codechallenge.bank.dao.TransactionDAO;
 import com.codechallenge.bank.exception.DataNotFoundException;
 import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionBatchResult;
+import com.codechallenge.bank.model.TransactionQuery;
+import com.codechallenge.bank.model.TransactionSortField;
 import com.codechallenge.bank.model.dto.AccountDto;
 import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.model.dto.TransactionStatusView;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -23,7 +32,8 @@ import java.util.Optional;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
 
 /**
  * @author Carlos Rodriguez
@@ -36,6 +46,8 @@ public class TransactionServiceTest {
   @Autowired private TransactionService service;
   @MockBean private AccountService accountService;
   @MockBean private TransactionDAO dao;
+  @MockBean private ReferenceFilter referenceFilter;
+  @Autowired private MeterRegistry meterRegistry;
   
   @Test
   public void findById_notFound() {
@@ -56,6 +68,19 @@ public class TransactionServiceTest {
     assertEquals(expectedTransaction, transaction.get());
   }
   
+  @Test
+  public void findStatusViews_chunked() {
+    List<String> references = new ArrayList<>();
+    for (int i = 0; i < 2500; i++) {
+      references.add("REF" + i);
+    }
+    when(dao.findStatusViewsByIdIn(any()))
+      .thenReturn(Collections.singletonList(TransactionDto.builder().reference("REF1").build()));
+    List<TransactionStatusView> transactions = service.findStatusViews(references);
+    assertEquals(3, transactions.size());
+    verify(dao, times(3)).findStatusViewsByIdIn(any());
+  }
+  
   @Test
   public void save_checkIsNewTransaction_emptyReference_newAccount_positiveBalance() {
     AccountDto account = AccountDto.builder()
@@ -63,13 +88,6 @@ public class TransactionServiceTest {
       .balance(100)
       .build();
     
-    TransactionDto expectedTransaction = TransactionDto.builder()
-      .reference("TEST")
-      .account("ABC123")
-      .amount(100)
-      .date(LocalDateTime.now())
-      .build();
-    
     Transaction transaction = Transaction.builder()
       .account("ABC123")
       .amount(100)
@@ -77,8 +95,9 @@ public class TransactionServiceTest {
     when(accountService.findById("ABC123")).thenReturn(Optional.empty());
     when(accountService.save(any(AccountDto.class))).thenReturn(account);
     when(dao.findById(anyString())).thenReturn(Optional.empty());
-    when(dao.save(any(TransactionDto.class))).thenReturn(expectedTransaction);
     service.save(transaction);
+    verify(dao, times(1)).persist(any(TransactionDto.class));
+    verify(dao, never()).save(any(TransactionDto.class));
   }
   
   @Test(expected = ResponseStatusException.class)
@@ -92,6 +111,70 @@ public class TransactionServiceTest {
     fail("Expecting invalid parameter exception");
   }
   
+  @Test
+  public void save_conflict_retriedWithTheNewBalance() {
+    double conflicts = meterRegistry.counter("bank.account.update.conflicts").count();
+    double retries = meterRegistry.counter("bank.account.update.retries").count();
+    AccountDto stale = AccountDto.builder("ABC123").balance(100).build();
+    AccountDto current = AccountDto.builder("ABC123").balance(40).build();
+    when(accountService.findById("ABC123")).thenReturn(Optional.of(stale), Optional.of(current));
+    when(accountService.save(any(AccountDto.class)))
+      .thenThrow(new ObjectOptimisticLockingFailureException(AccountDto.class, "ABC123"))
+      .thenAnswer(invocation -> invocation.getArgument(0));
+    
+    service.save(Transaction.builder().account("ABC123").amount(-30).build());
+    
+    ArgumentCaptor<AccountDto> accounts = ArgumentCaptor.forClass(AccountDto.class);
+    verify(accountService, times(2)).save(accounts.capture());
+    assertEquals(70, accounts.getAllValues().get(0).getBalance());
+    assertEquals(10, accounts.getAllValues().get(1).getBalance());
+    assertEquals(conflicts + 1, meterRegistry.counter("bank.account.update.conflicts").count(), 0);
+    assertEquals(retries + 1, meterRegistry.counter("bank.account.update.retries").count(), 0);
+  }
+  
+  @Test
+  public void save_conflict_balanceCheckedAgain() {
+    when(accountService.findById("ABC123")).thenReturn(Optional.of(AccountDto.builder("ABC123").balance(100).build()),
+      Optional.of(AccountDto.builder("ABC123").balance(20).build()));
+    when(accountService.save(any(AccountDto.class)))
+      .thenThrow(new ObjectOptimisticLockingFailureException(AccountDto.class, "ABC123"));
+    try {
+      service.save(Transaction.builder().account("ABC123").amount(-30).build());
+      fail("Expecting invalid parameter exception");
+    } catch (ResponseStatusException ex) {
+      assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+    }
+    verify(accountService, times(1)).save(any(AccountDto.class));
+  }
+  
+  @Test
+  public void save_conflict_attemptsExhausted() {
+    when(accountService.findById("ABC123")).thenReturn(Optional.of(AccountDto.builder("ABC123").balance(100).build()));
+    when(accountService.save(any(AccountDto.class)))
+      .thenThrow(new ObjectOptimisticLockingFailureException(AccountDto.class, "ABC123"));
+    try {
+      service.save(Transaction.builder().account("ABC123").amount(-30).build());
+      fail("Expecting conflict exception");
+    } catch (ResponseStatusException ex) {
+      assertEquals(HttpStatus.CONFLICT, ex.getStatus());
+    }
+    verify(accountService, times(5)).save(any(AccountDto.class));
+  }
+  
+  @Test
+  public void save_negativeBalance_countedAsRejection() {
+    double rejections = meterRegistry.counter("bank.transaction.rejections", "reason", "negative_balance").count();
+    when(accountService.findById("ABC123")).thenReturn(Optional.empty());
+    try {
+      service.save(Transaction.builder().account("ABC123").amount(-100).build());
+      fail("Expecting invalid parameter exception");
+    } catch (ResponseStatusException ex) {
+      assertEquals(rejections + 1,
+        meterRegistry.counter("bank.transaction.rejections", "reason", "negative_balance").count(), 0);
+    }
+    assertTrue(meterRegistry.find("bank.transaction.save").tag("step", "account_read").timer().count() > 0);
+  }
+  
   @Test(expected = ResponseStatusException.class)
   public void save_checkIsNewTransaction_notEmptyUsedReference() {
     TransactionDto expectedTransaction = TransactionDto.builder()
@@ -104,7 +187,8 @@ public class TransactionServiceTest {
       .account("ABC123")
       .amount(100)
       .build();
-    when(dao.findById("12345A")).thenReturn(Optional.of(expectedTransaction));
+    when(referenceFilter.mightContain("12345A")).thenReturn(true);
+    when(dao.existsById("12345A")).thenReturn(true);
     service.save(transaction);
     fail("Expecting invalid parameter exception");
   }
@@ -130,15 +214,36 @@ public class TransactionServiceTest {
   }
   
   @Test
-  public void save_checkBalance_newAccount_positiveBalance() {
+  public void save_checkBalance_overflowIsBadRequest() {
     Transaction transaction = Transaction.builder()
+      .reference("12345A")
       .account("ABC123")
-      .amount(100)
+      .amount(10)
       .build();
-  
-    TransactionDto transactionDto = TransactionDto.builder(transaction)
+    
+    AccountDto account = AccountDto.builder()
+      .iban("ABC123")
+      .balance(Long.MAX_VALUE - 5)
       .build();
+    
+    when(accountService.findById("ABC123")).thenReturn(Optional.of(account));
+    try {
+      service.save(transaction);
+      fail("Expecting invalid parameter exception");
+    } catch (ResponseStatusException ex) {
+      assertEquals(HttpStatus.BAD_REQUEST, ex.getStatus());
+      assertEquals("The balance account would overflow", ex.getReason());
+    }
+    verify(accountService, never()).save(any(AccountDto.class));
+  }
   
+  @Test
+  public void save_checkBalance_newAccount_positiveBalance() {
+    Transaction transaction = Transaction.builder()
+      .account("ABC123")
+      .amount(100)
+      .build();
+    
     AccountDto account = AccountDto.builder()
       .iban("ABC123")
       .transactions(Collections.singletonList(TransactionDto.builder().amount(50).build()))
@@ -147,7 +252,6 @@ public class TransactionServiceTest {
     
     when(accountService.findById("ABC123")).thenReturn(Optional.empty());
     when(accountService.save(any(AccountDto.class))).thenReturn(account);
-    when(dao.save(any(TransactionDto.class))).thenReturn(transactionDto);
     try {
       service.save(transaction);
     } catch (ResponseStatusException ex) {
@@ -163,9 +267,6 @@ public class TransactionServiceTest {
       .amount(-40)
       .build();
     
-    TransactionDto transactionDto = TransactionDto.builder(transaction)
-      .build();
-    
     AccountDto account = AccountDto.builder()
       .iban("ABC123")
       .transactions(Collections.singletonList(TransactionDto.builder().amount(50).build()))
@@ -173,7 +274,6 @@ public class TransactionServiceTest {
       .build();
     
     when(dao.findById("12345A")).thenReturn(Optional.empty());
-    when(dao.save(any(TransactionDto.class))).thenReturn(transactionDto);
     when(accountService.findById("ABC123")).thenReturn(Optional.of(account));
     when(accountService.save(any(AccountDto.class))).thenReturn(account);
     try {
@@ -183,6 +283,164 @@ public class TransactionServiceTest {
     }
   }
   
+  @Test
+  public void saveAll_foldsBalancePerAccount() {
+    AccountDto account = AccountDto.builder()
+      .iban("ABC123")
+      .balance(50)
+      .build();
+    List<Transaction> transactions = Arrays.asList(
+      Transaction.builder().reference("1A").account("ABC123").amount(-40).build(),
+      Transaction.builder().reference("1B").account("DEF456").amount(10).build(),
+      Transaction.builder().reference("1C").account("ABC123").amount(-20).build(),
+      Transaction.builder().reference("1D").account("ABC123").amount(30).build());
+    
+    when(dao.findReferencesIn(any())).thenReturn(Collections.emptyList());
+    when(accountService.findById("ABC123")).thenReturn(Optional.of(account));
+    when(accountService.findById("DEF456")).thenReturn(Optional.empty());
+    when(accountService.save(any(AccountDto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    List<TransactionBatchResult> results = service.saveAll(transactions);
+    
+    assertEquals(4, results.size());
+    assertTrue(results.get(0).isAccepted());
+    assertTrue(results.get(1).isAccepted());
+    assertFalse(results.get(2).isAccepted());
+    assertTrue(results.get(3).isAccepted());
+    ArgumentCaptor<AccountDto> savedAccounts = ArgumentCaptor.forClass(AccountDto.class);
+    verify(accountService, times(2)).save(savedAccounts.capture());
+    assertEquals(40, savedAccounts.getAllValues().get(0).getBalance(), 0);
+    assertEquals(10, savedAccounts.getAllValues().get(1).getBalance(), 0);
+  }
+  
+  @Test
+  public void saveAll_overflowRejected() {
+    AccountDto account = AccountDto.builder()
+      .iban("ABC123")
+      .balance(Long.MAX_VALUE - 5)
+      .build();
+    List<Transaction> transactions = Arrays.asList(
+      Transaction.builder().reference("1A").account("ABC123").amount(10).build(),
+      Transaction.builder().reference("1B").account("ABC123").amount(-5).build());
+    
+    when(dao.findReferencesIn(any())).thenReturn(Collections.emptyList());
+    when(accountService.findById("ABC123")).thenReturn(Optional.of(account));
+    when(accountService.save(any(AccountDto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    List<TransactionBatchResult> results = service.saveAll(transactions);
+    
+    assertFalse(results.get(0).isAccepted());
+    assertEquals("The balance account would overflow", results.get(0).getReason());
+    assertTrue(results.get(1).isAccepted());
+    verify(accountService, times(1)).save(argThat(saved -> saved.getBalance() == Long.MAX_VALUE - 10));
+  }
+  
+  @Test
+  public void saveAll_failedAccountKeepsTheOthers() {
+    List<Transaction> transactions = Arrays.asList(
+      Transaction.builder().reference("1A").account("ABC123").amount(10).build(),
+      Transaction.builder().reference("1B").account("DEF456").amount(10).build(),
+      Transaction.builder().reference("1C").account("DEF456").amount(20).build());
+    
+    when(dao.findReferencesIn(any())).thenReturn(Collections.emptyList());
+    when(accountService.findById(anyString())).thenReturn(Optional.empty());
+    when(accountService.save(any(AccountDto.class))).thenAnswer(invocation -> {
+      if ("DEF456".equals(invocation.<AccountDto>getArgument(0).getIban())) {
+        throw new IllegalStateException("Database error");
+      }
+      return invocation.getArgument(0);
+    });
+    List<TransactionBatchResult> results = service.saveAll(transactions);
+    
+    assertTrue(results.get(0).isAccepted());
+    assertFalse(results.get(1).isAccepted());
+    assertTrue(results.get(1).isFailed());
+    assertTrue(results.get(2).isFailed());
+    assertEquals("DEF456", results.get(2).getAccount());
+    verify(dao, times(1)).persistAll(argThat(inserted -> inserted.size() == 1));
+  }
+  
+  @Test
+  public void saveAll_rejectsUsedReferences() {
+    TransactionDto storedTransaction = TransactionDto.builder()
+      .reference("1A")
+      .account("ABC123")
+      .amount(100)
+      .build();
+    List<Transaction> transactions = Arrays.asList(
+      Transaction.builder().reference("1A").account("ABC123").amount(10).build(),
+      Transaction.builder().reference("1B").account("ABC123").amount(10).build(),
+      Transaction.builder().reference("1B").account("ABC123").amount(10).build(),
+      Transaction.builder().reference("1C").amount(10).build());
+    
+    when(referenceFilter.mightContain(anyString())).thenReturn(true);
+    when(dao.findReferencesIn(any())).thenReturn(Collections.singletonList(storedTransaction.getReference()));
+    when(accountService.findById("ABC123")).thenReturn(Optional.empty());
+    when(accountService.save(any(AccountDto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    List<TransactionBatchResult> results = service.saveAll(transactions);
+    
+    assertFalse(results.get(0).isAccepted());
+    assertTrue(results.get(1).isAccepted());
+    assertFalse(results.get(2).isAccepted());
+    assertFalse(results.get(3).isAccepted());
+    verify(dao, times(1)).persistAll(argThat(inserted -> inserted.size() == 1));
+  }
+  
+  @Test
+  public void save_storedGeneratedReferenceIsReplaced() {
+    Transaction transaction = Transaction.builder()
+      .account("ABC123")
+      .amount(100)
+      .build();
+    when(referenceFilter.mightContain(anyString())).thenReturn(true);
+    when(dao.existsById(anyString())).thenReturn(true, false);
+    when(accountService.save(any(AccountDto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    TransactionDto saved = service.save(transaction);
+    
+    ArgumentCaptor<String> checked = ArgumentCaptor.forClass(String.class);
+    verify(dao, atLeast(2)).existsById(checked.capture());
+    assertNotEquals(checked.getAllValues().get(0), saved.getReference());
+    assertEquals(checked.getAllValues().get(1), saved.getReference());
+  }
+  
+  @Test
+  public void save_checkIsNewTransaction_definitelyNewReference() {
+    Transaction transaction = Transaction.builder()
+      .reference("12345A")
+      .account("ABC123")
+      .amount(100)
+      .build();
+    when(referenceFilter.mightContain("12345A")).thenReturn(false);
+    when(accountService.save(any(AccountDto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    service.save(transaction);
+    verify(dao, never()).existsById("12345A");
+    verify(referenceFilter, times(1)).put("12345A");
+  }
+  
+  @Test
+  public void save_checkIsNewTransaction_falsePositive() {
+    Transaction transaction = Transaction.builder()
+      .reference("12345A")
+      .account("ABC123")
+      .amount(100)
+      .build();
+    when(referenceFilter.mightContain("12345A")).thenReturn(true);
+    when(dao.existsById("12345A")).thenReturn(false);
+    when(accountService.save(any(AccountDto.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    service.save(transaction);
+    verify(referenceFilter, times(1)).recordFalsePositive();
+  }
+  
+  @Test
+  public void findPage_firstPage() {
+    service.findPage(null, 10);
+    verify(dao, times(1)).findAllBy(PageRequest.of(0, 10, Sort.by("reference")));
+  }
+  
+  @Test
+  public void findPage_afterReference() {
+    service.findPage("123A", 10);
+    verify(dao, times(1)).findByReferenceGreaterThan("123A", PageRequest.of(0, 10, Sort.by("reference")));
+  }
+  
   @Test(expected = DataNotFoundException.class)
   public void findTransactionsById_notFound() {
     when(accountService.findById("ABC123")).thenReturn(Optional.empty());
@@ -202,7 +460,7 @@ public class TransactionServiceTest {
       .reference("123B")
       .account("ABC123")
       .amount(90)
-      .fee(10d)
+      .fee(10)
       .build();
     
     List<TransactionDto> expectedTransactions = Arrays.asList(expectedTransaction1, expectedTransaction2);
@@ -227,7 +485,7 @@ public class TransactionServiceTest {
       .reference("123B")
       .account("ABC123")
       .amount(90)
-      .fee(10d)
+      .fee(10)
       .build();
     
     List<TransactionDto> expectedTransactions = Arrays.asList(expectedTransaction1, expectedTransaction2);
@@ -253,7 +511,7 @@ public class TransactionServiceTest {
       .reference("123B")
       .account("ABC123")
       .amount(100)
-      .fee(10d)
+      .fee(10)
       .build();
     
     List<TransactionDto> expectedTransactions = Arrays.asList(expectedTransaction1, expectedTransaction2);
@@ -266,4 +524,25 @@ public class TransactionServiceTest {
     assertEquals(expectedTransaction2, transactions.get(0));
     assertEquals(expectedTransaction1, transactions.get(1));
   }
+  
+  @Test
+  public void findByAccount_query() {
+    AccountDto expectedAccount = AccountDto.builder().iban("ABC123").build();
+    TransactionQuery query = TransactionQuery.builder().sortField(TransactionSortField.DATE).limit(10).build();
+    List<TransactionDto> expectedTransactions = Collections.singletonList(TransactionDto.builder()
+      .reference("123A")
+      .account("ABC123")
+      .amount(100)
+      .build());
+    when(accountService.findById("ABC123")).thenReturn(Optional.of(expectedAccount));
+    when(dao.findByAccount(expectedAccount, query)).thenReturn(expectedTransactions);
+    assertEquals(expectedTransactions, service.findByAccount("ABC123", query));
+  }
+  
+  @Test(expected = DataNotFoundException.class)
+  public void findByAccount_notFound() {
+    when(accountService.findById("ABC123")).thenReturn(Optional.empty());
+    service.findByAccount("ABC123", TransactionQuery.builder().build());
+    fail("DataNotFoundException was expected");
+  }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.codechallenge.bank.service;
+
+import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.util.Money;
+import org.junit.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+import static com.codechallenge.bank.model.Channel.*;
+import static com.codechallenge.bank.model.Status.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class TransactionStatusRulesTest {
+  
+  private static final LocalDate TODAY = LocalDate.of(2019, 7, 16);
+  
+  @Test
+  public void find_statusByDateRelationAndChannel() {
+    assertEquals(SETTLED, TransactionStatusRules.find(TODAY.minusDays(1), TODAY, ATM).getStatus());
+    assertEquals(PENDING, TransactionStatusRules.find(TODAY, TODAY, INTERNAL).getStatus());
+    assertEquals(FUTURE, TransactionStatusRules.find(TODAY.plusDays(1), TODAY, CLIENT).getStatus());
+    assertEquals(PENDING, TransactionStatusRules.find(TODAY.plusDays(1), TODAY, ATM).getStatus());
+  }
+  
+  @Test
+  public void amount_feeSubtractedFromAbsoluteAmount() {
+    TransactionDto debit = TransactionDto.builder().reference("12345A").amount(-19338).fee(318).build();
+    TransactionDto noFee = TransactionDto.builder().reference("12345B").amount(10000).build();
+    TransactionStatusRules.Rule client = TransactionStatusRules.find(TODAY, TODAY, CLIENT);
+    TransactionStatusRules.Rule internal = TransactionStatusRules.find(TODAY, TODAY, INTERNAL);
+    
+    assertEquals(-19020, client.amount(debit));
+    assertEquals(Money.NONE, client.fee(debit));
+    assertEquals(10000, client.amount(noFee));
+    assertEquals(-19338, internal.amount(debit));
+    assertEquals(318, internal.fee(debit));
+    assertEquals(0, internal.fee(noFee));
+  }
+  
+  @Test(expected = ResponseStatusException.class)
+  public void find_noChannel() {
+    TransactionStatusRules.find(TODAY, TODAY, null);
+    fail("Expecting invalid parameter exception");
+  }
+}
@@ -3,6 +3,8 @@ package com.codechallenge.bank.service;
 import com.codechallenge.bank.model.TransactionStatus;
 import com.codechallenge.bank.model.TransactionStatusRequester;
 import com.codechallenge.bank.model.dto.TransactionDto;
+import com.codechallenge.bank.util.Money;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +14,16 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.codechallenge.bank.model.Channel.*;
 import static com.codechallenge.bank.model.Status.*;
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -26,11 +32,73 @@ public class TransactionStatusServiceTest {
   @MockBean private TransactionService transactionService;
   @Autowired private TransactionStatusService service;
   
+  @Before
+  public void clearCache() {
+    service.clearCache();
+  }
+  
+  @Test
+  public void findStatusFromChannel_cachedByReferenceAndChannel() {
+    TransactionDto transaction = TransactionDto.builder()
+      .reference("12345A")
+      .date(LocalDateTime.now().minusDays(1))
+      .amount(19338)
+      .fee(318)
+      .build();
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
+    TransactionStatusRequester client = TransactionStatusRequester.builder().reference("12345A").channel(CLIENT).build();
+    TransactionStatusRequester internal = TransactionStatusRequester.builder().reference("12345A").channel(INTERNAL).build();
+    
+    TransactionStatus first = service.findStatusFromChannel(client);
+    assertSame(first, service.findStatusFromChannel(client));
+    assertEquals(318, service.findStatusFromChannel(internal).getFee());
+    verify(transactionService, times(2)).findStatusView("12345A");
+  }
+  
+  @Test
+  public void findStatusesFromChannel_requestOrderWithInvalid() {
+    TransactionDto settled = TransactionDto.builder()
+      .reference("1A")
+      .date(LocalDateTime.now().minusDays(1))
+      .amount(100)
+      .build();
+    TransactionDto future = TransactionDto.builder()
+      .reference("2A")
+      .date(LocalDateTime.now().plusDays(1))
+      .amount(100)
+      .build();
+    when(transactionService.findStatusViews(Set.of("1A", "2A", "3A"))).thenReturn(Arrays.asList(future, settled));
+    List<TransactionStatus> statuses = service.findStatusesFromChannel(Arrays.asList(
+      TransactionStatusRequester.builder().reference("2A").channel(CLIENT).build(),
+      TransactionStatusRequester.builder().reference("3A").channel(CLIENT).build(),
+      TransactionStatusRequester.builder().reference("1A").channel(ATM).build(),
+      TransactionStatusRequester.builder().reference("2A").channel(ATM).build()));
+    
+    assertEquals(Arrays.asList(
+      TransactionStatus.builder().reference("2A").status(FUTURE).build(),
+      TransactionStatus.builder().reference("3A").status(INVALID).build(),
+      TransactionStatus.builder().reference("1A").status(SETTLED).build(),
+      TransactionStatus.builder().reference("2A").status(PENDING).build()), statuses);
+    verify(transactionService, times(1)).findStatusViews(any());
+    verify(transactionService, never()).findStatusView(any());
+  }
+  
+  @Test
+  public void findStatusFromChannel_invalidNotCached() {
+    TransactionStatusRequester requester = TransactionStatusRequester.builder().reference("12345A").channel(ATM).build();
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.empty());
+    assertEquals(INVALID, service.findStatusFromChannel(requester).getStatus());
+    
+    TransactionDto transaction = TransactionDto.builder().reference("12345A").amount(10).build();
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
+    assertEquals(PENDING, service.findStatusFromChannel(requester).getStatus());
+  }
+  
   @Test
   public void findStatusFromChannel_notFoundTransaction() {
     TransactionStatus expectedStatus = TransactionStatus.builder().reference("12345A").status(INVALID).build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder().reference("12345A").build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.empty());
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.empty());
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
   }
@@ -43,10 +111,10 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now().minusDays(1))
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     service.findStatusFromChannel(requester);
     fail("Expecting invalid parameter exception");
   }
@@ -56,7 +124,7 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(SETTLED)
-      .amount(190.20)
+      .amount(19020)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -65,14 +133,14 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now().minusDays(1))
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
-    assertNull(transactionStatus.getFee());
+    assertEquals(Money.NONE, transactionStatus.getFee());
   }
   
   @Test
@@ -80,7 +148,7 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(SETTLED)
-      .amount(190.20)
+      .amount(19020)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -89,14 +157,14 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now().minusDays(1))
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
-    assertNull(transactionStatus.getFee());
+    assertEquals(Money.NONE, transactionStatus.getFee());
   }
   
   @Test
@@ -104,8 +172,8 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(SETTLED)
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -114,10 +182,10 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now().minusDays(1))
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
@@ -129,7 +197,7 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(PENDING)
-      .amount(190.20)
+      .amount(19020)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -138,14 +206,14 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now())
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
-    assertNull(transactionStatus.getFee());
+    assertEquals(Money.NONE, transactionStatus.getFee());
   }
   
   @Test
@@ -153,7 +221,7 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(PENDING)
-      .amount(190.20)
+      .amount(19020)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -162,14 +230,14 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now())
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
-    assertNull(transactionStatus.getFee());
+    assertEquals(Money.NONE, transactionStatus.getFee());
   }
   
   @Test
@@ -177,8 +245,8 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(PENDING)
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -187,10 +255,10 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now())
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
@@ -202,7 +270,7 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(FUTURE)
-      .amount(190.20)
+      .amount(19020)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -211,14 +279,14 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now().plusDays(1))
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
-    assertNull(transactionStatus.getFee());
+    assertEquals(Money.NONE, transactionStatus.getFee());
   }
   
   @Test
@@ -226,7 +294,7 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(PENDING)
-      .amount(190.20)
+      .amount(19020)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -235,14 +303,14 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now().plusDays(1))
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
-    assertNull(transactionStatus.getFee());
+    assertEquals(Money.NONE, transactionStatus.getFee());
   }
   
   @Test
@@ -250,8 +318,8 @@ public class TransactionStatusServiceTest {
     TransactionStatus expectedStatus = TransactionStatus.builder()
       .reference("12345A")
       .status(FUTURE)
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
     TransactionStatusRequester requester = TransactionStatusRequester.builder()
       .reference("12345A")
@@ -260,10 +328,10 @@ public class TransactionStatusServiceTest {
     TransactionDto transaction = TransactionDto.builder()
       .reference("12345A")
       .date(LocalDateTime.now().plusDays(1))
-      .amount(193.38)
-      .fee(3.18)
+      .amount(19338)
+      .fee(318)
       .build();
-    when(transactionService.findById("12345A")).thenReturn(Optional.of(transaction));
+    when(transactionService.findStatusView("12345A")).thenReturn(Optional.of(transaction));
     TransactionStatus transactionStatus = service.findStatusFromChannel(requester);
     assertEquals(expectedStatus, transactionStatus);
     assertEquals(expectedStatus.getAmount(), transactionStatus.getAmount());
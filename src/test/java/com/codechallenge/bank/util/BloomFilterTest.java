@@ -0,0 +1,53 @@
+package com.codechallenge.bank.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class BloomFilterTest {
+  
+  @Test
+  public void mightContain_noFalseNegatives() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("REF" + i);
+    }
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain("REF" + i));
+    }
+  }
+  
+  @Test
+  public void mightContain_falsePositiveRateCloseToExpected() {
+    BloomFilter filter = new BloomFilter(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("REF" + i);
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("NEW" + i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue("False positives: " + falsePositives, falsePositives < 2_000);
+    assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+  }
+  
+  @Test
+  public void memoryBytes_sizedFromExpectedInsertions() {
+    BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+    assertEquals(7, filter.getHashFunctions());
+    assertTrue(filter.memoryBytes() > 1_100_000 && filter.memoryBytes() < 1_300_000);
+    assertEquals(0, filter.expectedFalsePositiveRate(), 0);
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_invalidFalsePositiveRate() {
+    new BloomFilter(1000, 1);
+    fail("Expecting illegal argument exception");
+  }
+}
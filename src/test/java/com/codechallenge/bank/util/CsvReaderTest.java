@@ -0,0 +1,44 @@
+package com.codechallenge.bank.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class CsvReaderTest {
+  
+  @Test
+  public void next_plainAndQuotedFields() throws IOException {
+    try (CsvReader reader = new CsvReader(new StringReader("reference,amount,description\r\n"
+      + "12345A,10.50,\"Restaurant, \"\"La Tagliatella\"\"\"\n"
+      + "12345B,-3.00,\"Two\nlines\"\n"
+      + "\n"
+      + "12345C,,"))) {
+      assertEquals(Arrays.asList("reference", "amount", "description"), reader.next());
+      assertEquals(1, reader.getLine());
+      assertEquals(Arrays.asList("12345A", "10.50", "Restaurant, \"La Tagliatella\""), reader.next());
+      assertEquals(2, reader.getLine());
+      assertEquals(Arrays.asList("12345B", "-3.00", "Two\nlines"), reader.next());
+      assertEquals(3, reader.getLine());
+      assertEquals(Collections.singletonList(""), reader.next());
+      assertEquals(Arrays.asList("12345C", "", ""), reader.next());
+      assertEquals(6, reader.getLine());
+      assertNull(reader.next());
+    }
+  }
+  
+  @Test(expected = IOException.class)
+  public void next_unterminatedQuotedField() throws IOException {
+    try (CsvReader reader = new CsvReader(new StringReader("12345A,\"never closed\n"))) {
+      reader.next();
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package com.codechallenge.bank.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class CsvWriterTest {
+  
+  @Test
+  public void writeRow_quotesOnlyWhenNeeded() throws IOException {
+    StringWriter output = new StringWriter();
+    CsvWriter writer = new CsvWriter(output);
+    writer.writeRow("12345A", "Restaurant, \"La Tagliatella\"", null, "-193.38");
+    writer.writeRow("12345B", "Two\nlines", "", "0.00");
+    writer.flush();
+    
+    assertEquals("12345A,\"Restaurant, \"\"La Tagliatella\"\"\",,-193.38\r\n12345B,\"Two\nlines\",,0.00\r\n",
+      output.toString());
+    try (CsvReader reader = new CsvReader(new StringReader(output.toString()))) {
+      assertEquals(Arrays.asList("12345A", "Restaurant, \"La Tagliatella\"", "", "-193.38"), reader.next());
+      assertEquals(Arrays.asList("12345B", "Two\nlines", "", "0.00"), reader.next());
+      assertNull(reader.next());
+    }
+  }
+}
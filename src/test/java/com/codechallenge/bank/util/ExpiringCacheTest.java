@@ -0,0 +1,146 @@
+package com.codechallenge.bank.util;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class ExpiringCacheTest {
+  
+  @Test
+  public void get_expiredEntriesAreRemoved() {
+    MutableClock clock = new MutableClock(Instant.parse("2019-07-16T23:59:00Z"));
+    ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock);
+    cache.put("PENDING", "value", Instant.parse("2019-07-17T00:00:00Z"));
+    cache.put("SETTLED", "value", null);
+    assertEquals("value", cache.get("PENDING"));
+    
+    clock.advance(Duration.ofMinutes(1));
+    assertNull(cache.get("PENDING"));
+    assertEquals("value", cache.get("SETTLED"));
+    assertEquals(1, cache.size());
+  }
+  
+  @Test
+  public void put_leastRecentlyUsedEvicted() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(2, Clock.systemUTC());
+    cache.put("A", "a", null);
+    cache.put("B", "b", null);
+    cache.get("A");
+    cache.put("C", "c", null);
+    assertEquals(2, cache.size());
+    assertNull(cache.get("B"));
+    assertEquals("a", cache.get("A"));
+    assertEquals("c", cache.get("C"));
+  }
+  
+  @Test
+  public void put_expiredEntryEvictedFirst() {
+    MutableClock clock = new MutableClock(Instant.parse("2019-07-16T23:59:00Z"));
+    ExpiringCache<String, String> cache = new ExpiringCache<>(2, clock);
+    cache.put("A", "a", null);
+    cache.put("B", "b", Instant.parse("2019-07-17T00:00:00Z"));
+    cache.get("B");
+    
+    clock.advance(Duration.ofMinutes(1));
+    cache.put("C", "c", null);
+    assertEquals(2, cache.size());
+    assertEquals("a", cache.get("A"));
+    assertEquals("c", cache.get("C"));
+  }
+  
+  @Test
+  public void put_concurrentWritesKeepTheMaximumSize() throws InterruptedException {
+    ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100, Clock.systemUTC());
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int thread = 0; thread < 8; thread++) {
+      int first = thread * 10000;
+      executor.execute(() -> {
+        for (int key = first; key < first + 10000; key++) {
+          cache.put(key, key, null);
+          cache.get(key - 1);
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    assertEquals(100, cache.size());
+  }
+  
+  @Test
+  public void putIfAbsent_keepsTheValueUntilItExpires() {
+    MutableClock clock = new MutableClock(Instant.parse("2019-07-16T23:59:00Z"));
+    ExpiringCache<String, String> cache = new ExpiringCache<>(10, clock);
+    assertNull(cache.putIfAbsent("KEY", "first", Instant.parse("2019-07-17T00:00:00Z")));
+    assertEquals("first", cache.putIfAbsent("KEY", "second", null));
+    
+    clock.advance(Duration.ofMinutes(1));
+    assertNull(cache.putIfAbsent("KEY", "second", null));
+    assertEquals("second", cache.get("KEY"));
+    
+    cache.remove("KEY");
+    assertNull(cache.putIfAbsent("KEY", "third", null));
+  }
+  
+  @Test
+  public void hitRatio_countsHitsAndMisses() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(10, Clock.systemUTC());
+    assertEquals(0, cache.hitRatio(), 0);
+    cache.get("A");
+    cache.put("A", "a", null);
+    cache.get("A");
+    cache.get("A");
+    cache.get("A");
+    assertEquals(3, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(0.75, cache.hitRatio(), 0);
+  }
+  
+  @Test
+  public void put_disabledCache() {
+    ExpiringCache<String, String> cache = new ExpiringCache<>(0, Clock.systemUTC());
+    cache.put("A", "a", null);
+    assertNull(cache.get("A"));
+    assertEquals(0, cache.size());
+  }
+  
+  private static class MutableClock extends Clock {
+    
+    private Instant instant;
+    
+    MutableClock(final Instant instant) {
+      this.instant = instant;
+    }
+    
+    void advance(final Duration duration) {
+      instant = instant.plus(duration);
+    }
+    
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+    
+    @Override
+    public Clock withZone(final ZoneId zone) {
+      return this;
+    }
+    
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
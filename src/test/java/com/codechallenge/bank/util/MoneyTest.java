@@ -0,0 +1,66 @@
+package com.codechallenge.bank.util;
+
+import com.codechallenge.bank.model.Transaction;
+import com.codechallenge.bank.model.TransactionStatus;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class MoneyTest {
+  
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  
+  @Test
+  public void of_exactMinorUnits() {
+    assertEquals(19338, Money.of("193.38"));
+    assertEquals(-1000, Money.of(new BigDecimal("-10")));
+    assertEquals(10, Money.of("0.1"));
+    assertEquals("193.38", Money.format(19338));
+    assertEquals("-0.05", Money.format(-5));
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void of_tooManyDecimals() {
+    Money.of("10.005");
+  }
+  
+  @Test
+  public void fromDouble_roundedToNearestMinorUnit() {
+    assertEquals(19338, Money.fromDouble(193.38));
+    assertEquals(30, Money.fromDouble(0.1 + 0.2));
+    assertEquals(-19020, Money.fromDouble(-193.38 + 3.18));
+  }
+  
+  @Test
+  public void deserialize_decimalNumbersAndStrings() throws IOException {
+    Transaction transaction = objectMapper.readValue(
+      "{\"account_iban\":\"ABC123\",\"amount\":0.3,\"fee\":\"0.10\"}", Transaction.class);
+    assertEquals(30, transaction.getAmount());
+    assertEquals(10, transaction.getFee());
+  
+    Transaction noFee = objectMapper.readValue("{\"account_iban\":\"ABC123\",\"amount\":-20,\"fee\":null}",
+      Transaction.class);
+    assertEquals(-2000, noFee.getAmount());
+    assertEquals(0, noFee.getFee());
+  }
+  
+  @Test(expected = JsonMappingException.class)
+  public void deserialize_tooManyDecimals() throws IOException {
+    objectMapper.readValue("{\"account_iban\":\"ABC123\",\"amount\":0.001}", Transaction.class);
+  }
+  
+  @Test
+  public void serialize_exactDecimalsWithoutMissingAmounts() throws IOException {
+    TransactionStatus status = TransactionStatus.builder().reference("12345A").amount(19020).build();
+    assertEquals("{\"reference\":\"12345A\",\"amount\":190.20}", objectMapper.writeValueAsString(status));
+  }
+}
@@ -0,0 +1,56 @@
+package com.codechallenge.bank.util;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class StringIntHashMapTest {
+  
+  @Test
+  public void get_afterGrowing() {
+    StringIntHashMap map = new StringIntHashMap();
+    for (int i = 0; i < 10_000; i++) {
+      map.put("REF" + i, i);
+    }
+    map.put("REF5", 50);
+    
+    assertEquals(10_000, map.size());
+    assertEquals(50, map.get("REF5"));
+    assertEquals(9_999, map.get("REF9999"));
+    assertEquals(StringIntHashMap.NO_VALUE, map.get("REF10000"));
+  }
+  
+  @Test
+  public void remove_keepsTheOtherKeysReachable() {
+    StringIntHashMap map = new StringIntHashMap(8);
+    Map<String, Integer> expected = new HashMap<>();
+    Random random = new Random(42);
+    for (int i = 0; i < 50_000; i++) {
+      String key = "K" + random.nextInt(2_000);
+      if (random.nextBoolean()) {
+        map.put(key, i);
+        expected.put(key, i);
+      } else {
+        assertEquals(expected.containsKey(key) ? expected.remove(key) : StringIntHashMap.NO_VALUE, map.remove(key));
+      }
+    }
+    
+    assertEquals(expected.size(), map.size());
+    for (int i = 0; i < 2_000; i++) {
+      assertEquals(expected.getOrDefault("K" + i, StringIntHashMap.NO_VALUE).intValue(), map.get("K" + i));
+    }
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void put_negativeValue() {
+    new StringIntHashMap().put("REF1", -1);
+  }
+}
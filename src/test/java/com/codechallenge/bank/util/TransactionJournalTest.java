@@ -0,0 +1,171 @@
+package com.codechallenge.bank.util;
+
+import com.codechallenge.bank.model.Transaction;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Carlos Rodriguez
+ * @since 17/10/2026
+ */
+public class TransactionJournalTest {
+  
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  @Test
+  public void read_durableRecordsInOrder() throws IOException {
+    try (TransactionJournal journal = new TransactionJournal(folder.getRoot().toPath(), 4096)) {
+      Transaction first = transaction("REF1", 10050, 125, "Restaurant payment");
+      Transaction second = transaction("REF2", -1000, 0, null);
+      journal.append(first);
+      journal.awaitDurable(journal.append(second));
+      
+      List<TransactionJournal.Entry> entries = journal.read(0, 10);
+      assertEquals(2, entries.size());
+      assertFields(first, entries.get(0).getTransaction());
+      assertFields(second, entries.get(1).getTransaction());
+      assertEquals(journal.getDurablePosition(), entries.get(1).getEndPosition());
+    }
+  }
+  
+  @Test
+  public void decode_firstVersionAmountsRoundedToMinorUnits() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(bytes)) {
+      output.writeByte(1);
+      output.writeUTF("REF1");
+      output.writeUTF("ES9820385778983000760236");
+      output.writeLong(0);
+      output.writeInt(0);
+      output.writeDouble(-193.38);
+      output.writeBoolean(true);
+      output.writeDouble(3.18);
+      output.writeBoolean(false);
+    }
+    Transaction transaction = TransactionJournal.decode(bytes.toByteArray());
+    assertEquals(-19338, transaction.getAmount());
+    assertEquals(318, transaction.getFee());
+    assertNull(transaction.getDescription());
+  }
+  
+  @Test
+  public void read_notDurableRecordsAreNotRead() throws IOException {
+    try (TransactionJournal journal = new TransactionJournal(folder.getRoot().toPath(), 4096)) {
+      journal.append(transaction("REF1", 1, 0, null));
+      assertTrue(journal.read(0, 10).isEmpty());
+    }
+  }
+  
+  @Test
+  public void append_rollsSegments() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    try (TransactionJournal journal = new TransactionJournal(directory, 256)) {
+      long position = 0;
+      for (int i = 0; i < 20; i++) {
+        position = journal.append(transaction("REF" + i, i, 0, "Description " + i));
+      }
+      journal.awaitDurable(position);
+      
+      List<TransactionJournal.Entry> entries = journal.read(0, 100);
+      assertEquals(20, entries.size());
+      for (int i = 0; i < 20; i++) {
+        assertEquals("REF" + i, entries.get(i).getTransaction().getReference());
+      }
+      assertTrue(countSegments(directory) > 1);
+      
+      journal.checkpoint(entries.get(entries.size() - 1).getEndPosition());
+      assertEquals(1, countSegments(directory));
+    }
+  }
+  
+  @Test
+  public void open_replaysRecordsAfterCheckpoint() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    try (TransactionJournal journal = new TransactionJournal(directory, 4096)) {
+      long position = 0;
+      for (int i = 0; i < 5; i++) {
+        position = journal.append(transaction("REF" + i, i, 0, null));
+      }
+      journal.awaitDurable(position);
+      journal.checkpoint(journal.read(0, 2).get(1).getEndPosition());
+    }
+    try (TransactionJournal journal = new TransactionJournal(directory, 4096)) {
+      List<String> references = journal.read(journal.readCheckpoint(), 10).stream()
+        .map(entry -> entry.getTransaction().getReference())
+        .collect(Collectors.toList());
+      assertEquals(List.of("REF2", "REF3", "REF4"), references);
+      
+      journal.awaitDurable(journal.append(transaction("REF5", 5, 0, null)));
+      assertEquals(4, journal.read(journal.readCheckpoint(), 10).size());
+    }
+  }
+  
+  @Test
+  public void awaitDurable_concurrentWritersShareCommits() throws Exception {
+    int threads = 8;
+    int perThread = 200;
+    try (TransactionJournal journal = new TransactionJournal(folder.getRoot().toPath(), 1 << 20)) {
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < perThread; i++) {
+            journal.awaitDurable(journal.append(transaction("REF" + thread + "-" + i, i, 0, null)));
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(1, TimeUnit.MINUTES);
+      }
+      executor.shutdown();
+      
+      assertEquals(threads * perThread, journal.read(0, Integer.MAX_VALUE).size());
+      assertTrue(journal.getCommits() <= threads * perThread);
+    }
+  }
+  
+  private static Transaction transaction(final String reference, final long amount, final long fee,
+                                         final String description) {
+    return Transaction.builder()
+      .reference(reference)
+      .account("ES9820385778983000760236")
+      .date(LocalDateTime.of(2019, 7, 16, 16, 55, 42, 46_000_000))
+      .amount(amount)
+      .fee(fee)
+      .description(description)
+      .build();
+  }
+  
+  private static void assertFields(final Transaction expected, final Transaction actual) {
+    assertEquals(expected.getReference(), actual.getReference());
+    assertEquals(expected.getAccount(), actual.getAccount());
+    assertEquals(expected.getDate(), actual.getDate());
+    assertEquals(expected.getAmount(), actual.getAmount());
+    assertEquals(expected.getFee(), actual.getFee());
+    assertEquals(expected.getDescription(), actual.getDescription());
+  }
+  
+  private static long countSegments(final Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".journal")).count();
+    }
+  }
+}
@@ -1,10 +1,22 @@
 package com.codechallenge.bank.util;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.test.context.junit4.SpringRunner;
 
-import static org.junit.Assert.assertNotNull;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static com.codechallenge.bank.util.TransactionReferenceGenerator.Format.COMPACT;
+import static com.codechallenge.bank.util.TransactionReferenceGenerator.Format.READABLE;
+import static org.junit.Assert.*;
 
 /**
  * @author Carlos Rodriguez
@@ -12,10 +24,143 @@ import static org.junit.Assert.assertNotNull;
  */
 @RunWith(SpringRunner.class)
 public class TransactionReferenceGeneratorTest {
-  
+
+  private static final Logger logger = LoggerFactory.getLogger(TransactionReferenceGeneratorTest.class);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void generate_checkNotNull() {
     String reference = TransactionReferenceGenerator.generate();
     assertNotNull(reference);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void next_readableFormat() {
+    String reference = new TransactionReferenceGenerator(1, READABLE).next();
+    assertTrue(reference, reference.matches("[0-9]+[A-Z]"));
+  }
+
+  @Test
+  public void next_compactFormat() {
+    String reference = new TransactionReferenceGenerator(1, COMPACT).next();
+    assertTrue(reference, reference.matches("[0-9A-Z]{1,13}"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_invalidNode() {
+    new TransactionReferenceGenerator(1024, READABLE);
+    fail("Expecting illegal argument exception");
+  }
+
+  @Test
+  public void nextId_increasingWhenSequenceOverflows() {
+    TransactionReferenceGenerator generator = new TransactionReferenceGenerator(7, READABLE);
+    long last = generator.nextId();
+    for (int i = 0; i < 50_000; i++) {
+      long id = generator.nextId();
+      assertTrue(id > last);
+      assertEquals(7, (id >>> TransactionReferenceGenerator.SEQUENCE_BITS) & TransactionReferenceGenerator.MAX_NODE);
+      last = id;
+    }
+  }
+
+  @Test
+  public void nextId_clockBackwardsKeepsIncreasing() {
+    long[] clock = {5000};
+    TransactionReferenceGenerator generator = new TransactionReferenceGenerator(1, READABLE) {
+      @Override
+      long currentTime() {
+        return clock[0];
+      }
+    };
+    long last = generator.nextId();
+    clock[0] = 3000;
+    for (int i = 0; i < 10_000; i++) {
+      long id = generator.nextId();
+      assertTrue(id > last);
+      last = id;
+    }
+    clock[0] = 6000;
+    long caughtUp = generator.nextId();
+    assertTrue(caughtUp > last);
+    assertEquals(6000,
+      caughtUp >>> (TransactionReferenceGenerator.NODE_BITS + TransactionReferenceGenerator.SEQUENCE_BITS));
+  }
+
+  @Test
+  public void nextId_restartStartsAfterTheHighWaterMark() {
+    Path highWaterFile = folder.getRoot().toPath().resolve("high-water");
+    TransactionReferenceGenerator generator = new TransactionReferenceGenerator(1, READABLE, highWaterFile) {
+      @Override
+      long currentTime() {
+        return 5000;
+      }
+    };
+    long last = 0;
+    for (int i = 0; i < 20_000; i++) {
+      last = generator.nextId();
+    }
+    TransactionReferenceGenerator restarted = new TransactionReferenceGenerator(1, READABLE, highWaterFile) {
+      @Override
+      long currentTime() {
+        return 4000;
+      }
+    };
+    long first = restarted.nextId();
+    assertTrue(first > last);
+    assertEquals(1, (first >>> TransactionReferenceGenerator.SEQUENCE_BITS) & TransactionReferenceGenerator.MAX_NODE);
+  }
+
+  @Test
+  public void next_differentNodesDoNotCollide() {
+    TransactionReferenceGenerator generator1 = new TransactionReferenceGenerator(1, COMPACT);
+    TransactionReferenceGenerator generator2 = new TransactionReferenceGenerator(2, COMPACT);
+    Set<String> references = ConcurrentHashMap.newKeySet();
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(references.add(generator1.next()));
+      assertTrue(references.add(generator2.next()));
+    }
+  }
+
+  @Test
+  public void next_concurrentThreadsNeverCollide() throws Exception {
+    int threads = 8;
+    int referencesPerThread = 100_000;
+    TransactionReferenceGenerator generator = new TransactionReferenceGenerator(3, READABLE);
+    Set<String> references = ConcurrentHashMap.newKeySet(threads * referencesPerThread);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<String[]>> futures = new ArrayList<>();
+    try {
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          String[] generated = new String[referencesPerThread];
+          start.await();
+          for (int i = 0; i < referencesPerThread; i++) {
+            generated[i] = generator.next();
+          }
+          return generated;
+        }));
+      }
+      long startTime = System.nanoTime();
+      start.countDown();
+      List<String[]> generated = new ArrayList<>();
+      for (Future<String[]> future : futures) {
+        generated.add(future.get(1, TimeUnit.MINUTES));
+      }
+      long elapsed = System.nanoTime() - startTime;
+      logger.info("{} references generated in {} ms ({} references/s)", threads * referencesPerThread,
+        TimeUnit.NANOSECONDS.toMillis(elapsed), threads * referencesPerThread * 1_000_000_000L / elapsed);
+      generated.forEach(batch -> {
+        for (String reference : batch) {
+          assertTrue("Duplicated reference " + reference, references.add(reference));
+        }
+      });
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(threads * referencesPerThread, references.size());
+  }
+}